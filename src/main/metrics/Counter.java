@@ -0,0 +1,31 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents a monotonically increasing count of something that happened, e.g. saves skipped because
+// nothing changed. Increments from many threads do not contend on a single memory location.
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    // MODIFIES: this
+    // EFFECTS: adds one to the count
+    public void increment() {
+        count.increment();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount to the count
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the count back to zero
+    void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,52 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import model.Logbook;
+import persistence.AutosaveScheduler;
+
+// Publishes the application's MXBeans on the platform MBean server, where jconsole, VisualVM or a
+// JMX connection opened through `jcmd <pid> ManagementAgent.start` can read them while the app runs:
+//  - fitnessrecord:type=Logbook      sessions, exercises, date index health; save and compact operations
+//  - fitnessrecord:type=EventLog     event log occupancy; trim operation
+//  - fitnessrecord:type=Persistence  store size, save and read latencies, autosave outcome
+//  - fitnessrecord:type=Metrics      every counter and timer of the metrics registry
+public class Diagnostics {
+    public static final String DOMAIN = "fitnessrecord";
+
+    // EFFECTS: prevents construction; this class only has static methods
+    private Diagnostics() {
+    }
+
+    // MODIFIES: platform MBean server
+    // EFFECTS: publishes the MXBeans of logbook, saved in the background by autosave (which may be null),
+    // of the event log and of the metrics registry; returns false if any of them could not be published
+    public static boolean registerAll(Logbook logbook, AutosaveScheduler autosave) {
+        boolean registered = register(new LogbookDiagnostics(logbook), "Logbook");
+        registered &= register(new EventLogDiagnostics(), "EventLog");
+        registered &= register(new PersistenceDiagnostics(logbook, autosave), "Persistence");
+        registered &= new MetricsExporter(MetricsRegistry.getInstance()).register();
+        return registered;
+    }
+
+    // MODIFIES: platform MBean server
+    // EFFECTS: publishes mxBean as fitnessrecord:type=type, replacing whatever was published under that name
+    // before; returns false if the platform does not allow it
+    public static boolean register(Object mxBean, String type) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(DOMAIN + ":type=" + type);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mxBean, name);
+            return true;
+        } catch (JMException | SecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents one refresh of the main window's log display in a Java Flight Recorder recording;
+// it runs on the event dispatch thread, so long ones show up as stalls of the UI
+@Name("fitnessrecord.DisplayRefresh")
+@Label("Display Refresh")
+@Category({"Fitness Record", "UI"})
+@Description("The log display rebuilt on the event dispatch thread")
+public class DisplayRefreshEvent extends jdk.jfr.Event {
+    @Label("Title")
+    String title;
+
+    @Label("Sessions")
+    int sessions;
+
+    @Label("Characters")
+    long characters;
+
+    // MODIFIES: this
+    // EFFECTS: ends the event and commits it with the given counts if a recording wants it
+    public void finish(String title, int sessions, long characters) {
+        end();
+        if (shouldCommit()) {
+            this.title = title;
+            this.sessions = sessions;
+            this.characters = characters;
+            commit();
+        }
+    }
+}
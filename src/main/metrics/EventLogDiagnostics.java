@@ -0,0 +1,17 @@
+package metrics;
+
+import model.EventLog;
+
+// Represents the MXBean of the event log
+public class EventLogDiagnostics implements EventLogMXBean {
+
+    @Override
+    public int getSize() {
+        return EventLog.getInstance().size();
+    }
+
+    @Override
+    public int trim(int maxEvents) {
+        return EventLog.getInstance().trim(maxEvents);
+    }
+}
@@ -0,0 +1,11 @@
+package metrics;
+
+// Represents the occupancy of the event log as JMX clients see it under fitnessrecord:type=EventLog
+public interface EventLogMXBean {
+    // EFFECTS: returns the number of events held in the event log
+    int getSize();
+
+    // MODIFIES: event log
+    // EFFECTS: drops the oldest events so that at most maxEvents remain; returns the number dropped
+    int trim(int maxEvents);
+}
@@ -0,0 +1,64 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Represents the distribution of recorded values (e.g. latencies in nanoseconds) in power-of-two buckets:
+// bucket i counts the values v with 2^i <= v < 2^(i+1), and bucket 0 also counts 0. Recording a value is
+// a single atomic increment, and percentiles are accurate to within a factor of two, which is enough
+// to tell a 50 microsecond query from a 5 millisecond one.
+public class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    // REQUIRES: value >= 0
+    // MODIFIES: this
+    // EFFECTS: records one occurrence of value
+    public void record(long value) {
+        buckets.incrementAndGet(bucketOf(value));
+    }
+
+    // EFFECTS: returns the number of recorded values
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    // REQUIRES: 0 <= quantile <= 1
+    // EFFECTS: returns an upper bound of the quantile-th recorded value (the largest value of its bucket),
+    // or 0 if nothing was recorded
+    public long getPercentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen > 0 && seen >= rank) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every recorded value
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+    }
+
+    // EFFECTS: returns the bucket that counts value
+    private static int bucketOf(long value) {
+        return value <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(value);
+    }
+}
@@ -0,0 +1,70 @@
+package metrics;
+
+import java.io.IOException;
+
+import model.Logbook;
+
+// Represents the MXBean of a logbook; every gauge is read from the logbook when the client asks for it
+public class LogbookDiagnostics implements LogbookMXBean {
+    private Logbook logbook;
+
+    // EFFECTS: constructs the MXBean of logbook
+    public LogbookDiagnostics(Logbook logbook) {
+        this.logbook = logbook;
+    }
+
+    @Override
+    public int getSessionCount() {
+        return logbook.getSessionCount();
+    }
+
+    @Override
+    public int getExerciseCount() {
+        return logbook.getExerciseCount();
+    }
+
+    @Override
+    public int getIndexedDateCount() {
+        return logbook.getIndexedDateCount();
+    }
+
+    @Override
+    public boolean isIndexConsistent() {
+        return logbook.isIndexConsistent();
+    }
+
+    @Override
+    public long getVersion() {
+        return logbook.getVersion();
+    }
+
+    @Override
+    public boolean isDirty() {
+        return logbook.isDirty();
+    }
+
+    @Override
+    public int getPendingChangeCount() {
+        return logbook.getChangeSet().size();
+    }
+
+    @Override
+    public int getCachedJsonCount() {
+        return logbook.getCachedJsonCount();
+    }
+
+    @Override
+    public int getCachedQueryCount() {
+        return logbook.getCachedQueryCount();
+    }
+
+    @Override
+    public void save() throws IOException {
+        logbook.saveLogBook();
+    }
+
+    @Override
+    public void compact() {
+        logbook.compact();
+    }
+}
@@ -0,0 +1,45 @@
+package metrics;
+
+import java.util.function.IntSupplier;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents one load of a logbook from disk in a Java Flight Recorder recording. Like every event here,
+// it costs next to nothing while no recording is running: begin, end and shouldCommit are intrinsics that
+// the JIT compiles away and the event object itself is never allocated on the heap.
+@Name("fitnessrecord.LogbookLoad")
+@Label("Logbook Load")
+@Category({"Fitness Record", "Persistence"})
+@Description("A logbook read from its file or partitions")
+public class LogbookLoadEvent extends jdk.jfr.Event {
+    @Label("Store")
+    String store;
+
+    @Label("Sessions")
+    int sessions;
+
+    @Label("Exercises")
+    int exercises;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytes;
+
+    // MODIFIES: this
+    // EFFECTS: ends the event and commits it with the given counts if a recording wants it; exercises is
+    // only asked for the count then, since counting them walks every session
+    public void finish(String store, int sessions, IntSupplier exercises, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.store = store;
+            this.sessions = sessions;
+            this.exercises = exercises.getAsInt();
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
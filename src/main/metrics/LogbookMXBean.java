@@ -0,0 +1,38 @@
+package metrics;
+
+import java.io.IOException;
+
+// Represents the live state of the open logbook as JMX clients see it under fitnessrecord:type=Logbook
+public interface LogbookMXBean {
+    int getSessionCount();
+
+    int getExerciseCount();
+
+    // EFFECTS: returns the number of distinct dates in the date index
+    int getIndexedDateCount();
+
+    // EFFECTS: returns true if the date index holds every session exactly once, under its current date
+    boolean isIndexConsistent();
+
+    long getVersion();
+
+    // EFFECTS: returns true if the logbook has changes that were not saved yet
+    boolean isDirty();
+
+    // EFFECTS: returns the number of changed sessions plus stale dates waiting for the next save
+    int getPendingChangeCount();
+
+    // EFFECTS: returns the number of sessions whose JSON is kept from the last save for reuse
+    int getCachedJsonCount();
+
+    // EFFECTS: returns the number of filter query results kept for reuse
+    int getCachedQueryCount();
+
+    // MODIFIES: logbook, its file
+    // EFFECTS: saves the logbook now; throws IOException if the save fails
+    void save() throws IOException;
+
+    // MODIFIES: logbook
+    // EFFECTS: releases memory the logbook can do without
+    void compact();
+}
@@ -0,0 +1,38 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents one run of a logbook filter in a Java Flight Recorder recording
+@Name("fitnessrecord.LogbookQuery")
+@Label("Logbook Query")
+@Category({"Fitness Record", "Queries"})
+@Description("A logbook filter by date or muscle type")
+public class LogbookQueryEvent extends jdk.jfr.Event {
+    @Label("Query")
+    String query;
+
+    @Label("Argument")
+    String argument;
+
+    @Label("Sessions Scanned")
+    int scanned;
+
+    @Label("Results")
+    int results;
+
+    // MODIFIES: this
+    // EFFECTS: ends the event and commits it with the given counts if a recording wants it
+    public void finish(String query, String argument, int scanned, int results) {
+        end();
+        if (shouldCommit()) {
+            this.query = query;
+            this.argument = argument;
+            this.scanned = scanned;
+            this.results = results;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Represents one save of a logbook that wrote anything, in a Java Flight Recorder recording
+@Name("fitnessrecord.LogbookSave")
+@Label("Logbook Save")
+@Category({"Fitness Record", "Persistence"})
+@Description("A logbook written to its file or partitions")
+public class LogbookSaveEvent extends jdk.jfr.Event {
+    @Label("Store")
+    String store;
+
+    @Label("Sessions")
+    int sessions;
+
+    @Label("Changes")
+    @Description("Changed sessions plus dates whose sessions were removed or moved away")
+    int changes;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    // MODIFIES: this
+    // EFFECTS: ends the event and commits it with the given counts if a recording wants it
+    public void finish(String store, int sessions, int changes, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.store = store;
+            this.sessions = sessions;
+            this.changes = changes;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
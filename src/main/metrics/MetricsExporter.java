@@ -0,0 +1,86 @@
+package metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+import persistence.JsonWriter;
+
+// Represents the ways a snapshot of the metrics registry leaves the process: written to a local JSON file,
+// or published as an MXBean that jconsole, VisualVM or any other JMX client can read while the app runs.
+public class MetricsExporter implements MetricsMXBean {
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private MetricsRegistry registry;
+
+    // EFFECTS: constructs an exporter of registry
+    public MetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    // MODIFIES: platform MBean server
+    // EFFECTS: publishes this exporter as fitnessrecord:type=Metrics, replacing any exporter published before;
+    // returns false if the platform does not allow it
+    public boolean register() {
+        return Diagnostics.register(this, "Metrics");
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, Counter> entry : registry.getCounters().entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getTimerCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getTimerMeanMicros() {
+        return timerMicros(Timer::getMeanNanos);
+    }
+
+    @Override
+    public Map<String, Double> getTimerP99Micros() {
+        return timerMicros(timer -> timer.getPercentileNanos(0.99));
+    }
+
+    @Override
+    public Map<String, Double> getTimerMaxMicros() {
+        return timerMicros(Timer::getMaxNanos);
+    }
+
+    @Override
+    public void reset() {
+        registry.reset();
+    }
+
+    // MODIFIES: file
+    // EFFECTS: writes a snapshot of every metric to file as JSON, replacing it atomically;
+    // throws IOException if the file cannot be written
+    @Override
+    public void exportTo(String file) throws IOException {
+        JsonWriter writer = new JsonWriter(file);
+        writer.open();
+        writer.write(registry.toJson());
+        writer.close();
+    }
+
+    // EFFECTS: returns statistic, converted to microseconds, of every timer by name
+    private Map<String, Double> timerMicros(ToLongFunction<Timer> statistic) {
+        Map<String, Double> micros = new TreeMap<>();
+        for (Map.Entry<String, Timer> entry : registry.getTimers().entrySet()) {
+            micros.put(entry.getKey(), statistic.applyAsLong(entry.getValue()) / NANOS_PER_MICRO);
+        }
+        return micros;
+    }
+}
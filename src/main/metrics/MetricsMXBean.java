@@ -0,0 +1,31 @@
+package metrics;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Represents the view of the metrics registry that JMX clients such as jconsole show under
+// fitnessrecord:type=Metrics. Latencies are in microseconds.
+public interface MetricsMXBean {
+    // EFFECTS: returns the count of every counter, by name
+    Map<String, Long> getCounters();
+
+    // EFFECTS: returns the number of samples of every timer, by name
+    Map<String, Long> getTimerCounts();
+
+    // EFFECTS: returns the mean sample of every timer, by name
+    Map<String, Double> getTimerMeanMicros();
+
+    // EFFECTS: returns the 99th percentile sample of every timer, by name
+    Map<String, Double> getTimerP99Micros();
+
+    // EFFECTS: returns the largest sample of every timer, by name
+    Map<String, Double> getTimerMaxMicros();
+
+    // MODIFIES: registry
+    // EFFECTS: sets every metric back to zero
+    void reset();
+
+    // MODIFIES: file
+    // EFFECTS: writes a snapshot of every metric to file as JSON
+    void exportTo(String file) throws IOException;
+}
@@ -0,0 +1,92 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+// Represents every counter and timer of the application, by name (e.g. "logbook.save").
+// There is only one registry (Singleton Design Pattern), so metrics recorded anywhere end up in the same
+// snapshot. Looking a metric up by name costs a hash lookup, so hot paths look theirs up once and keep it
+// in a static field.
+public class MetricsRegistry {
+    private static final MetricsRegistry theRegistry = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    // EFFECTS: prevents external construction
+    private MetricsRegistry() {
+    }
+
+    // EFFECTS: returns the only registry
+    public static MetricsRegistry getInstance() {
+        return theRegistry;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the counter called name, creating it if it does not exist yet
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the timer called name, creating it if it does not exist yet
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer());
+    }
+
+    // EFFECTS: returns all counters sorted by name
+    public Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(new TreeMap<>(counters));
+    }
+
+    // EFFECTS: returns all timers sorted by name
+    public Map<String, Timer> getTimers() {
+        return Collections.unmodifiableMap(new TreeMap<>(timers));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets every counter and timer back to zero; metrics held by callers stay registered
+    public void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (Timer timer : timers.values()) {
+            timer.reset();
+        }
+    }
+
+    // EFFECTS: returns a snapshot of every metric as JSON, one object per metric sorted by name
+    public JSONArray toJson() {
+        JSONArray jsonArray = new JSONArray();
+        for (Map.Entry<String, Counter> entry : getCounters().entrySet()) {
+            JSONObject json = new JSONObject();
+            json.put("name", entry.getKey());
+            json.put("type", "counter");
+            json.put("count", entry.getValue().getCount());
+            jsonArray.put(json);
+        }
+        for (Map.Entry<String, Timer> entry : getTimers().entrySet()) {
+            jsonArray.put(timerToJson(entry.getKey(), entry.getValue()));
+        }
+        return jsonArray;
+    }
+
+    // EFFECTS: returns a snapshot of timer called name as JSON
+    private static JSONObject timerToJson(String name, Timer timer) {
+        JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("type", "timer");
+        json.put("count", timer.getCount());
+        json.put("total nanos", timer.getTotalNanos());
+        json.put("mean nanos", timer.getMeanNanos());
+        json.put("p50 nanos", timer.getPercentileNanos(0.5));
+        json.put("p99 nanos", timer.getPercentileNanos(0.99));
+        json.put("max nanos", timer.getMaxNanos());
+        return json;
+    }
+}
@@ -0,0 +1,99 @@
+package metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import model.Logbook;
+import persistence.AutosaveScheduler;
+
+// Represents the MXBean of the persistence layer behind a logbook and its autosave
+public class PersistenceDiagnostics implements PersistenceMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private Logbook logbook;
+    private AutosaveScheduler autosave;
+    private Timer saves;
+    private Timer reads;
+
+    // EFFECTS: constructs the MXBean of the persistence of logbook, saved in the background by autosave
+    // (which may be null)
+    public PersistenceDiagnostics(Logbook logbook, AutosaveScheduler autosave) {
+        this.logbook = logbook;
+        this.autosave = autosave;
+        this.saves = MetricsRegistry.getInstance().timer("logbook.save");
+        this.reads = MetricsRegistry.getInstance().timer("persistence.read");
+    }
+
+    @Override
+    public String getStoreLocation() {
+        return logbook.getStoreFile();
+    }
+
+    @Override
+    public long getStoreBytes() {
+        Path store = Paths.get(logbook.getStoreFile());
+        try {
+            if (!Files.isDirectory(store)) {
+                return Files.exists(store) ? Files.size(store) : 0;
+            }
+            long bytes = 0;
+            try (Stream<Path> files = Files.list(store)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    bytes += Files.isRegularFile(file) ? Files.size(file) : 0;
+                }
+            }
+            return bytes;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public double getLastSaveMillis() {
+        return logbook.getLastSaveNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getSaveCount() {
+        return saves.getCount();
+    }
+
+    @Override
+    public long getSkippedSaveCount() {
+        return MetricsRegistry.getInstance().counter("logbook.save.skipped").getCount();
+    }
+
+    @Override
+    public double getMeanSaveMillis() {
+        return saves.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99SaveMillis() {
+        return saves.getPercentileNanos(0.99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getReadCount() {
+        return reads.getCount();
+    }
+
+    @Override
+    public double getMeanReadMillis() {
+        return reads.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getAutosaveCount() {
+        return autosave == null ? 0 : autosave.getSaveCount();
+    }
+
+    @Override
+    public String getLastAutosaveError() {
+        IOException error = autosave == null ? null : autosave.getLastError();
+        return error == null ? "" : String.valueOf(error.getMessage());
+    }
+}
@@ -0,0 +1,33 @@
+package metrics;
+
+// Represents the persistence layer as JMX clients see it under fitnessrecord:type=Persistence.
+// Latencies are in milliseconds.
+public interface PersistenceMXBean {
+    // EFFECTS: returns the file, or directory of partitions, the logbook is stored in
+    String getStoreLocation();
+
+    // EFFECTS: returns the bytes the logbook takes on disk, 0 if it was never saved, -1 if they cannot be read
+    long getStoreBytes();
+
+    // EFFECTS: returns how long the last save that wrote anything took
+    double getLastSaveMillis();
+
+    long getSaveCount();
+
+    // EFFECTS: returns the number of saves skipped because nothing had changed
+    long getSkippedSaveCount();
+
+    double getMeanSaveMillis();
+
+    double getP99SaveMillis();
+
+    long getReadCount();
+
+    double getMeanReadMillis();
+
+    // EFFECTS: returns the number of saves autosave ran, 0 without autosave
+    int getAutosaveCount();
+
+    // EFFECTS: returns the message of the error of the last autosave, or an empty string if it succeeded
+    String getLastAutosaveError();
+}
@@ -0,0 +1,42 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Represents how far the application's startup has come: when each phase (e.g. "frameShown" for the first
+// paint, "interactive" once the logbook is usable) first finished, in milliseconds since the JVM started.
+// Each phase is also recorded once as the timer "startup.<phase>", so it is exported with the other metrics.
+// There is only one (Singleton Design Pattern), so phases marked on any thread end up together.
+public class StartupPhases {
+    private static final StartupPhases thePhases = new StartupPhases();
+
+    private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+
+    // EFFECTS: prevents external construction
+    private StartupPhases() {
+    }
+
+    // EFFECTS: returns the only startup record
+    public static StartupPhases getInstance() {
+        return thePhases;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that phase finished now, unless it finished before
+    public void mark(String phase) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        synchronized (this) {
+            if (phaseMillis.putIfAbsent(phase, uptime) != null) {
+                return;
+            }
+        }
+        MetricsRegistry.getInstance().timer("startup." + phase).record(TimeUnit.MILLISECONDS.toNanos(uptime));
+    }
+
+    // EFFECTS: returns the milliseconds since the JVM started at which each phase finished, in that order
+    public synchronized Map<String, Long> getPhaseMillis() {
+        return new LinkedHashMap<>(phaseMillis);
+    }
+}
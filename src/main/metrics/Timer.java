@@ -0,0 +1,69 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Represents the latencies of one operation, e.g. saving the logbook. Callers bracket the operation with
+//     long start = timer.start();
+//     try { ... } finally { timer.stop(start); }
+// A sample costs two System.nanoTime() calls and a few uncontended atomic adds, well under a microsecond.
+public class Timer {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+    private final Histogram histogram = new Histogram();
+
+    // EFFECTS: returns the start time of a sample, to be passed to stop
+    public long start() {
+        return System.nanoTime();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a sample that started at startNanos, as returned by start, and ends now
+    public void stop(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a sample that took nanos nanoseconds
+    public void record(long nanos) {
+        long sample = Math.max(0, nanos);
+        count.increment();
+        totalNanos.add(sample);
+        maxNanos.accumulate(sample);
+        histogram.record(sample);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // EFFECTS: returns the mean sample in nanoseconds, or 0 if there is none
+    public long getMeanNanos() {
+        long samples = count.sum();
+        return samples == 0 ? 0 : totalNanos.sum() / samples;
+    }
+
+    // REQUIRES: 0 <= quantile <= 1
+    // EFFECTS: returns an upper bound of the quantile-th sample in nanoseconds, never above the largest sample
+    public long getPercentileNanos(double quantile) {
+        return Math.min(histogram.getPercentile(quantile), getMaxNanos());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every sample
+    void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        histogram.reset();
+    }
+}
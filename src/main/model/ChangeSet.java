@@ -0,0 +1,92 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Represents everything that changed in a logbook since its last checkpoint (load or save):
+ * the sessions that were added or edited, and the dates whose sessions were removed or moved away
+ */
+public class ChangeSet {
+    private Set<WorkoutSession> modifiedSessions;
+    private Set<String> staleDates;
+
+    /*
+     * EFFECTS: creates an empty change set
+     */
+    public ChangeSet() {
+        this.modifiedSessions = new LinkedHashSet<>();
+        this.staleDates = new LinkedHashSet<>();
+    }
+
+    /*
+     * EFFECTS: creates a copy of other
+     */
+    public ChangeSet(ChangeSet other) {
+        this.modifiedSessions = new LinkedHashSet<>(other.modifiedSessions);
+        this.staleDates = new LinkedHashSet<>(other.staleDates);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that session was added or its content changed
+     */
+    public void sessionModified(WorkoutSession session) {
+        modifiedSessions.add(session);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that the sessions stored under date are no longer what was last saved
+     */
+    public void dateStale(String date) {
+        staleDates.add(date);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records everything that changed in other as well, after what is already recorded
+     */
+    public void addAll(ChangeSet other) {
+        modifiedSessions.addAll(other.modifiedSessions);
+        staleDates.addAll(other.staleDates);
+    }
+
+    /*
+     * EFFECTS: returns true if session was added or changed
+     */
+    public boolean contains(WorkoutSession session) {
+        return modifiedSessions.contains(session);
+    }
+
+    /*
+     * EFFECTS: returns true if nothing changed
+     */
+    public boolean isEmpty() {
+        return modifiedSessions.isEmpty() && staleDates.isEmpty();
+    }
+
+    /*
+     * EFFECTS: returns the number of changed sessions plus the number of stale dates
+     */
+    public int size() {
+        return modifiedSessions.size() + staleDates.size();
+    }
+
+    /*
+     * EFFECTS: returns the added or changed sessions in the order they were first changed
+     */
+    public List<WorkoutSession> getModifiedSessions() {
+        return new ArrayList<>(modifiedSessions);
+    }
+
+    /*
+     * EFFECTS: returns the dates whose sessions were removed or moved to another date
+     */
+    public Set<String> getStaleDates() {
+        return Collections.unmodifiableSet(staleDates);
+    }
+}
@@ -0,0 +1,393 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/*
+ * Represents the edits made to a logbook that can be undone, newest last, and the undone edits that can
+ * be redone. Each edit keeps only what it changed: the exercise snapshots before and after a change of its
+ * fields, the exercise and its position for an add or a remove, the old and new date of a moved session.
+ * Undoing or redoing one replays that delta through the usual model methods, so the date index, query
+ * cache, listeners and change set follow as for any other edit. Edits made between begin and end are undone
+ * and redone as one; only the newest limit edits are kept.
+ */
+class EditJournal {
+    private final int limit;
+    private final Deque<Edit> undoable = new ArrayDeque<>();
+    private final Deque<Edit> redoable = new ArrayDeque<>();
+    private Group group;            // the edits made since the outermost begin, or null
+    private int depth;              // how many begins are not yet ended
+    private boolean replaying;      // true while an edit is undone or redone, which records nothing
+
+    /*
+     * REQUIRES: limit > 0
+     * EFFECTS: creates an empty journal that keeps at most limit edits to undo
+     */
+    EditJournal(int limit) {
+        this.limit = limit;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records edit, which was just made, as the newest edit to undo (or as part of the current
+     *          group); forgets the edits to redo, and the oldest edit if there are more than limit
+     */
+    void record(Edit edit) {
+        if (replaying) {
+            return;
+        }
+        if (group != null) {
+            group.edits.add(edit);
+            return;
+        }
+        undoable.addLast(edit);
+        if (undoable.size() > limit) {
+            undoable.removeFirst();
+        }
+        redoable.clear();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts a group of edits that are undone and redone as one, described by description;
+     *          a begin within a group only extends that group
+     */
+    void begin(String description) {
+        if (depth++ == 0) {
+            group = new Group(description);
+        }
+    }
+
+    /*
+     * REQUIRES: a begin that is not yet ended
+     * MODIFIES: this
+     * EFFECTS: ends the current group, recording it as one edit if this ends the outermost begin
+     *          and anything was edited
+     */
+    void end() {
+        if (--depth == 0) {
+            Group done = group;
+            group = null;
+            if (!done.edits.isEmpty()) {
+                record(done);
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: undoes the newest edit and returns its description, or returns null if there is none
+     */
+    String undo() {
+        Edit edit = undoable.pollLast();
+        if (edit == null) {
+            return null;
+        }
+        replay(edit, true);
+        redoable.addLast(edit);
+        return edit.describe();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: redoes the edit undone last and returns its description, or returns null if there is none
+     */
+    String redo() {
+        Edit edit = redoable.pollLast();
+        if (edit == null) {
+            return null;
+        }
+        replay(edit, false);
+        undoable.addLast(edit);
+        return edit.describe();
+    }
+
+    /*
+     * EFFECTS: returns the description of the edit undo would undo, or null if there is none
+     */
+    String getUndoDescription() {
+        Edit edit = undoable.peekLast();
+        return edit == null ? null : edit.describe();
+    }
+
+    /*
+     * EFFECTS: returns the description of the edit redo would redo, or null if there is none
+     */
+    String getRedoDescription() {
+        Edit edit = redoable.peekLast();
+        return edit == null ? null : edit.describe();
+    }
+
+    /*
+     * EFFECTS: returns the number of edits that can be undone
+     */
+    int getUndoCount() {
+        return undoable.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of edits kept to undo or redo, counting a group as its edits and a clearing
+     *          as the sessions and exercises it keeps, which no longer belong to the logbook
+     */
+    int getRetainedCount() {
+        int retained = 0;
+        for (Edit edit : undoable) {
+            retained += edit.retained();
+        }
+        for (Edit edit : redoable) {
+            retained += edit.retained();
+        }
+        return retained;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets every edit, e.g. after the logbook was replaced by a load
+     */
+    void clear() {
+        undoable.clear();
+        redoable.clear();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: undoes edit if undo is true and redoes it otherwise, recording nothing meanwhile
+     */
+    private void replay(Edit edit, boolean undo) {
+        replaying = true;
+        try {
+            if (undo) {
+                edit.undo();
+            } else {
+                edit.redo();
+            }
+        } finally {
+            replaying = false;
+        }
+    }
+
+    /*
+     * Represents one edit of a logbook that can be undone and then redone
+     */
+    interface Edit {
+        void undo();
+
+        void redo();
+
+        String describe();
+
+        /*
+         * EFFECTS: returns the number of changes, sessions and exercises this edit keeps
+         */
+        default int retained() {
+            return 1;
+        }
+    }
+
+    /*
+     * Represents edits made together, undone in reverse order and redone in order
+     */
+    private static class Group implements Edit {
+        private final String description;
+        private final List<Edit> edits = new ArrayList<>();
+
+        Group(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public void undo() {
+            for (int i = edits.size() - 1; i >= 0; i--) {
+                edits.get(i).undo();
+            }
+        }
+
+        @Override
+        public void redo() {
+            for (Edit edit : edits) {
+                edit.redo();
+            }
+        }
+
+        @Override
+        public String describe() {
+            return description;
+        }
+
+        @Override
+        public int retained() {
+            int retained = 0;
+            for (Edit edit : edits) {
+                retained += edit.retained();
+            }
+            return retained;
+        }
+    }
+
+    /*
+     * Represents a change of the fields of exercise from before to after
+     */
+    static class ExerciseChange implements Edit {
+        private final Exercise exercise;
+        private final ExerciseSnapshot before;
+        private final ExerciseSnapshot after;
+
+        ExerciseChange(Exercise exercise, ExerciseSnapshot before, ExerciseSnapshot after) {
+            this.exercise = exercise;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public void undo() {
+            exercise.update(before);
+        }
+
+        @Override
+        public void redo() {
+            exercise.update(after);
+        }
+
+        @Override
+        public String describe() {
+            return "edit " + after.getExerciseName();
+        }
+    }
+
+    /*
+     * Represents exercise being added to (or removed from) session at position
+     */
+    static class ExerciseMembership implements Edit {
+        private final WorkoutSession session;
+        private final Exercise exercise;
+        private final int position;
+        private final boolean added;
+
+        ExerciseMembership(WorkoutSession session, Exercise exercise, int position, boolean added) {
+            this.session = session;
+            this.exercise = exercise;
+            this.position = position;
+            this.added = added;
+        }
+
+        @Override
+        public void undo() {
+            apply(!added);
+        }
+
+        @Override
+        public void redo() {
+            apply(added);
+        }
+
+        private void apply(boolean add) {
+            if (add) {
+                session.insertExercise(position, exercise);
+            } else {
+                session.dropExercise(exercise);
+            }
+        }
+
+        @Override
+        public String describe() {
+            return (added ? "add " : "remove ") + exercise.getExerciseName() + " on " + session.getDate();
+        }
+    }
+
+    /*
+     * Represents session moving from oldDate to newDate
+     */
+    static class SessionMove implements Edit {
+        private final WorkoutSession session;
+        private final String oldDate;
+        private final String newDate;
+
+        SessionMove(WorkoutSession session, String oldDate, String newDate) {
+            this.session = session;
+            this.oldDate = oldDate;
+            this.newDate = newDate;
+        }
+
+        @Override
+        public void undo() {
+            session.moveTo(oldDate);
+        }
+
+        @Override
+        public void redo() {
+            session.moveTo(newDate);
+        }
+
+        @Override
+        public String describe() {
+            return "move " + oldDate + " to " + newDate;
+        }
+    }
+
+    /*
+     * Represents session being added to logbook
+     */
+    static class SessionAddition implements Edit {
+        private final Logbook logbook;
+        private final WorkoutSession session;
+
+        SessionAddition(Logbook logbook, WorkoutSession session) {
+            this.logbook = logbook;
+            this.session = session;
+        }
+
+        @Override
+        public void undo() {
+            logbook.removeSession(session);
+        }
+
+        @Override
+        public void redo() {
+            logbook.restoreSessions(List.of(session));
+        }
+
+        @Override
+        public String describe() {
+            return "add session " + session.getDate();
+        }
+    }
+
+    /*
+     * Represents logbook being cleared of sessions
+     */
+    static class Clearing implements Edit {
+        private final Logbook logbook;
+        private final List<WorkoutSession> sessions;
+
+        Clearing(Logbook logbook, List<WorkoutSession> sessions) {
+            this.logbook = logbook;
+            this.sessions = sessions;
+        }
+
+        @Override
+        public void undo() {
+            logbook.restoreSessions(sessions);
+        }
+
+        @Override
+        public void redo() {
+            logbook.clearLogbook();
+        }
+
+        @Override
+        public String describe() {
+            return "clear logbook";
+        }
+
+        @Override
+        public int retained() {
+            int retained = sessions.size();
+            for (WorkoutSession session : sessions) {
+                retained += session.getExercises().size();
+            }
+            return retained;
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
 
 /**
@@ -16,14 +17,16 @@ import java.util.Iterator;
 public class EventLog implements Iterable<Event> {
 	/** the only EventLog in the system (Singleton Design Pattern) */
     private static EventLog theLog;
-    private Collection<Event> events;
+    private Deque<Event> events;
+    private int capacity;
 	
 	/** 
 	 * Prevent external construction.
 	 * (Singleton Design Pattern).
 	 */
     private EventLog() {
-        events = new ArrayList<Event>();
+        events = new ArrayDeque<Event>();
+        capacity = Integer.MAX_VALUE;
     }
 	
 	/**
@@ -32,7 +35,7 @@ public class EventLog implements Iterable<Event> {
 	 * (Singleton Design Pattern)
 	 * @return  instance of EventLog
 	 */
-    public static EventLog getInstance() {
+    public static synchronized EventLog getInstance() {
         if (theLog == null) {
             theLog = new EventLog();
         }
@@ -44,20 +47,61 @@ public class EventLog implements Iterable<Event> {
 	 * Adds an event to the event log.
 	 * @param e the event to be added
 	 */
-    public void logEvent(Event e) {
-        events.add(e);
+    public synchronized void logEvent(Event e) {
+        events.addLast(e);
+        if (events.size() > capacity) {
+            events.removeFirst();
+        }
     }
 	
 	/**
 	 * Clears the event log and logs the event.
 	 */
-    public void clear() {
+    public synchronized void clear() {
         events.clear();
         logEvent(new Event("Event log cleared."));
     }
 
+    /**
+     * Gets the number of events currently held in the log.
+     * @return  the number of events
+     */
+    public synchronized int size() {
+        return events.size();
+    }
+
+    /**
+     * Drops the oldest events so that at most maxEvents remain,
+     * bounding the memory the log holds in a long-running session.
+     * @param maxEvents  the number of most recent events to keep
+     * @return  the number of events dropped
+     */
+    public synchronized int trim(int maxEvents) {
+        int dropped = Math.max(0, events.size() - Math.max(0, maxEvents));
+        for (int i = 0; i < dropped; i++) {
+            events.removeFirst();
+        }
+        return dropped;
+    }
+
+    /**
+     * Keeps at most maxEvents of the most recent events from now on,
+     * dropping the oldest one as each new one is logged, so a process
+     * that runs for weeks (e.g. the headless service) holds a bounded log.
+     * Integer.MAX_VALUE lifts the limit again.
+     * @param maxEvents  the number of most recent events to keep
+     */
+    public synchronized void limitTo(int maxEvents) {
+        capacity = Math.max(0, maxEvents);
+        trim(capacity);
+    }
+
+    /**
+     * Iterates over a copy of the events, so events logged by
+     * other threads meanwhile do not disturb the iteration.
+     */
     @Override
-    public Iterator<Event> iterator() {
-        return events.iterator();
+    public synchronized Iterator<Event> iterator() {
+        return new ArrayList<Event>(events).iterator();
     }
 }
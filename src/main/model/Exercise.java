@@ -1,15 +1,16 @@
 package model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.json.JSONObject;
 import persistence.Writable;
 
 // Specify the exercise type, weight lifted, and number of sets and reps, as well as users can add and remove exercises
 public class Exercise implements Writable {
-    private String exerciseName;    // the type of exercise
-    private int weightLifted;       // track the weight lifted in killogram
-    private int numSets;            // track the number of sets of the exercise
-    private int numReps;            // track the number of repetition of the exercise
-    private Muscles muscleType;     // the type of muscle users use with exercise
+    private ExerciseSnapshot values; // the name, muscle type, weight in kilograms, sets and reps; replaced
+                                     // by a new snapshot on every change, never changed in place
+    private WorkoutSession session;  // the session this exercise was added to, told about every change
 
     /*
      * REQUIRES: exerciseName has a non-zero length
@@ -17,11 +18,7 @@ public class Exercise implements Writable {
      *          WeightLifted, numSets, and numReps are initially set to zero; group exercises based on muscleType;
      */
     public Exercise(String exerciseName, Muscles muscleType) {
-        this.exerciseName = capitalizationForFirstLetter(exerciseName);
-        this.muscleType = muscleType;
-        this.weightLifted = 0;
-        this.numSets = 0;
-        this.numReps = 0;
+        this.values = new ExerciseSnapshot(capitalizationForFirstLetter(exerciseName), muscleType, 0, 0, 0);
     }
 
     /*
@@ -30,17 +27,40 @@ public class Exercise implements Writable {
      *          weightLifted, numSets, and numReps are set by the given value
      */
     public Exercise(String exerciseName, Muscles muscleType, int weightLifted, int numSets, int numReps) {
-        this.exerciseName = capitalizationForFirstLetter(exerciseName);
-        this.muscleType = muscleType;
-        this.weightLifted = weightLifted;
-        this.numSets = numSets;
-        this.numReps = numReps;
+        this.values = new ExerciseSnapshot(capitalizationForFirstLetter(exerciseName), muscleType,
+                weightLifted, numSets, numReps);
         
         EventLog.getInstance().logEvent(new Event("Created a new exercise: " + exerciseName 
                     + " with details: " + weightLifted + "kg, " + numSets 
                     + " sets, " + numReps + " reps, " + muscleType.toString()));
     }
 
+    /*
+     * REQUIRES: exerciseName has a non-zero length; weightLifted >= 0.0; numSets and numReps >= 0
+     * EFFECTS: returns an exercise read back from storage or imported in bulk; unlike the constructor
+     *          it logs no creation event, since the exercise is not new to the user
+     */
+    public static Exercise restore(String exerciseName, Muscles muscleType, int weightLifted, int numSets,
+                                    int numReps) {
+        Exercise exercise = new Exercise(exerciseName, muscleType);
+        exercise.values = new ExerciseSnapshot(exercise.getExerciseName(), muscleType, weightLifted, numSets,
+                numReps);
+        return exercise;
+    }
+
+    /*
+     * REQUIRES: exerciseName has a non-zero length; weightLifted >= 0.0; numSets and numReps >= 0
+     * EFFECTS: returns an exercise read back from storage or imported in bulk that works muscleType and
+     *          the muscle types in the mask muscles; it logs no creation event
+     */
+    public static Exercise restore(String exerciseName, Muscles muscleType, int muscles, int weightLifted,
+                                    int numSets, int numReps) {
+        Exercise exercise = new Exercise(exerciseName, muscleType);
+        exercise.values = new ExerciseSnapshot(exercise.getExerciseName(), muscleType, muscles, weightLifted,
+                numSets, numReps);
+        return exercise;
+    }
+
     /*
      * REQUIRES: exerciseName is not empty or null
      * EFFECTS: convert case; 
@@ -53,56 +73,184 @@ public class Exercise implements Writable {
 
     // getters
     public String getExerciseName() {
-        return this.exerciseName;
+        return this.values.getExerciseName();
     }
 
     public int getWeightLifted() {
-        return this.weightLifted;
+        return this.values.getWeightLifted();
     }
 
     public int getNumSets() {
-        return this.numSets;
+        return this.values.getNumSets();
     }
 
     public int getNumReps() {
-        return this.numReps;
+        return this.values.getNumReps();
     }
 
     public Muscles getMuscleType() {
-        return this.muscleType;
+        return this.values.getMuscleType();
+    }
+
+    /*
+     * EFFECTS: returns the mask of every muscle type this exercise works, the main one included
+     */
+    public int getMuscleMask() {
+        return this.values.getMuscleMask();
+    }
+
+    /*
+     * EFFECTS: returns every muscle type this exercise works, the main one included
+     */
+    public EnumSet<Muscles> getMuscles() {
+        return this.values.getMuscles();
+    }
+
+    /*
+     * EFFECTS: returns the sets one by one, or an empty log if only the weight, sets and reps are known
+     */
+    public SetLog getSets() {
+        return this.values.getSets();
+    }
+
+    /*
+     * EFFECTS: returns the total weight moved in kilograms: the sum over the logged sets of weight times
+     *          reps if there are any, otherwise weight lifted times sets times reps
+     */
+    public long getVolume() {
+        return this.values.getVolume();
+    }
+
+    /*
+     * EFFECTS: returns the current values of this exercise, which no later change affects
+     */
+    public ExerciseSnapshot snapshot() {
+        return this.values;
     }
     
     // setters
     public void setExerciseName(String exerciseName) {
-        this.exerciseName = capitalizationForFirstLetter(exerciseName);
+        synchronized (lock()) {
+            update(values.withExerciseName(capitalizationForFirstLetter(exerciseName)));
+        }
     }
 
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes the weight lifted weight kilograms; throws IllegalArgumentException if sets are logged
+     *          and their top set is not that heavy. Logged sets are never dropped here; setSets with an
+     *          empty log drops them so the summary can be edited
+     */
     public void setWeightLifted(int weight) {
-        this.weightLifted = weight;
+        synchronized (lock()) {
+            update(values.withWeightLifted(weight));
+        }
     }
 
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes the number of reps reps; throws IllegalArgumentException if sets are logged and their
+     *          top set has a different number of reps
+     */
     public void setNumReps(int reps) {
-        this.numReps = reps;
+        synchronized (lock()) {
+            update(values.withNumReps(reps));
+        }
     }
 
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes the number of sets sets; throws IllegalArgumentException if sets are logged and there
+     *          are not that many of them
+     */
     public void setNumSets(int sets) {
-        this.numSets = sets;
+        synchronized (lock()) {
+            update(values.withNumSets(sets));
+        }
     }
 
     public void setMuscleType(Muscles muscleType) {
-        this.muscleType = muscleType;
+        synchronized (lock()) {
+            update(values.withMuscleType(muscleType));
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records another set of reps at weight kilograms, felt as hard as rpeTenths tenths of RPE
+     *          (0 if not recorded) and followed by restSeconds of rest (0 if not recorded); the weight,
+     *          sets and reps then summarize the logged sets. Throws IllegalArgumentException if a value is
+     *          negative or too large to record
+     */
+    public void addSet(int weight, int reps, int rpeTenths, int restSeconds) {
+        synchronized (lock()) {
+            update(values.withSets(values.getSets().plus(weight, reps, rpeTenths, restSeconds)));
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: replaces the logged sets with sets, which the weight, sets and reps then summarize;
+     *          an empty log keeps the current weight, sets and reps and only drops the logged sets
+     */
+    public void setSets(SetLog sets) {
+        synchronized (lock()) {
+            update(values.withSets(sets));
+        }
+    }
+
+    /*
+     * REQUIRES: muscles is not empty
+     * MODIFIES: this
+     * EFFECTS: makes this exercise work exactly muscles, e.g. LEGS and BACK for a squat; the main muscle
+     *          type stays if it is among them, otherwise it becomes the first of them
+     */
+    public void setMuscles(Set<Muscles> muscles) {
+        synchronized (lock()) {
+            update(values.withMuscles(Muscles.maskOf(muscles)));
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: replaces the values of this exercise with values and tells the owning session, if any,
+     *          what they were before
+     */
+    void update(ExerciseSnapshot values) {
+        synchronized (lock()) {
+            ExerciseSnapshot before = this.values;
+            if (values == before) {
+                return;
+            }
+            this.values = values;
+            if (session != null && before.getMuscleMask() != values.getMuscleMask()) {
+                session.musclesChanged(before.getMuscleMask() ^ values.getMuscleMask());
+            }
+            if (session != null) {
+                session.exerciseModified(this, before);
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: attaches this exercise to session (or detaches it when session is null)
+     */
+    void setSession(WorkoutSession session) {
+        this.session = session;
+    }
+
+    /*
+     * EFFECTS: returns the monitor that guards this exercise: its session's once it was added to one
+     */
+    private Object lock() {
+        WorkoutSession owner = session;
+        return owner != null ? owner.lock() : this;
     }
 
     @Override
     public JSONObject toJson() {
-        JSONObject json = new JSONObject();
-        json.put("exercise name", this.exerciseName);
-        json.put("muscle Type", this.muscleType);
-        json.put("weight", this.weightLifted);
-        json.put("number of Sets", this.numSets);
-        json.put("number of Repetitions", this.numReps);
-        
-        return json;
+        return this.values.toJson();
     }
 
 }
@@ -0,0 +1,249 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONObject;
+
+/*
+ * Represents the distribution of the working weights and reps of every exercise in a logbook, by name
+ * (ignoring case) and month, as a pair of quantile sketches per month: every set adds its weight and reps,
+ * whether it was logged one by one or as part of a summary, so an exercise weighs the same however it was
+ * entered. A percentile over any months merges their sketches, so it takes memory bounded by the sketch
+ * size rather than by the number of sets, and never sorts the sets themselves. Sketches cannot take a value
+ * back out, so an exercise changed or removed only marks its month, which is sketched again from the
+ * entries of the exercises still in it when next asked for; the entries of a month are linked to each other
+ * rather than kept in a set of their own. Sessions whose date is not a calendar date in the form yyyy/mm/dd
+ * are not counted.
+ */
+public class ExerciseDistributions extends ExerciseIndex<ExerciseDistributions.Entry> {
+    private Map<String, TreeMap<Integer, Bucket>> exercises;  // months by index, by lower case exercise name
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: creates the distributions of the exercises in logbook that keep up with its changes from now on
+     */
+    public ExerciseDistributions(Logbook logbook) {
+        this.exercises = new HashMap<>();
+        follow(logbook);
+    }
+
+    /*
+     * REQUIRES: !from.isAfter(to), 0 <= fraction <= 1
+     * EFFECTS: returns about the weight below which fraction of the sets of the exercise named name lie
+     *          (e.g. 0.5 for the median, 0.9 for the 90th percentile), over the whole months from the one
+     *          holding from to the one holding to; NaN if none was logged then
+     */
+    public double getWeightPercentile(String name, LocalDate from, LocalDate to, double fraction) {
+        return getWeights(name, from, to).getQuantile(fraction);
+    }
+
+    /*
+     * REQUIRES: !from.isAfter(to), 0 <= fraction <= 1
+     * EFFECTS: returns about the reps below which fraction of the sets of the exercise named name lie over
+     *          the whole months from the one holding from to the one holding to; NaN if none was logged then
+     */
+    public double getRepsPercentile(String name, LocalDate from, LocalDate to, double fraction) {
+        return getReps(name, from, to).getQuantile(fraction);
+    }
+
+    /*
+     * REQUIRES: !from.isAfter(to)
+     * EFFECTS: returns the sketch of the weights of the exercise named name over the whole months from the
+     *          one holding from to the one holding to
+     */
+    public synchronized QuantileSketch getWeights(String name, LocalDate from, LocalDate to) {
+        QuantileSketch merged = new QuantileSketch();
+        for (Bucket bucket : months(name, from, to).values()) {
+            merged.merge(bucket.refreshed().weights);
+        }
+        return merged;
+    }
+
+    /*
+     * REQUIRES: !from.isAfter(to)
+     * EFFECTS: returns the sketch of the reps of the exercise named name over the whole months from the one
+     *          holding from to the one holding to
+     */
+    public synchronized QuantileSketch getReps(String name, LocalDate from, LocalDate to) {
+        QuantileSketch merged = new QuantileSketch();
+        for (Bucket bucket : months(name, from, to).values()) {
+            merged.merge(bucket.refreshed().reps);
+        }
+        return merged;
+    }
+
+    /*
+     * EFFECTS: returns the sketches of the exercise named name by month, keyed "yyyy/mm", each holding the
+     *          sketch of its "weight" and of its "reps", so that a client can merge them over any months
+     */
+    public synchronized JSONObject toJson(String name) {
+        JSONObject json = new JSONObject();
+        for (Bucket bucket : exercises.getOrDefault(key(name), new TreeMap<>()).values()) {
+            bucket.refreshed();
+            JSONObject month = new JSONObject();
+            month.put("weight", bucket.weights.toJson());
+            month.put("reps", bucket.reps.toJson());
+            json.put(String.format("%04d/%02d", bucket.month / 12, bucket.month % 12 + 1), month);
+        }
+        return json;
+    }
+
+    /*
+     * EFFECTS: returns the months of the exercise named name from the one holding from to the one holding to
+     */
+    private Map<Integer, Bucket> months(String name, LocalDate from, LocalDate to) {
+        TreeMap<Integer, Bucket> months = exercises.get(key(name));
+        return months == null ? Collections.emptyMap() : months.subMap(month(from), true, month(to), true);
+    }
+
+    @Override
+    Entry count(Exercise exercise, long day) {
+        int month = month(LocalDate.ofEpochDay(day));
+        String name = key(exercise.getExerciseName());
+        Bucket bucket = exercises.computeIfAbsent(name, months -> new TreeMap<>())
+                .computeIfAbsent(month, index -> new Bucket(name, month));
+        Entry entry = new Entry(bucket, exercise.snapshot());
+        bucket.add(entry);
+        return entry;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops counting the exercise of entry in its month, dropping the month once nothing is left
+     *          in it
+     */
+    @Override
+    void uncount(Exercise exercise, Entry entry) {
+        Bucket bucket = entry.bucket;
+        bucket.remove(entry);
+        TreeMap<Integer, Bucket> months = exercises.get(bucket.name);
+        if (bucket.first == null) {
+            months.remove(bucket.month);
+        }
+        if (months.isEmpty()) {
+            exercises.remove(bucket.name);
+        }
+    }
+
+    @Override
+    void clear() {
+        exercises.clear();
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase();
+    }
+
+    /*
+     * EFFECTS: returns the index of the month holding date, counted from year 0
+     */
+    private static int month(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /*
+     * Represents an exercise as it was counted: its values at the time and the month it was counted in,
+     * linked to the other entries of that month
+     */
+    static class Entry {
+        private final Bucket bucket;
+        private final ExerciseSnapshot values;
+        private Entry previous;
+        private Entry next;
+
+        Entry(Bucket bucket, ExerciseSnapshot values) {
+            this.bucket = bucket;
+            this.values = values;
+        }
+    }
+
+    /*
+     * Represents one month of the exercise named name (in lower case): the entries counted in it and the
+     * sketches of their weights and reps, which are out of date while stale
+     */
+    static class Bucket {
+        private final String name;
+        private final int month;
+        private Entry first;            // the most recently counted entry, or null if none is left
+        private QuantileSketch weights;
+        private QuantileSketch reps;
+        private boolean stale;
+
+        Bucket(String name, int month) {
+            this.name = name;
+            this.month = month;
+            this.weights = new QuantileSketch();
+            this.reps = new QuantileSketch();
+        }
+
+        /*
+         * MODIFIES: this, entry
+         * EFFECTS: counts entry in this month, adding its sets to the sketches unless they are stale
+         */
+        void add(Entry entry) {
+            entry.next = first;
+            if (first != null) {
+                first.previous = entry;
+            }
+            first = entry;
+            if (!stale) {
+                sketch(entry.values);
+            }
+        }
+
+        /*
+         * MODIFIES: this, entry
+         * EFFECTS: stops counting entry in this month, leaving the sketches stale
+         */
+        void remove(Entry entry) {
+            if (entry.previous == null) {
+                first = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+            stale = true;
+        }
+
+        /*
+         * MODIFIES: this
+         * EFFECTS: sketches the entries in this month again if the sketches are stale; returns this
+         */
+        Bucket refreshed() {
+            if (stale) {
+                weights = new QuantileSketch();
+                reps = new QuantileSketch();
+                stale = false;
+                for (Entry entry = first; entry != null; entry = entry.next) {
+                    sketch(entry.values);
+                }
+            }
+            return this;
+        }
+
+        /*
+         * MODIFIES: this
+         * EFFECTS: adds the weight and reps of every set of values to the sketches, those of a summary once
+         *          for each of its sets
+         */
+        private void sketch(ExerciseSnapshot values) {
+            SetLog sets = values.getSets();
+            if (sets.isEmpty()) {
+                weights.add(values.getWeightLifted(), values.getNumSets());
+                reps.add(values.getNumReps(), values.getNumSets());
+            }
+            for (int i = 0; i < sets.size(); i++) {
+                weights.add(sets.getWeight(i));
+                reps.add(sets.getReps(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package model;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/*
+ * Represents a view of a logbook kept up to date exercise by exercise: each exercise of a session is counted
+ * as an entry of type E, and every change to the logbook counts the exercises it touches again as they are
+ * now and then uncounts their old entries, so while an exercise is counted the view still holds it as it
+ * was. Sessions whose date is not a calendar date are not counted.
+ */
+abstract class ExerciseIndex<E> implements LogbookListener {
+    private final Map<Exercise, E> entries = new IdentityHashMap<>();   // by exercise in the logbook
+
+    /*
+     * MODIFIES: this, logbook
+     * EFFECTS: counts every exercise in logbook and follows its changes from now on; called last by the
+     *          constructor of a subclass, once it is ready to count
+     */
+    final void follow(Logbook logbook) {
+        synchronized (logbook) {
+            logbookReloaded(logbook);
+            logbook.addListener(this);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: counts exercise, done on epoch day day, and returns the entry to uncount it by later
+     */
+    abstract E count(Exercise exercise, long day);
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops counting exercise, counted before as entry
+     */
+    abstract void uncount(Exercise exercise, E entry);
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets everything counted
+     */
+    abstract void clear();
+
+    /*
+     * EFFECTS: returns the number of exercises counted
+     */
+    final synchronized int getCountedCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void sessionAdded(WorkoutSession session) {
+        for (Exercise exercise : session.getExercises()) {
+            track(exercise, session.getDate());
+        }
+    }
+
+    @Override
+    public synchronized void sessionRemoved(WorkoutSession session) {
+        for (Exercise exercise : session.getExercises()) {
+            untrack(exercise);
+        }
+    }
+
+    @Override
+    public synchronized void sessionMoved(WorkoutSession session, String oldDate) {
+        sessionAdded(session);
+    }
+
+    @Override
+    public synchronized void exerciseAdded(WorkoutSession session, Exercise exercise) {
+        track(exercise, session.getDate());
+    }
+
+    @Override
+    public synchronized void exerciseRemoved(WorkoutSession session, Exercise exercise) {
+        untrack(exercise);
+    }
+
+    @Override
+    public synchronized void exerciseChanged(WorkoutSession session, Exercise exercise) {
+        track(exercise, session.getDate());
+    }
+
+    @Override
+    public synchronized void logbookReloaded(Logbook logbook) {
+        entries.clear();
+        clear();
+        for (WorkoutSession session : logbook.getAllSessions()) {
+            sessionAdded(session);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: counts exercise, done on date, in place of what it was counted as before, which is uncounted
+     *          only once exercise was counted anew
+     */
+    private void track(Exercise exercise, String date) {
+        long day = SessionDates.epochDay(date);
+        if (day == SessionDates.NO_DAY) {
+            untrack(exercise);
+            return;
+        }
+        E before = entries.put(exercise, count(exercise, day));
+        if (before != null) {
+            uncount(exercise, before);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops counting exercise, if it was counted
+     */
+    private void untrack(Exercise exercise) {
+        E entry = entries.remove(exercise);
+        if (entry != null) {
+            uncount(exercise, entry);
+        }
+    }
+}
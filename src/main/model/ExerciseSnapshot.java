@@ -0,0 +1,202 @@
+package model;
+
+import java.util.EnumSet;
+
+import org.json.JSONObject;
+import persistence.Writable;
+
+/*
+ * Represents the values of an exercise at one moment: its name, main muscle type, every muscle type it works
+ * (the main one included, kept as a bitmask), weight lifted, sets and reps, and optionally the log of its
+ * sets one by one; when there is a log, the weight, sets and reps summarize it.
+ * A snapshot never changes; editing an exercise replaces its snapshot with a new one, so the same snapshot
+ * can be shared by the exercise and by every session or logbook snapshot taken before the edit
+ */
+public final class ExerciseSnapshot implements Writable {
+    private final String exerciseName;
+    private final Muscles muscleType;
+    private final int muscles;          // mask of every muscle type worked, always including muscleType
+    private final int weightLifted;
+    private final int numSets;
+    private final int numReps;
+    private final SetLog sets;          // the sets one by one, or SetLog.EMPTY if only the summary is known
+
+    /*
+     * EFFECTS: creates the snapshot of an exercise with the given values that works only muscleType
+     */
+    ExerciseSnapshot(String exerciseName, Muscles muscleType, int weightLifted, int numSets, int numReps) {
+        this(exerciseName, muscleType, muscleType.bit(), weightLifted, numSets, numReps);
+    }
+
+    /*
+     * EFFECTS: creates the snapshot of an exercise with the given values that works muscleType and the
+     *          muscle types in the mask muscles
+     */
+    ExerciseSnapshot(String exerciseName, Muscles muscleType, int muscles, int weightLifted, int numSets,
+                     int numReps) {
+        this(exerciseName, muscleType, muscles, weightLifted, numSets, numReps, SetLog.EMPTY);
+    }
+
+    /*
+     * EFFECTS: creates the snapshot of an exercise with the given values and log of sets
+     */
+    private ExerciseSnapshot(String exerciseName, Muscles muscleType, int muscles, int weightLifted, int numSets,
+                             int numReps, SetLog sets) {
+        this.exerciseName = exerciseName;
+        this.muscleType = muscleType;
+        this.muscles = (muscles & Muscles.allMask()) | muscleType.bit();
+        this.weightLifted = weightLifted;
+        this.numSets = numSets;
+        this.numReps = numReps;
+        this.sets = sets;
+    }
+
+    public String getExerciseName() {
+        return exerciseName;
+    }
+
+    public Muscles getMuscleType() {
+        return muscleType;
+    }
+
+    /*
+     * EFFECTS: returns the mask of every muscle type this exercise works, the main one included
+     */
+    public int getMuscleMask() {
+        return muscles;
+    }
+
+    /*
+     * EFFECTS: returns every muscle type this exercise works, the main one included
+     */
+    public EnumSet<Muscles> getMuscles() {
+        return Muscles.fromMask(muscles);
+    }
+
+    public int getWeightLifted() {
+        return weightLifted;
+    }
+
+    public int getNumSets() {
+        return numSets;
+    }
+
+    public int getNumReps() {
+        return numReps;
+    }
+
+    /*
+     * EFFECTS: returns the sets one by one, or an empty log if only the summary is known
+     */
+    public SetLog getSets() {
+        return sets;
+    }
+
+    /*
+     * EFFECTS: returns the total weight moved in kilograms: the sum over the logged sets of weight times
+     *          reps if there are any, otherwise weight lifted times sets times reps
+     */
+    public long getVolume() {
+        return sets.isEmpty() ? (long) weightLifted * numSets * numReps : sets.getVolume();
+    }
+
+    ExerciseSnapshot withExerciseName(String exerciseName) {
+        return new ExerciseSnapshot(exerciseName, muscleType, muscles, weightLifted, numSets, numReps, sets);
+    }
+
+    /*
+     * EFFECTS: returns this snapshot with muscleType as its main muscle type in place of the current one
+     */
+    ExerciseSnapshot withMuscleType(Muscles muscleType) {
+        int others = muscles & ~this.muscleType.bit();
+        return new ExerciseSnapshot(exerciseName, muscleType, others, weightLifted, numSets, numReps, sets);
+    }
+
+    /*
+     * REQUIRES: muscles has a bit of some muscle type set
+     * EFFECTS: returns this snapshot working exactly the muscle types in the mask muscles; the main muscle
+     *          type stays if it is among them, otherwise it becomes the first of them
+     */
+    ExerciseSnapshot withMuscles(int muscles) {
+        Muscles main = (muscles & muscleType.bit()) != 0 ? muscleType : Muscles.fromMask(muscles).iterator().next();
+        return new ExerciseSnapshot(exerciseName, main, muscles, weightLifted, numSets, numReps, sets);
+    }
+
+    /*
+     * EFFECTS: returns this snapshot with weightLifted as its weight; throws IllegalArgumentException if
+     *          sets are logged and weightLifted is not the weight of the top one
+     */
+    ExerciseSnapshot withWeightLifted(int weightLifted) {
+        if (weightLifted == this.weightLifted) {
+            return this;
+        }
+        requireNoLog("weight");
+        return new ExerciseSnapshot(exerciseName, muscleType, muscles, weightLifted, numSets, numReps);
+    }
+
+    /*
+     * EFFECTS: returns this snapshot with numSets sets; throws IllegalArgumentException if sets are logged
+     *          and numSets is not how many
+     */
+    ExerciseSnapshot withNumSets(int numSets) {
+        if (numSets == this.numSets) {
+            return this;
+        }
+        requireNoLog("number of sets");
+        return new ExerciseSnapshot(exerciseName, muscleType, muscles, weightLifted, numSets, numReps);
+    }
+
+    /*
+     * EFFECTS: returns this snapshot with numReps reps; throws IllegalArgumentException if sets are logged
+     *          and numReps is not the reps of the top one
+     */
+    ExerciseSnapshot withNumReps(int numReps) {
+        if (numReps == this.numReps) {
+            return this;
+        }
+        requireNoLog("number of reps");
+        return new ExerciseSnapshot(exerciseName, muscleType, muscles, weightLifted, numSets, numReps);
+    }
+
+    /*
+     * EFFECTS: returns this snapshot with sets as its log of sets, summarized by the weight and reps of
+     *          its top set and its number of sets; an empty log keeps the current summary
+     */
+    ExerciseSnapshot withSets(SetLog sets) {
+        if (sets.isEmpty()) {
+            return new ExerciseSnapshot(exerciseName, muscleType, muscles, weightLifted, numSets, numReps);
+        }
+        int top = sets.getTopSet();
+        return new ExerciseSnapshot(exerciseName, muscleType, muscles, sets.getWeight(top), sets.size(),
+                sets.getReps(top), sets);
+    }
+
+    /*
+     * EFFECTS: throws IllegalArgumentException naming field, a part of the summary, if sets are logged,
+     *          since the summary then comes from them and changing it would contradict them
+     */
+    private void requireNoLog(String field) {
+        if (!sets.isEmpty()) {
+            throw new IllegalArgumentException("The " + field + " of " + exerciseName
+                    + " comes from its logged sets; change the sets instead");
+        }
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("exercise name", exerciseName);
+        json.put("muscle Type", muscleType);
+        if (muscles != muscleType.bit()) {
+            json.put("muscles", muscles);
+        }
+        json.put("weight", weightLifted);
+        json.put("number of Sets", numSets);
+        json.put("number of Repetitions", numReps);
+        if (!sets.isEmpty()) {
+            json.put("set log", sets.toJson());
+        }
+
+        return json;
+    }
+}
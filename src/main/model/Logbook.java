@@ -1,51 +1,194 @@
 package model;
 
+import metrics.Counter;
+import metrics.LogbookLoadEvent;
+import metrics.LogbookQueryEvent;
+import metrics.LogbookSaveEvent;
+import metrics.MetricsRegistry;
+import metrics.Timer;
 import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.FsyncPolicy;
 import persistence.JsonReader;
 import persistence.JsonWriter;
+import persistence.PartitionedStore;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class Logbook {
+    private static final Timer SAVE_TIMER = MetricsRegistry.getInstance().timer("logbook.save");
+    private static final Counter SAVES_SKIPPED = MetricsRegistry.getInstance().counter("logbook.save.skipped");
+    private static final Timer BY_DATE_TIMER = MetricsRegistry.getInstance().timer("logbook.query.sessionByDate");
+    private static final Timer FILTER_DATE_TIMER = MetricsRegistry.getInstance().timer("logbook.query.filterByDate");
+    private static final Timer FILTER_MUSCLE_TIMER =
+            MetricsRegistry.getInstance().timer("logbook.query.filterByMuscle");
+    private static final Timer EXERCISES_TIMER = MetricsRegistry.getInstance().timer("logbook.query.exercisesByMuscle");
+    private static final Timer ALL_SESSIONS_TIMER = MetricsRegistry.getInstance().timer("logbook.query.allSessions");
+    private static final int QUERY_CACHE_SIZE = 64;
+    private static final int UNDO_LIMIT = 100;
+
     private List<WorkoutSession> sessions;
+    private PersistentVector<SessionSnapshot> state;    // the snapshot of each session, in the order of sessions
+    private Map<String, List<WorkoutSession>> sessionsByDate;   // by canonical date, in the order of sessions
     private JsonWriter jsonWriter;
     private JsonReader jsonReader;
     private String storeFile;
+    private PartitionedStore partitions;    // null when the logbook lives in the single storeFile
+    private UnloadedMonths unloaded;        // months saved into without being loaded, for partitions
+    private long version;                   // bumped on every change to the logbook or anything in it
+    private ChangeSet changes;              // what changed since the last checkpoint
+    private boolean checkpointed;           // false until the logbook was first loaded or saved
+    private Map<SessionSnapshot, JSONObject> savedJson; // JSON of each session snapshot in the last save
+    private List<LogbookListener> listeners;
+    private long lastSaveNanos;              // how long the last save that wrote anything took
+    private QueryCache queries;             // results of the filter queries, invalidated by date and muscle
+    private final Object saveLock = new Object();   // held by the one save or load running at a time
+    private EditJournal journal;            // the edits that can be undone and redone
+    private int batchDepth;                 // > 0 while edits are batched into one change
+    private boolean changedInBatch;         // something changed in the current batch
 
     public Logbook(String storeFile) {
         this.storeFile = storeFile;
         this.sessions = new ArrayList<>();
+        this.state = PersistentVector.empty();
+        this.sessionsByDate = new HashMap<>();
+        this.changes = new ChangeSet();
+        this.savedJson = new IdentityHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.queries = new QueryCache(QUERY_CACHE_SIZE);
+        this.journal = new EditJournal(UNDO_LIMIT);
+        this.unloaded = new UnloadedMonths();
         this.jsonWriter = new JsonWriter(storeFile);
         this.jsonReader = new JsonReader(storeFile);
     }
 
-    public void addSession(WorkoutSession session) {
-        this.sessions.add(session);
+    /*
+     * EFFECTS: creates an empty logbook that loads and saves its sessions through per-month partitions
+     */
+    public Logbook(PartitionedStore partitions) {
+        this(partitions.getDirectory());
+        this.partitions = partitions;
+    }
+
+    /*
+     * REQUIRES: parallelism >= 1
+     * MODIFIES: this
+     * EFFECTS: sets how many threads parse the store file when it is loaded; 1 parses it sequentially
+     */
+    public synchronized void setReadParallelism(int parallelism) {
+        jsonReader.setParallelism(parallelism);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sets how often saves are forced to disk, trading durability for save latency
+     */
+    public synchronized void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        jsonWriter.setFsyncPolicy(fsyncPolicy);
+        if (partitions != null) {
+            partitions.setFsyncPolicy(fsyncPolicy);
+        }
+    }
+
+    public synchronized void addSession(WorkoutSession session) {
+        attach(session);
+        sessionAdded(session);
+        sessionModified(session);
+        journal.record(new EditJournal.SessionAddition(this, session));
         EventLog.getInstance().logEvent(new Event("Added new session for " + session.getDate() + " to logbook."));
     }
 
-    public WorkoutSession getSessionByDate(String date) {
-        for (WorkoutSession session : sessions) {
-            if (session.getDate().equals(date)) {
-                return session;
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds all of added in order as one change, logging a single summary event
+     */
+    public synchronized void addSessions(List<WorkoutSession> added) {
+        journal.begin("add " + added.size() + " sessions");
+        try {
+            for (WorkoutSession session : added) {
+                attach(session);
+                sessionAdded(session);
+                changes.sessionModified(session);
+                journal.record(new EditJournal.SessionAddition(this, session));
             }
+        } finally {
+            journal.end();
         }
-        return null;
+        changed();
+        EventLog.getInstance().logEvent(new Event("Added " + added.size() + " sessions to logbook."));
     }
 
-    public void clearLogbook() {
-        sessions.clear();
+    /*
+     * EFFECTS: returns the first session on date, however either is spelled (e.g. "2025/1/5" and
+     *          "2025/01/05" are the same date), or null if there is none; uses the date index
+     */
+    public synchronized WorkoutSession getSessionByDate(String date) {
+        long start = BY_DATE_TIMER.start();
+        try {
+            List<WorkoutSession> onDate = sessionsByDate.get(SessionDates.canonical(date));
+            return onDate == null ? null : onDate.get(0);
+        } finally {
+            BY_DATE_TIMER.stop(start);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the first session on date, first adding a new empty one if there is none;
+     *          the lookup and the add happen under one lock, so concurrent callers never create
+     *          two sessions for the same date
+     */
+    public synchronized WorkoutSession getOrAddSession(String date) {
+        WorkoutSession session = getSessionByDate(date);
+        if (session == null) {
+            session = new WorkoutSession(date);
+            addSession(session);
+        }
+        return session;
+    }
+
+    public synchronized void clearLogbook() {
+        List<WorkoutSession> cleared = sessions;
+        for (WorkoutSession session : cleared) {
+            session.setLogbook(null);
+            changes.dateStale(session.getDate());
+        }
+        if (!cleared.isEmpty()) {
+            journal.record(new EditJournal.Clearing(this, cleared));
+        }
+        sessions = new ArrayList<>();
+        state = PersistentVector.empty();
+        sessionsByDate.clear();
+        reloaded();
+        changed();
         EventLog.getInstance().logEvent(new Event("LogBook cleared."));
     }
 
-    public List<WorkoutSession> filterSessionsByDate(String date) {
-        List<WorkoutSession> filtered = sessions.stream()
-            .filter(session -> session.getDate()
-            .equals(date)).collect(Collectors.toList());
+    public synchronized List<WorkoutSession> filterSessionsByDate(String date) {
+        LogbookQueryEvent event = new LogbookQueryEvent();
+        event.begin();
+        long start = FILTER_DATE_TIMER.start();
+        String partition = QueryCache.datePartition(date);
+        List<WorkoutSession> filtered = queries.lookup("filterSessionsByDate", partition);
+        int scanned = 0;
+        if (filtered == null) {
+            filtered = new ArrayList<>(sessionsByDate.getOrDefault(SessionDates.canonical(date), List.of()));
+            scanned = filtered.size();
+            queries.put("filterSessionsByDate", partition, filtered);
+        }
+        FILTER_DATE_TIMER.stop(start);
+        event.finish("filterSessionsByDate", date, scanned, filtered.size());
 
         EventLog.getInstance().logEvent(new Event("Filtered logbook by date: " + date));
         return filtered;
@@ -53,48 +196,881 @@ public class Logbook {
 
 
     /*
-     * Finds all workout sessions that contain at least one exercise of the specified muscle type
+     * Finds all workout sessions that contain at least one exercise working the specified muscle type;
+     * repeated calls are answered from the query cache until a change touches that muscle type
      * @param type the muscle type to filter by
      * @return A new list of matching WorkoutSession objects
      */
-    public List<WorkoutSession> filterSessionsByMuscle(Muscles type) {
-        List<WorkoutSession> filtered = sessions.stream()
-            .filter(session -> session.getExercises().stream()
-                .anyMatch(exercise -> exercise.getMuscleType() == type))
-            .collect(Collectors.toList());
+    public synchronized List<WorkoutSession> filterSessionsByMuscle(Muscles type) {
+        LogbookQueryEvent event = new LogbookQueryEvent();
+        event.begin();
+        long start = FILTER_MUSCLE_TIMER.start();
+        String partition = QueryCache.musclePartition(type);
+        List<WorkoutSession> filtered = queries.lookup("filterSessionsByMuscle", partition);
+        int scanned = 0;
+        if (filtered == null) {
+            filtered = sessions.stream()
+                .filter(session -> (session.getMuscleMask() & type.bit()) != 0)
+                .collect(Collectors.toList());
+            scanned = sessions.size();
+            queries.put("filterSessionsByMuscle", partition, filtered);
+        }
+        FILTER_MUSCLE_TIMER.stop(start);
+        event.finish("filterSessionsByMuscle", type.name(), scanned, filtered.size());
 
         EventLog.getInstance().logEvent(new Event("Filtered logbook by muscle: " + type.toString()));
         return filtered;
     }
 
-    public List<Exercise> getAllExercisesByMuscle(Muscles type) {
-        List<Exercise> filtered = sessions.stream()
-            .flatMap(session -> session.getExercises().stream())
-            .filter(exercise -> exercise.getMuscleType() == type)
-            .collect(Collectors.toList());
+    /*
+     * REQUIRES: muscles is not empty
+     * EFFECTS: returns the sessions whose exercises together work every muscle type in muscles if all is
+     *          true, otherwise those that work any of them; each session is matched with one bitwise test
+     *          of the muscle masks
+     */
+    public synchronized List<WorkoutSession> filterSessionsByMuscles(Set<Muscles> muscles, boolean all) {
+        LogbookQueryEvent event = new LogbookQueryEvent();
+        event.begin();
+        long start = FILTER_MUSCLE_TIMER.start();
+        int mask = Muscles.maskOf(muscles);
+        List<WorkoutSession> filtered = new ArrayList<>();
+        for (WorkoutSession session : sessions) {
+            if (worksMuscles(session.getMuscleMask(), mask, all)) {
+                filtered.add(session);
+            }
+        }
+        FILTER_MUSCLE_TIMER.stop(start);
+        event.finish("filterSessionsByMuscles", (all ? "all of " : "any of ") + muscles, sessions.size(),
+                filtered.size());
+
+        EventLog.getInstance().logEvent(new Event("Filtered logbook by " + (all ? "all" : "any")
+                + " of muscles: " + muscles));
+        return filtered;
+    }
+
+    /*
+     * REQUIRES: muscles is not empty
+     * EFFECTS: returns the exercises that each work every muscle type in muscles if all is true, otherwise
+     *          those that work any of them, in session order
+     */
+    public synchronized List<Exercise> getAllExercisesByMuscles(Set<Muscles> muscles, boolean all) {
+        LogbookQueryEvent event = new LogbookQueryEvent();
+        event.begin();
+        long start = EXERCISES_TIMER.start();
+        int mask = Muscles.maskOf(muscles);
+        List<Exercise> filtered = new ArrayList<>();
+        for (WorkoutSession session : sessions) {
+            if (worksMuscles(session.getMuscleMask(), mask, false)) {
+                for (Exercise exercise : session.getExercises()) {
+                    if (worksMuscles(exercise.getMuscleMask(), mask, all)) {
+                        filtered.add(exercise);
+                    }
+                }
+            }
+        }
+        EXERCISES_TIMER.stop(start);
+        event.finish("getAllExercisesByMuscles", (all ? "all of " : "any of ") + muscles, sessions.size(),
+                filtered.size());
+        return filtered;
+    }
+
+    /*
+     * EFFECTS: returns true if the muscle mask worked has every bit of wanted set when all is true,
+     *          otherwise if it has any of them set
+     */
+    private static boolean worksMuscles(int worked, int wanted, boolean all) {
+        return all ? (worked & wanted) == wanted : (worked & wanted) != 0;
+    }
+
+    public synchronized List<Exercise> getAllExercisesByMuscle(Muscles type) {
+        LogbookQueryEvent event = new LogbookQueryEvent();
+        event.begin();
+        long start = EXERCISES_TIMER.start();
+        String partition = QueryCache.musclePartition(type);
+        List<Exercise> filtered = queries.lookup("getAllExercisesByMuscle", partition);
+        int scanned = 0;
+        if (filtered == null) {
+            filtered = sessions.stream()
+                .flatMap(session -> session.getExercises().stream())
+                .filter(exercise -> (exercise.getMuscleMask() & type.bit()) != 0)
+                .collect(Collectors.toList());
+            scanned = sessions.size();
+            queries.put("getAllExercisesByMuscle", partition, filtered);
+        }
+        EXERCISES_TIMER.stop(start);
+        event.finish("getAllExercisesByMuscle", type.name(), scanned, filtered.size());
 
         EventLog.getInstance().logEvent(new Event("Retrieved all exercises for muscle: " +  type.toString()));
         return filtered;
     }
 
-    public void saveLogBook() throws FileNotFoundException {
-        jsonWriter.open();
+    /*
+     * MODIFIES: storeFile
+     * EFFECTS: saves the sessions that changed since the last checkpoint; does nothing if nothing changed.
+     *          The logbook is locked only while a snapshot of it is taken, so edits go on while the snapshot
+     *          is written; they are saved by the next save
+     */
+    public void saveLogBook() throws IOException {
+        synchronized (saveLock) {
+            LogbookSnapshot snapshot;
+            ChangeSet saving;
+            Set<String> keys = null;
+            Map<SessionSnapshot, JSONObject> reusable;
+            synchronized (this) {
+                if (!isDirty()) {
+                    SAVES_SKIPPED.increment();
+                    return;
+                }
+                if (partitions != null) {
+                    keys = faultInPartitions();
+                }
+                snapshot = snapshot();
+                saving = changes;
+                changes = new ChangeSet();
+                reusable = savedJson;
+            }
+            write(snapshot, saving, keys, reusable);
+        }
+    }
+
+    /*
+     * REQUIRES: the save lock is held
+     * MODIFIES: this, storeFile
+     * EFFECTS: writes snapshot, which holds the changes in saving, to the partitions in keys or to storeFile,
+     *          reusing the JSON in reusable of the session snapshots saved before; if writing fails,
+     *          saving is put back into the changes not yet saved
+     */
+    private void write(LogbookSnapshot snapshot, ChangeSet saving, Set<String> keys,
+                       Map<SessionSnapshot, JSONObject> reusable) throws IOException {
+        LogbookSaveEvent event = new LogbookSaveEvent();
+        event.begin();
+        long start = SAVE_TIMER.start();
+        Map<SessionSnapshot, JSONObject> written = null;
+        boolean succeeded = false;
+        try {
+            if (partitions != null) {
+                partitions.write(unloaded.mergeInto(snapshot.getSessions()), keys);
+            } else {
+                written = saveFile(snapshot, reusable);
+            }
+            succeeded = true;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            SAVE_TIMER.record(nanos);
+            finishSave(saving, succeeded, written, nanos);
+        }
+        event.finish(storeFile, snapshot.getSessionCount(), saving.size(),
+                partitions != null ? partitions.getBytesWritten() : jsonWriter.getBytesWritten());
+
+        EventLog.getInstance().logEvent(new Event("Logbook saved to file: " + storeFile));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records the outcome of a save of the changes in saving that took nanos: if it succeeded the
+     *          logbook is checkpointed and written, if not null, is kept as the JSON of the sessions saved;
+     *          otherwise saving is merged back in front of the changes made since
+     */
+    private synchronized void finishSave(ChangeSet saving, boolean succeeded,
+                                         Map<SessionSnapshot, JSONObject> written, long nanos) {
+        lastSaveNanos = nanos;
+        if (succeeded) {
+            checkpointed = true;
+            if (written != null) {
+                savedJson = written;
+            }
+        } else {
+            saving.addAll(changes);
+            changes = saving;
+        }
+    }
+
+    /*
+     * REQUIRES: the save lock is held
+     * MODIFIES: storeFile
+     * EFFECTS: rewrites storeFile with snapshot, serializing only the session snapshots not in reusable,
+     *          and returns the JSON of every session snapshot written
+     */
+    private Map<SessionSnapshot, JSONObject> saveFile(LogbookSnapshot snapshot,
+                                                      Map<SessionSnapshot, JSONObject> reusable) throws IOException {
+        Map<SessionSnapshot, JSONObject> current = new IdentityHashMap<>();
         JSONArray jsonArray = new JSONArray();
-        for (WorkoutSession session : sessions) {
-            jsonArray.put(session.toJson());
+        for (SessionSnapshot session : snapshot.getSessions()) {
+            JSONObject json = reusable.get(session);
+            if (json == null) {
+                json = session.toJson();
+            }
+            current.put(session, json);
+            jsonArray.put(json);
         }
-        jsonWriter.write(jsonArray);
+        jsonWriter.open();
+        jsonWriter.writeLogbook(jsonArray);
         jsonWriter.close();
+        return current;
+    }
 
-        EventLog.getInstance().logEvent(new Event("Logbook saved to file: " + storeFile));
+    /*
+     * REQUIRES: the save lock is held
+     * MODIFIES: this
+     * EFFECTS: reads any changed month that was never loaded into the unloaded months, so its history is
+     *          written back without becoming part of the logbook, and returns the months in the change set,
+     *          which the save rewrites
+     */
+    private Set<String> faultInPartitions() throws IOException {
+        for (String key : partitions.nonResident(partitions.partitionsOf(changes))) {
+            unloaded.add(key, partitions.readPartition(key));
+        }
+        return partitions.partitionsOf(changes);
+    }
+
+    /*
+     * EFFECTS: returns the logbook as it is now, which no later change affects; takes O(1) time
+     */
+    public synchronized LogbookSnapshot snapshot() {
+        return new LogbookSnapshot(version, state);
     }
 
     public void loadLogBook() throws IOException {
-        this.sessions = jsonReader.read();
+        synchronized (saveLock) {
+            synchronized (this) {
+                LogbookLoadEvent event = new LogbookLoadEvent();
+                event.begin();
+                List<WorkoutSession> loaded;
+                if (partitions != null) {
+                    loaded = partitions.readAll();
+                } else {
+                    loaded = jsonReader.read();
+                }
+                replaceSessions(loaded);
+                finishLoad(event);
+            }
+        }
         EventLog.getInstance().logEvent(new Event("Logbook loaded from file: " + storeFile));
     }
 
-    public List<WorkoutSession> getAllSessions() {
-        return new ArrayList<>(sessions);
+    /*
+     * REQUIRES: fromDate and toDate are in the form yyyy/mm/dd
+     * MODIFIES: this
+     * EFFECTS: replaces the sessions with those stored for the months from fromDate to toDate (inclusive);
+     *          a partitioned logbook only reads those months, a single-file logbook reads the whole file
+     */
+    public void loadLogBook(String fromDate, String toDate) throws IOException {
+        synchronized (saveLock) {
+            synchronized (this) {
+                loadMonths(fromDate, toDate);
+            }
+        }
+    }
+
+    /*
+     * REQUIRES: the save lock is held
+     * MODIFIES: this
+     * EFFECTS: replaces the sessions with those stored for the months from fromDate to toDate (inclusive)
+     */
+    private void loadMonths(String fromDate, String toDate) throws IOException {
+        LogbookLoadEvent event = new LogbookLoadEvent();
+        event.begin();
+        String fromKey = PartitionedStore.partitionOf(fromDate);
+        String toKey = PartitionedStore.partitionOf(toDate);
+
+        List<WorkoutSession> loaded;
+        if (partitions != null) {
+            loaded = partitions.read(fromKey, toKey);
+        } else {
+            loaded = jsonReader.read().stream()
+                .filter(session -> PartitionedStore.partitionOf(session.getDate()).compareTo(fromKey) >= 0
+                    && PartitionedStore.partitionOf(session.getDate()).compareTo(toKey) <= 0)
+                .collect(Collectors.toList());
+        }
+        replaceSessions(loaded);
+        finishLoad(event);
+        EventLog.getInstance().logEvent(new Event("Logbook loaded " + fromKey + " to " + toKey
+                    + " from file: " + storeFile));
+    }
+
+    public synchronized List<WorkoutSession> getAllSessions() {
+        long start = ALL_SESSIONS_TIMER.start();
+        try {
+            return new ArrayList<>(sessions);
+        } finally {
+            ALL_SESSIONS_TIMER.stop(start);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes change, which edits this logbook, its sessions or their exercises, and records all its
+     *          edits as one that is undone and redone at once, described by description
+     */
+    public synchronized void edit(String description, Runnable change) {
+        bulkEdit(description, () -> {
+            change.run();
+            return 0;
+        });
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: renames every exercise named from (ignoring case) to to, e.g. to merge "Bench" into
+     *          "Bench press", in one pass over the sessions, as one change that is undone at once;
+     *          returns the number of exercises renamed
+     */
+    public synchronized int renameExercise(String from, String to) {
+        int renamed = bulkEdit("rename " + from + " to " + to, () -> {
+            int count = 0;
+            for (WorkoutSession session : sessions) {
+                for (Exercise exercise : session.getExercises()) {
+                    if (exercise.getExerciseName().equalsIgnoreCase(from)) {
+                        exercise.setExerciseName(to);
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        EventLog.getInstance().logEvent(new Event("Renamed " + renamed + " exercises from " + from + " to " + to));
+        return renamed;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: files every exercise named exerciseName (ignoring case) under muscle, in one pass over the
+     *          sessions, as one change that is undone at once; returns the number of exercises re-filed
+     */
+    public synchronized int recategorizeExercise(String exerciseName, Muscles muscle) {
+        int moved = bulkEdit("file " + exerciseName + " under " + muscle, () -> {
+            int count = 0;
+            for (WorkoutSession session : sessions) {
+                for (Exercise exercise : session.getExercises()) {
+                    if (exercise.getExerciseName().equalsIgnoreCase(exerciseName)
+                            && exercise.getMuscleType() != muscle) {
+                        exercise.setMuscleType(muscle);
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        EventLog.getInstance().logEvent(new Event("Filed " + moved + " " + exerciseName + " exercises under "
+                + muscle));
+        return moved;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: removes every exercise for which condition holds, given the date of its session and the
+     *          exercise, in one pass over the sessions, as one change that is undone at once; sessions left
+     *          without exercises are kept. Returns the number of exercises removed
+     */
+    public synchronized int removeExercisesIf(BiPredicate<String, Exercise> condition) {
+        int removed = bulkEdit("remove exercises", () -> {
+            int count = 0;
+            for (WorkoutSession session : sessions) {
+                for (Exercise exercise : session.getExercises()) {
+                    if (condition.test(session.getDate(), exercise)) {
+                        session.dropExercise(exercise);
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        EventLog.getInstance().logEvent(new Event("Removed " + removed + " exercises from logbook."));
+        return removed;
+    }
+
+    /*
+     * REQUIRES: fromDate and toDate are in the form yyyy/mm/dd
+     * MODIFIES: this
+     * EFFECTS: moves every session dated from fromDate to toDate (inclusive) by days days, in one pass over
+     *          the sessions, as one change that is undone at once; sessions whose date is not a calendar
+     *          date are left alone. Returns the number of sessions moved
+     */
+    public synchronized int shiftDates(String fromDate, String toDate, int days) {
+        long from = SessionDates.epochDay(fromDate);
+        long to = SessionDates.epochDay(toDate);
+        int shifted = bulkEdit("shift " + fromDate + " to " + toDate + " by " + days + " days", () -> {
+            int count = 0;
+            for (WorkoutSession session : sessions) {
+                long day = SessionDates.epochDay(session.getDate());
+                if (day != SessionDates.NO_DAY && day >= from && day <= to && days != 0) {
+                    session.moveTo(SessionDates.format(day + days));
+                    count++;
+                }
+            }
+            return count;
+        });
+        EventLog.getInstance().logEvent(new Event("Shifted " + shifted + " sessions from " + fromDate + " to "
+                + toDate + " by " + days + " days."));
+        return shifted;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: undoes the newest edit not yet undone since the logbook was loaded and returns its description,
+     *          or returns null if there is none; replays only what that edit changed
+     */
+    public synchronized String undo() {
+        String undone = inBatch(journal::undo);
+        if (undone != null) {
+            EventLog.getInstance().logEvent(new Event("Undid " + undone + "."));
+        }
+        return undone;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: redoes the edit undone last and returns its description, or returns null if there is none
+     *          or an edit was made since
+     */
+    public synchronized String redo() {
+        String redone = inBatch(journal::redo);
+        if (redone != null) {
+            EventLog.getInstance().logEvent(new Event("Redid " + redone + "."));
+        }
+        return redone;
+    }
+
+    /*
+     * EFFECTS: returns the description of the edit undo would undo, or null if there is none
+     */
+    public synchronized String getUndoDescription() {
+        return journal.getUndoDescription();
+    }
+
+    /*
+     * EFFECTS: returns the description of the edit redo would redo, or null if there is none
+     */
+    public synchronized String getRedoDescription() {
+        return journal.getRedoDescription();
+    }
+
+    /*
+     * EFFECTS: returns the number of edits that can be undone
+     */
+    public synchronized int getUndoCount() {
+        return journal.getUndoCount();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: registers listener to be told about every change from now on
+     */
+    public void addListener(LogbookListener listener) {
+        listeners.add(listener);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops telling listener about changes
+     */
+    public void removeListener(LogbookListener listener) {
+        listeners.remove(listener);
+    }
+
+    public String getStoreFile() {
+        return storeFile;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int getSessionCount() {
+        return sessions.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of exercises in all sessions
+     */
+    public synchronized int getExerciseCount() {
+        int count = 0;
+        for (WorkoutSession session : sessions) {
+            count += session.getExercises().size();
+        }
+        return count;
+    }
+
+    /*
+     * EFFECTS: returns the number of distinct dates in the date index
+     */
+    public synchronized int getIndexedDateCount() {
+        return sessionsByDate.size();
+    }
+
+    /*
+     * EFFECTS: returns true if the date index holds every session exactly once, under its current date
+     */
+    public synchronized boolean isIndexConsistent() {
+        int indexed = 0;
+        for (Map.Entry<String, List<WorkoutSession>> entry : sessionsByDate.entrySet()) {
+            for (WorkoutSession session : entry.getValue()) {
+                if (!SessionDates.canonical(session.getDate()).equals(entry.getKey()) || session.getLogbook() != this) {
+                    return false;
+                }
+            }
+            indexed += entry.getValue().size();
+        }
+        return indexed == sessions.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of sessions whose JSON is kept from the last save for reuse
+     */
+    public synchronized int getCachedJsonCount() {
+        return savedJson.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of query results kept in the query cache
+     */
+    public synchronized int getCachedQueryCount() {
+        return queries.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of sessions and exercises held by the results in the query cache
+     */
+    public synchronized int getCachedQueryItemCount() {
+        return queries.getItemCount();
+    }
+
+    /*
+     * EFFECTS: returns the number of changes, sessions and exercises kept to undo and redo edits
+     */
+    public synchronized int getJournalSize() {
+        return journal.getRetainedCount();
+    }
+
+    /*
+     * EFFECTS: returns how long the last save that wrote anything took, in nanoseconds; 0 if there was none
+     */
+    public synchronized long getLastSaveNanos() {
+        return lastSaveNanos;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: releases memory the logbook can do without: drops the JSON kept from the last save
+     *          (the next save serializes every session again), rebuilds the date index and trims
+     *          spare list capacity
+     */
+    public synchronized void compact() {
+        savedJson = new IdentityHashMap<>();
+        sessionsByDate = new HashMap<>();
+        for (WorkoutSession session : sessions) {
+            sessionsByDate.computeIfAbsent(SessionDates.canonical(session.getDate()), d -> new ArrayList<>(1))
+                    .add(session);
+        }
+        sessions = new ArrayList<>(sessions);
+        EventLog.getInstance().logEvent(new Event("Logbook compacted."));
+    }
+
+    /*
+     * EFFECTS: returns true if the logbook was never loaded or saved, or changed since it last was
+     */
+    public synchronized boolean isDirty() {
+        return !checkpointed || !changes.isEmpty();
+    }
+
+    /*
+     * EFFECTS: returns what changed since the last checkpoint
+     */
+    public synchronized ChangeSet getChangeSet() {
+        return new ChangeSet(changes);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the current content as persisted; later changes start a new change set
+     */
+    public synchronized void checkpoint() {
+        changes = new ChangeSet();
+        checkpointed = true;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that session, one of this logbook's sessions, was added or changed
+     */
+    synchronized void sessionModified(WorkoutSession session) {
+        state = state.with(session.getPosition(), session.snapshot());
+        changes.sessionModified(session);
+        changed();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that session moved from oldDate to its current date
+     */
+    synchronized void sessionMoved(WorkoutSession session, String oldDate) {
+        List<WorkoutSession> onOldDate = sessionsByDate.get(SessionDates.canonical(oldDate));
+        onOldDate.remove(session);
+        if (onOldDate.isEmpty()) {
+            sessionsByDate.remove(SessionDates.canonical(oldDate));
+        }
+        reindex(session);
+        queries.invalidate(QueryCache.datePartition(oldDate));
+        queries.invalidate(QueryCache.datePartition(session.getDate()));
+        for (LogbookListener listener : listeners) {
+            listener.sessionMoved(session, oldDate);
+        }
+        journal.record(new EditJournal.SessionMove(session, oldDate, session.getDate()));
+
+        changes.dateStale(oldDate);
+        sessionModified(session);
+    }
+
+    /*
+     * EFFECTS: returns the sessions on date, however spelled, in order, without logging a filter event
+     */
+    synchronized List<WorkoutSession> sessionsOn(String date) {
+        return new ArrayList<>(sessionsByDate.getOrDefault(SessionDates.canonical(date), List.of()));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that one of the exercises of this logbook's sessions started or stopped working
+     *          the muscle types in the mask muscles
+     */
+    synchronized void musclesChanged(int muscles) {
+        for (Muscles muscle : Muscles.fromMask(muscles)) {
+            queries.invalidate(QueryCache.musclePartition(muscle));
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that exercise was added to session, one of this logbook's sessions, at position
+     *          and tells every listener
+     */
+    synchronized void exerciseAdded(WorkoutSession session, Exercise exercise, int position) {
+        musclesChanged(exercise.getMuscleMask());
+        journal.record(new EditJournal.ExerciseMembership(session, exercise, position, true));
+        for (LogbookListener listener : listeners) {
+            listener.exerciseAdded(session, exercise);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that exercise was removed from position of session, one of this logbook's sessions,
+     *          and tells every listener
+     */
+    synchronized void exerciseRemoved(WorkoutSession session, Exercise exercise, int position) {
+        musclesChanged(exercise.getMuscleMask());
+        journal.record(new EditJournal.ExerciseMembership(session, exercise, position, false));
+        for (LogbookListener listener : listeners) {
+            listener.exerciseRemoved(session, exercise);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that exercise, one of the exercises of session, changed from before,
+     *          and tells every listener
+     */
+    synchronized void exerciseChanged(WorkoutSession session, Exercise exercise, ExerciseSnapshot before) {
+        journal.record(new EditJournal.ExerciseChange(exercise, before, exercise.snapshot()));
+        for (LogbookListener listener : listeners) {
+            listener.exerciseChanged(session, exercise);
+        }
+    }
+
+    /*
+     * REQUIRES: session is one of this logbook's sessions
+     * MODIFIES: this, session
+     * EFFECTS: removes session, as an undo of its add; O(1) if it is the last session, which it is unless
+     *          sessions were read in from partitions after it
+     */
+    synchronized void removeSession(WorkoutSession session) {
+        int position = session.getPosition();
+        sessions.remove(position);
+        if (position == sessions.size()) {
+            state = state.withoutLast();
+        } else {
+            state = PersistentVector.empty();
+            for (int i = 0; i < sessions.size(); i++) {
+                sessions.get(i).setPosition(i);
+                state = state.plus(sessions.get(i).snapshot());
+            }
+        }
+        String date = SessionDates.canonical(session.getDate());
+        List<WorkoutSession> onDate = sessionsByDate.get(date);
+        onDate.remove(session);
+        if (onDate.isEmpty()) {
+            sessionsByDate.remove(date);
+        }
+        session.setLogbook(null);
+        sessionRemoved(session);
+        changes.dateStale(session.getDate());
+        changed();
+    }
+
+    /*
+     * MODIFIES: this, restored
+     * EFFECTS: appends restored, sessions that were removed or cleared, as one change
+     */
+    synchronized void restoreSessions(List<WorkoutSession> restored) {
+        for (WorkoutSession session : restored) {
+            attach(session);
+            sessionAdded(session);
+            changes.sessionModified(session);
+        }
+        changed();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: runs pass, which edits the logbook and returns how many things it edited, and returns that
+     *          number; its edits are recorded as one that is undone at once, described by description,
+     *          and make one change
+     */
+    private int bulkEdit(String description, IntSupplier pass) {
+        journal.begin(description);
+        try {
+            return inBatch(pass::getAsInt);
+        } finally {
+            journal.end();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: runs edits and returns its result; everything it changes makes one change, whose
+     *          listeners are told once it is done
+     */
+    private <T> T inBatch(Supplier<T> edits) {
+        batchDepth++;
+        try {
+            return edits.get();
+        } finally {
+            if (--batchDepth == 0 && changedInBatch) {
+                changedInBatch = false;
+                changed();
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: bumps the version and tells every listener about the change
+     */
+    private void changed() {
+        if (batchDepth > 0) {
+            changedInBatch = true;
+            return;
+        }
+        version++;
+        for (LogbookListener listener : listeners) {
+            listener.logbookChanged(this);
+        }
+    }
+
+    /*
+     * MODIFIES: event
+     * EFFECTS: ends event, the flight recorder event of the load that just finished, with its counts
+     */
+    private void finishLoad(LogbookLoadEvent event) {
+        long bytes = partitions != null ? partitions.getBytesRead() : jsonReader.getBytesRead();
+        event.finish(storeFile, sessions.size(), this::getExerciseCount, bytes);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: replaces all sessions with loaded, which matches what is on disk
+     */
+    private void replaceSessions(List<WorkoutSession> loaded) {
+        for (WorkoutSession session : sessions) {
+            session.setLogbook(null);
+        }
+        sessions = new ArrayList<>();
+        state = PersistentVector.empty();
+        sessionsByDate = new HashMap<>();
+        savedJson = new IdentityHashMap<>();
+        journal.clear();
+        unloaded.clear();
+        attachAll(loaded);
+        reloaded();
+        checkpoint();
+        changed();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets the query results that session, just attached, may change: those over its date
+     *          and over the muscle types of its exercises; then tells every listener
+     */
+    private void sessionAdded(WorkoutSession session) {
+        queries.invalidate(QueryCache.datePartition(session.getDate()));
+        musclesChanged(session.getMuscleMask());
+        for (LogbookListener listener : listeners) {
+            listener.sessionAdded(session);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets the query results that session, just removed, may have changed and tells every listener
+     */
+    private void sessionRemoved(WorkoutSession session) {
+        queries.invalidate(QueryCache.datePartition(session.getDate()));
+        musclesChanged(session.getMuscleMask());
+        for (LogbookListener listener : listeners) {
+            listener.sessionRemoved(session);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets every query result and tells every listener that all sessions were replaced
+     */
+    private void reloaded() {
+        queries.invalidateAll();
+        for (LogbookListener listener : listeners) {
+            listener.logbookReloaded(this);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: appends sessions read from disk without recording them as changes
+     */
+    private void attachAll(List<WorkoutSession> loaded) {
+        for (WorkoutSession session : loaded) {
+            attach(session);
+        }
+    }
+
+    /*
+     * MODIFIES: this, session
+     * EFFECTS: appends session, with its snapshot, and adds it to the date index
+     */
+    private void attach(WorkoutSession session) {
+        session.setLogbook(this);
+        session.setPosition(sessions.size());
+        sessions.add(session);
+        state = state.plus(session.snapshot());
+        sessionsByDate.computeIfAbsent(SessionDates.canonical(session.getDate()), d -> new ArrayList<>()).add(session);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: files session, whose date changed, under its new date, keeping the index in session order
+     */
+    private void reindex(WorkoutSession session) {
+        List<WorkoutSession> onDate = sessionsByDate.computeIfAbsent(SessionDates.canonical(session.getDate()),
+                d -> new ArrayList<>());
+        if (onDate.isEmpty()) {
+            onDate.add(session);
+            return;
+        }
+
+        int order = session.getPosition();
+        int position = 0;
+        while (position < onDate.size() && onDate.get(position).getPosition() < order) {
+            position++;
+        }
+        onDate.add(position, session);
     }
 }
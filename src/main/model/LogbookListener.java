@@ -0,0 +1,60 @@
+package model;
+
+/*
+ * Represents an observer that is told whenever a logbook, one of its sessions
+ * or one of their exercises changes
+ */
+public interface LogbookListener {
+
+    /*
+     * EFFECTS: reacts to a change of logbook; called on the thread that made the change
+     *          while the logbook is locked, so implementations must return quickly. Does nothing by
+     *          default, for listeners that follow the finer-grained notifications instead
+     */
+    default void logbookChanged(Logbook logbook) {
+    }
+
+    /*
+     * EFFECTS: reacts to session, with the exercises it already holds, joining the logbook;
+     *          like every finer-grained notification it comes just before logbookChanged
+     */
+    default void sessionAdded(WorkoutSession session) {
+    }
+
+    /*
+     * EFFECTS: reacts to session, with the exercises it still holds, leaving the logbook because its add
+     *          was undone
+     */
+    default void sessionRemoved(WorkoutSession session) {
+    }
+
+    /*
+     * EFFECTS: reacts to session, one of the logbook's sessions, moving from oldDate to its current date
+     */
+    default void sessionMoved(WorkoutSession session, String oldDate) {
+    }
+
+    /*
+     * EFFECTS: reacts to exercise being added to session, one of the logbook's sessions
+     */
+    default void exerciseAdded(WorkoutSession session, Exercise exercise) {
+    }
+
+    /*
+     * EFFECTS: reacts to exercise being removed from session, one of the logbook's sessions
+     */
+    default void exerciseRemoved(WorkoutSession session, Exercise exercise) {
+    }
+
+    /*
+     * EFFECTS: reacts to a change of exercise, one of the exercises of session
+     */
+    default void exerciseChanged(WorkoutSession session, Exercise exercise) {
+    }
+
+    /*
+     * EFFECTS: reacts to all sessions of logbook being replaced at once, by a load or a clear
+     */
+    default void logbookReloaded(Logbook logbook) {
+    }
+}
@@ -0,0 +1,63 @@
+package model;
+
+import java.util.List;
+
+import org.json.JSONArray;
+
+/*
+ * Represents a logbook frozen at one version: the snapshots of its sessions in order. Taking one costs
+ * O(1), since the logbook keeps its sessions' snapshots in a persistent vector that it never changes in
+ * place; saves, exports and analytics can read a snapshot on any thread while the logbook is edited
+ */
+public final class LogbookSnapshot {
+    private final long version;
+    private final PersistentVector<SessionSnapshot> sessions;
+
+    /*
+     * EFFECTS: creates the snapshot of a logbook at version holding sessions
+     */
+    LogbookSnapshot(long version, PersistentVector<SessionSnapshot> sessions) {
+        this.version = version;
+        this.sessions = sessions;
+    }
+
+    /*
+     * EFFECTS: returns the version of the logbook this snapshot was taken at
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /*
+     * EFFECTS: returns the sessions in order, as an unmodifiable list
+     */
+    public List<SessionSnapshot> getSessions() {
+        return sessions;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of exercises in all sessions
+     */
+    public int getExerciseCount() {
+        int count = 0;
+        for (SessionSnapshot session : sessions) {
+            count += session.getExercises().size();
+        }
+        return count;
+    }
+
+    /*
+     * EFFECTS: returns the JSON of all sessions, in order
+     */
+    public JSONArray toJson() {
+        JSONArray jsonArray = new JSONArray();
+        for (SessionSnapshot session : sessions) {
+            jsonArray.put(session.toJson());
+        }
+        return jsonArray;
+    }
+}
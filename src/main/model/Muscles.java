@@ -1,5 +1,50 @@
 package model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
+/*
+ * Represents a muscle type an exercise works. A set of muscle types is stored as a bitmask with one bit per
+ * muscle type, in declaration order, so new muscle types must be added at the end
+ */
 public enum Muscles {
-    LEGS, BICEPS, TRICEPS, SHOULDERS, BACK, CHEST
+    LEGS, BICEPS, TRICEPS, SHOULDERS, BACK, CHEST;
+
+    /*
+     * EFFECTS: returns the bit of this muscle type in a muscle mask
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /*
+     * EFFECTS: returns the mask of every muscle type
+     */
+    public static int allMask() {
+        return (1 << values().length) - 1;
+    }
+
+    /*
+     * EFFECTS: returns the mask of the muscle types in muscles
+     */
+    public static int maskOf(Collection<Muscles> muscles) {
+        int mask = 0;
+        for (Muscles muscle : muscles) {
+            mask |= muscle.bit();
+        }
+        return mask;
+    }
+
+    /*
+     * EFFECTS: returns the muscle types whose bits are set in mask, ignoring bits of no muscle type
+     */
+    public static EnumSet<Muscles> fromMask(int mask) {
+        EnumSet<Muscles> muscles = EnumSet.noneOf(Muscles.class);
+        for (Muscles muscle : values()) {
+            if ((mask & muscle.bit()) != 0) {
+                muscles.add(muscle);
+            }
+        }
+        return muscles;
+    }
 }
@@ -0,0 +1,204 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/*
+ * Represents an immutable list that is changed by making a new version of it: plus appends an element,
+ * withoutLast drops the last one and with replaces one, each in O(log32 n) time, while the old version
+ * stays valid and unchanged.
+ * The elements are kept in a trie of arrays of 32, with the last (up to 32) elements in a separate tail;
+ * a new version copies only the arrays on the path to the element it changes and shares all the others
+ * with the version it was made from.
+ */
+final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<Object> EMPTY =
+            new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    private final int size;
+    private final int shift;        // the index bits consumed above the leaves of the trie
+    private final Object[] root;    // the trie holding all elements but those in tail
+    private final Object[] tail;    // the last elements, at most WIDTH of them
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /*
+     * EFFECTS: returns the empty vector
+     */
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    /*
+     * EFFECTS: returns a vector with the elements of this followed by element
+     */
+    PersistentVector<E> plus(E element) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[] {element});
+    }
+
+    /*
+     * REQUIRES: 0 <= index < size()
+     * EFFECTS: returns a vector with the elements of this, but element at index
+     */
+    PersistentVector<E> with(int index, E element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, replace(shift, root, index, element), tail);
+    }
+
+    /*
+     * REQUIRES: size() > 0
+     * EFFECTS: returns a vector with the elements of this but the last
+     */
+    PersistentVector<E> withoutLast() {
+        if (size == 1) {
+            return empty();
+        }
+        if (size - tailOffset() > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+
+        Object[] newTail = leafFor(size - 2);
+        Object[] newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = new Object[WIDTH];
+        }
+        if (shift > BITS && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    /*
+     * EFFECTS: returns the index of the first element kept in tail
+     */
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    /*
+     * REQUIRES: 0 <= index < size()
+     * EFFECTS: returns the array of 32 (or the tail) that holds the element at index
+     */
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /*
+     * EFFECTS: returns a copy of parent, the node at level, with the full tail of this added as its
+     *          rightmost leaf
+     */
+    private Object[] pushTail(int level, Object[] parent, Object[] leaf) {
+        int child = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[child] = leaf;
+        } else {
+            Object[] below = (Object[]) parent[child];
+            copy[child] = below != null ? pushTail(level - BITS, below, leaf) : newPath(level - BITS, leaf);
+        }
+        return copy;
+    }
+
+    /*
+     * EFFECTS: returns a copy of node, at level, without its rightmost leaf, or null if that leaves it empty
+     */
+    private Object[] popTail(int level, Object[] node) {
+        int child = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Object[] below = popTail(level - BITS, (Object[]) node[child]);
+            if (below == null && child == 0) {
+                return null;
+            }
+            Object[] copy = node.clone();
+            copy[child] = below;
+            return copy;
+        } else if (child == 0) {
+            return null;
+        }
+        Object[] copy = node.clone();
+        copy[child] = null;
+        return copy;
+    }
+
+    /*
+     * EFFECTS: returns a chain of new nodes from level down to leaf
+     */
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    /*
+     * EFFECTS: returns a copy of node, at level, with the element at index replaced by element
+     */
+    private static Object[] replace(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = replace(level - BITS, (Object[]) node[child], index, element);
+        }
+        return copy;
+    }
+}
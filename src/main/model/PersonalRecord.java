@@ -0,0 +1,71 @@
+package model;
+
+/*
+ * Represents a personal record for an exercise: the exercise that set it, what it was and the date it was set
+ */
+public class PersonalRecord {
+
+    /*
+     * The kinds of personal record: heaviest weight, most reps at one weight, highest volume
+     */
+    public enum Kind {
+        WEIGHT, REPS, VOLUME
+    }
+
+    private final Kind kind;
+    private final String exerciseName;
+    private final int weight;
+    private final int reps;
+    private final long volume;
+    private final String date;
+
+    /*
+     * EFFECTS: creates a record of kind set by exerciseName on date with weight, reps and volume
+     */
+    public PersonalRecord(Kind kind, String exerciseName, int weight, int reps, long volume, String date) {
+        this.kind = kind;
+        this.exerciseName = exerciseName;
+        this.weight = weight;
+        this.reps = reps;
+        this.volume = volume;
+        this.date = date;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getExerciseName() {
+        return exerciseName;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getReps() {
+        return reps;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    /*
+     * EFFECTS: returns a one-line description of this record for the user
+     */
+    public String getDescription() {
+        switch (kind) {
+            case WEIGHT:
+                return exerciseName + ": heaviest weight " + weight + " kg on " + date;
+            case REPS:
+                return exerciseName + ": " + reps + " reps at " + weight + " kg on " + date;
+            default:
+                return exerciseName + ": best volume " + volume + " kg on " + date;
+        }
+    }
+}
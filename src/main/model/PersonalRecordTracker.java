@@ -0,0 +1,236 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Represents the personal records of every exercise in a logbook: per exercise name, the heaviest weight,
+ * the most reps at each weight and the highest volume, each with the date it was first set. The tracker
+ * follows every change of the logbook at O(log n) cost in the number of exercises, so looking up a record
+ * never scans the sessions, and removing or lowering the current record falls back to the next best one.
+ * Exercise names are matched ignoring case, and record dates are written yyyy/mm/dd. Sessions whose date
+ * is not a calendar date in that form are not counted.
+ */
+public class PersonalRecordTracker extends ExerciseIndex<PersonalRecordTracker.Entry> {
+    // best entry last: higher value, then earlier day, then counted earlier
+    private static final Comparator<Entry> FIRST_SET_LAST = Comparator.comparingLong((Entry entry) -> entry.day)
+            .thenComparingLong(entry -> entry.order).reversed();
+    private static final Comparator<Entry> BY_WEIGHT =
+            Comparator.comparingInt((Entry entry) -> entry.weight).thenComparing(FIRST_SET_LAST);
+    private static final Comparator<Entry> BY_REPS =
+            Comparator.comparingInt((Entry entry) -> entry.reps).thenComparing(FIRST_SET_LAST);
+    private static final Comparator<Entry> BY_VOLUME =
+            Comparator.comparingLong((Entry entry) -> entry.volume).thenComparing(FIRST_SET_LAST);
+
+    private Map<String, Records> recordsByName;     // by lower case exercise name
+    private List<RecordListener> recordListeners;
+    private List<PersonalRecord> beaten;            // records beaten by the exercise being counted, or null
+    private long counted;                           // number of entries ever counted, to order ties
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: creates a tracker of the records in logbook that keeps up with its changes from now on
+     */
+    public PersonalRecordTracker(Logbook logbook) {
+        this.recordsByName = new HashMap<>();
+        this.recordListeners = new CopyOnWriteArrayList<>();
+        follow(logbook);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: registers listener to be told whenever an added or edited exercise beats a record
+     */
+    public void addRecordListener(RecordListener listener) {
+        recordListeners.add(listener);
+    }
+
+    /*
+     * EFFECTS: returns the heaviest weight lifted in exerciseName, or null if it was never logged
+     */
+    public synchronized PersonalRecord getBestWeight(String exerciseName) {
+        Records records = recordsByName.get(exerciseName.toLowerCase());
+        return records == null ? null : records.byWeight.last().toRecord(PersonalRecord.Kind.WEIGHT);
+    }
+
+    /*
+     * EFFECTS: returns the most reps done in exerciseName at weight, or null if it was never logged at weight
+     */
+    public synchronized PersonalRecord getBestReps(String exerciseName, int weight) {
+        Records records = recordsByName.get(exerciseName.toLowerCase());
+        TreeSet<Entry> atWeight = records == null ? null : records.byRepsAtWeight.get(weight);
+        return atWeight == null ? null : atWeight.last().toRecord(PersonalRecord.Kind.REPS);
+    }
+
+    /*
+     * EFFECTS: returns the highest volume of exerciseName, or null if it was never logged
+     */
+    public synchronized PersonalRecord getBestVolume(String exerciseName) {
+        Records records = recordsByName.get(exerciseName.toLowerCase());
+        return records == null ? null : records.byVolume.last().toRecord(PersonalRecord.Kind.VOLUME);
+    }
+
+    /*
+     * EFFECTS: returns the number of exercises the records are kept over
+     */
+    public int getTrackedCount() {
+        return getCountedCount();
+    }
+
+    @Override
+    public void exerciseAdded(WorkoutSession session, Exercise exercise) {
+        announce(() -> super.exerciseAdded(session, exercise));
+    }
+
+    @Override
+    public void exerciseChanged(WorkoutSession session, Exercise exercise) {
+        announce(() -> super.exerciseChanged(session, exercise));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: counts exercise, done on epoch day day; while a record is being looked for, adds the records
+     *          it beats to those found, compared with the records as they stood before this change, since
+     *          the exercise is still counted as it was. Lowering or otherwise editing the exercise that holds
+     *          a record therefore beats nothing
+     */
+    @Override
+    Entry count(Exercise exercise, long day) {
+        Entry entry = new Entry(exercise, day, counted++);
+        Records records = recordsByName.computeIfAbsent(entry.key, key -> new Records());
+        if (beaten != null) {
+            beaten.addAll(records.beatenBy(entry));
+        }
+        records.add(entry);
+        return entry;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: stops counting exercise, counted before as entry, dropping its name once nothing is left of it
+     */
+    @Override
+    void uncount(Exercise exercise, Entry entry) {
+        Records records = recordsByName.get(entry.key);
+        records.remove(entry);
+        if (records.byWeight.isEmpty()) {
+            recordsByName.remove(entry.key);
+        }
+    }
+
+    @Override
+    void clear() {
+        recordsByName.clear();
+    }
+
+    /*
+     * EFFECTS: runs counting, which counts one exercise, looking for the records it beats, then tells every
+     *          record listener about them, unless there are none
+     */
+    private void announce(Runnable counting) {
+        List<PersonalRecord> records;
+        synchronized (this) {
+            beaten = new ArrayList<>();
+            try {
+                counting.run();
+                records = beaten;
+            } finally {
+                beaten = null;
+            }
+        }
+        if (!records.isEmpty()) {
+            for (RecordListener listener : recordListeners) {
+                listener.recordsSet(records);
+            }
+        }
+    }
+
+    /*
+     * Represents an observer of new personal records
+     */
+    public interface RecordListener {
+
+        /*
+         * EFFECTS: reacts to records just set by one exercise; called while the logbook is locked,
+         *          so implementations must return quickly
+         */
+        void recordsSet(List<PersonalRecord> records);
+    }
+
+    /*
+     * Represents an exercise as it was counted: its values at the time and the day of its session
+     */
+    static class Entry {
+        private final String key;
+        private final String name;
+        private final int weight;
+        private final int reps;
+        private final long volume;
+        private final long day;
+        private final long order;
+
+        Entry(Exercise exercise, long day, long order) {
+            this.name = exercise.getExerciseName();
+            this.key = name.toLowerCase();
+            this.weight = exercise.getWeightLifted();
+            this.reps = exercise.getNumReps();
+            this.volume = exercise.getVolume();
+            this.day = day;
+            this.order = order;
+        }
+
+        PersonalRecord toRecord(PersonalRecord.Kind kind) {
+            return new PersonalRecord(kind, name, weight, reps, volume, SessionDates.format(day));
+        }
+    }
+
+    /*
+     * Represents the counted exercises of one name, ordered by each kind of record
+     */
+    private static class Records {
+        private final TreeSet<Entry> byWeight = new TreeSet<>(BY_WEIGHT);
+        private final TreeSet<Entry> byVolume = new TreeSet<>(BY_VOLUME);
+        private final TreeMap<Integer, TreeSet<Entry>> byRepsAtWeight = new TreeMap<>();
+
+        void add(Entry entry) {
+            byWeight.add(entry);
+            byVolume.add(entry);
+            byRepsAtWeight.computeIfAbsent(entry.weight, weight -> new TreeSet<>(BY_REPS)).add(entry);
+        }
+
+        void remove(Entry entry) {
+            byWeight.remove(entry);
+            byVolume.remove(entry);
+            TreeSet<Entry> atWeight = byRepsAtWeight.get(entry.weight);
+            atWeight.remove(entry);
+            if (atWeight.isEmpty()) {
+                byRepsAtWeight.remove(entry.weight);
+            }
+        }
+
+        /*
+         * EFFECTS: returns the records that entry, not yet added, strictly beats; an entry counted before for
+         *          the same exercise, not yet removed, is compared against as it was
+         */
+        List<PersonalRecord> beatenBy(Entry entry) {
+            List<PersonalRecord> beaten = new ArrayList<>();
+            if (!byWeight.isEmpty() && entry.weight > byWeight.last().weight) {
+                beaten.add(entry.toRecord(PersonalRecord.Kind.WEIGHT));
+            }
+            TreeSet<Entry> atWeight = byRepsAtWeight.get(entry.weight);
+            if (atWeight != null && entry.reps > atWeight.last().reps) {
+                beaten.add(entry.toRecord(PersonalRecord.Kind.REPS));
+            }
+            if (!byVolume.isEmpty() && entry.volume > byVolume.last().volume) {
+                beaten.add(entry.toRecord(PersonalRecord.Kind.VOLUME));
+            }
+            return beaten;
+        }
+    }
+}
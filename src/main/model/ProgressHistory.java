@@ -0,0 +1,414 @@
+package model;
+
+import metrics.MetricsRegistry;
+import metrics.Timer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/*
+ * Represents the progress of every exercise and every muscle type in a logbook over time, rolled up per day,
+ * week, month and year. The rollups are kept between charts: a change to the logbook only marks its date,
+ * and the next chart recomputes just the days marked and the weeks, months and years holding them.
+ * A chart of any width then reads a few points per pixel from the coarsest fitting rollup instead of
+ * walking the sessions. An exercise counts toward every muscle type it works. Sessions whose date is not
+ * a calendar date in the form yyyy/mm/dd are not charted.
+ */
+public class ProgressHistory implements LogbookListener {
+    private static final Timer REFRESH_TIMER = MetricsRegistry.getInstance().timer("progress.refresh");
+    private static final int OVERSAMPLING = 2;  // most points read per point drawn
+    private static final List<Resolution> ROLLUPS = List.of(Resolution.WEEK, Resolution.MONTH, Resolution.YEAR);
+
+    /*
+     * The lengths of stretch the progress is rolled up over; weeks start on Monday
+     */
+    public enum Resolution {
+        DAY, WEEK, MONTH, YEAR;
+
+        /*
+         * EFFECTS: returns the epoch day the stretch of this length holding epoch day day starts on
+         */
+        long start(long day) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            switch (this) {
+                case DAY:
+                    return day;
+                case WEEK:
+                    return day - date.getDayOfWeek().getValue() + 1;
+                case MONTH:
+                    return date.withDayOfMonth(1).toEpochDay();
+                default:
+                    return date.withDayOfYear(1).toEpochDay();
+            }
+        }
+
+        /*
+         * EFFECTS: returns the epoch day the stretch after the one starting on epoch day start starts on
+         */
+        long next(long start) {
+            LocalDate date = LocalDate.ofEpochDay(start);
+            switch (this) {
+                case DAY:
+                    return start + 1;
+                case WEEK:
+                    return start + 7;
+                case MONTH:
+                    return date.plusMonths(1).toEpochDay();
+                default:
+                    return date.plusYears(1).toEpochDay();
+            }
+        }
+    }
+
+    private Logbook logbook;
+    private Map<String, Series> series;     // by "exercise <lower case name>" or "muscle <type>"
+    private Set<Long> dirtyDays;            // epoch days whose sessions changed since the last refresh
+    private boolean rebuild;                // true if every rollup must be recomputed
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: creates the progress history of logbook, following its changes from now on
+     */
+    public ProgressHistory(Logbook logbook) {
+        this.logbook = logbook;
+        this.series = new HashMap<>();
+        this.dirtyDays = new HashSet<>();
+        synchronized (logbook) {
+            this.rebuild = true;
+            logbook.addListener(this);
+        }
+    }
+
+    /*
+     * EFFECTS: returns every stretch of length resolution in which exerciseName was logged, oldest first
+     */
+    public List<ProgressPoint> getExerciseRollup(String exerciseName, Resolution resolution) {
+        synchronized (logbook) {
+            return rollup(exerciseKey(exerciseName), resolution);
+        }
+    }
+
+    /*
+     * EFFECTS: returns every stretch of length resolution in which muscle was trained, oldest first
+     */
+    public List<ProgressPoint> getMuscleRollup(Muscles muscle, Resolution resolution) {
+        synchronized (logbook) {
+            return rollup(muscleKey(muscle), resolution);
+        }
+    }
+
+    /*
+     * REQUIRES: maxPoints > 0
+     * EFFECTS: returns the progress of exerciseName over its whole history in at most maxPoints points,
+     *          oldest first, each as fine-grained as that allows
+     */
+    public List<ProgressPoint> getExerciseProgress(String exerciseName, int maxPoints) {
+        synchronized (logbook) {
+            return progress(exerciseKey(exerciseName), maxPoints);
+        }
+    }
+
+    /*
+     * REQUIRES: maxPoints > 0
+     * EFFECTS: returns the progress of muscle over its whole history in at most maxPoints points,
+     *          oldest first, each as fine-grained as that allows
+     */
+    public List<ProgressPoint> getMuscleProgress(Muscles muscle, int maxPoints) {
+        synchronized (logbook) {
+            return progress(muscleKey(muscle), maxPoints);
+        }
+    }
+
+    /*
+     * EFFECTS: returns the names of the exercises with any progress, in alphabetical order
+     */
+    public List<String> getExerciseNames() {
+        synchronized (logbook) {
+            return exerciseNames();
+        }
+    }
+
+    @Override
+    public synchronized void sessionAdded(WorkoutSession session) {
+        markDirty(session.getDate());
+    }
+
+    @Override
+    public synchronized void sessionRemoved(WorkoutSession session) {
+        markDirty(session.getDate());
+    }
+
+    @Override
+    public synchronized void sessionMoved(WorkoutSession session, String oldDate) {
+        markDirty(oldDate);
+        markDirty(session.getDate());
+    }
+
+    @Override
+    public synchronized void exerciseAdded(WorkoutSession session, Exercise exercise) {
+        markDirty(session.getDate());
+    }
+
+    @Override
+    public synchronized void exerciseRemoved(WorkoutSession session, Exercise exercise) {
+        markDirty(session.getDate());
+    }
+
+    @Override
+    public synchronized void exerciseChanged(WorkoutSession session, Exercise exercise) {
+        markDirty(session.getDate());
+    }
+
+    @Override
+    public synchronized void logbookReloaded(Logbook reloaded) {
+        rebuild = true;
+        dirtyDays.clear();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: marks the day of date as changed, unless date is not a calendar date
+     */
+    private void markDirty(String date) {
+        long day = SessionDates.epochDay(date);
+        if (day != SessionDates.NO_DAY) {
+            dirtyDays.add(day);
+        }
+    }
+
+    /*
+     * REQUIRES: the logbook is locked by the caller
+     * EFFECTS: returns a copy of the rollup of the series under key at resolution
+     */
+    private synchronized List<ProgressPoint> rollup(String key, Resolution resolution) {
+        refresh();
+        Series found = series.get(key);
+        return found == null ? new ArrayList<>() : new ArrayList<>(found.level(resolution).values());
+    }
+
+    /*
+     * REQUIRES: the logbook is locked by the caller
+     * EFFECTS: returns the series under key downsampled from the finest rollup with at most
+     *          OVERSAMPLING * maxPoints points (or the yearly one) to at most maxPoints points
+     */
+    private synchronized List<ProgressPoint> progress(String key, int maxPoints) {
+        refresh();
+        Series found = series.get(key);
+        if (found == null) {
+            return new ArrayList<>();
+        }
+        for (Resolution resolution : Resolution.values()) {
+            TreeMap<Long, ProgressPoint> level = found.level(resolution);
+            if (level.size() <= OVERSAMPLING * maxPoints || resolution == Resolution.YEAR) {
+                return downsample(level.values(), maxPoints);
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /*
+     * REQUIRES: the logbook is locked by the caller
+     * EFFECTS: returns the display names of the exercise series
+     */
+    private synchronized List<String> exerciseNames() {
+        refresh();
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Series> entry : series.entrySet()) {
+            if (entry.getKey().startsWith("exercise ")) {
+                names.add(entry.getValue().name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /*
+     * REQUIRES: the logbook is locked by the caller
+     * MODIFIES: this
+     * EFFECTS: brings the rollups up to date with the logbook, recomputing only the days that changed
+     *          unless the logbook was reloaded
+     */
+    private void refresh() {
+        if (!rebuild && dirtyDays.isEmpty()) {
+            return;
+        }
+        long start = REFRESH_TIMER.start();
+        Map<Long, List<WorkoutSession>> changed;
+        if (rebuild) {
+            series.clear();
+            changed = new HashMap<>();
+            for (WorkoutSession session : logbook.getAllSessions()) {
+                long day = SessionDates.epochDay(session.getDate());
+                if (day != SessionDates.NO_DAY) {
+                    changed.computeIfAbsent(day, key -> new ArrayList<>()).add(session);
+                }
+            }
+        } else {
+            changed = sessionsOnDirtyDays();
+        }
+        rollUp(recomputeDays(changed));
+        rebuild = false;
+        dirtyDays.clear();
+        REFRESH_TIMER.stop(start);
+    }
+
+    /*
+     * REQUIRES: the logbook is locked by the caller
+     * EFFECTS: returns the sessions on each changed day, however their dates are spelled
+     */
+    private Map<Long, List<WorkoutSession>> sessionsOnDirtyDays() {
+        Map<Long, List<WorkoutSession>> changed = new HashMap<>();
+        for (long day : dirtyDays) {
+            changed.put(day, logbook.sessionsOn(SessionDates.format(day)));
+        }
+        return changed;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: replaces the daily points of every epoch day in changed with those of its sessions;
+     *          returns the epoch days replaced
+     */
+    private Set<Long> recomputeDays(Map<Long, List<WorkoutSession>> changed) {
+        Set<Long> days = new TreeSet<>();
+        for (Map.Entry<Long, List<WorkoutSession>> entry : changed.entrySet()) {
+            long day = entry.getKey();
+            for (Series each : series.values()) {
+                each.level(Resolution.DAY).remove(day);
+            }
+            for (WorkoutSession session : entry.getValue()) {
+                for (Exercise exercise : session.getExercises()) {
+                    record(exerciseKey(exercise.getExerciseName()), exercise.getExerciseName(), day, exercise);
+                    for (Muscles muscle : exercise.getMuscles()) {
+                        record(muscleKey(muscle), muscle.toString(), day, exercise);
+                    }
+                }
+            }
+            days.add(day);
+        }
+        return days;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds exercise, done on epoch day day, to the daily point of the series under key
+     */
+    private void record(String key, String name, long day, Exercise exercise) {
+        ProgressPoint point = new ProgressPoint(day, exercise.getWeightLifted(), exercise.getVolume());
+        series.computeIfAbsent(key, k -> new Series(name)).level(Resolution.DAY).merge(day, point,
+                ProgressPoint::merge);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: recomputes the weeks, months and years holding days from the daily points, and drops
+     *          series left without any
+     */
+    private void rollUp(Set<Long> days) {
+        Map<Resolution, Set<Long>> starts = new HashMap<>();
+        for (Resolution resolution : ROLLUPS) {
+            starts.put(resolution, startsOf(days, resolution));
+        }
+
+        Iterator<Series> iterator = series.values().iterator();
+        while (iterator.hasNext()) {
+            Series each = iterator.next();
+            if (each.level(Resolution.DAY).isEmpty()) {
+                iterator.remove();
+                continue;
+            }
+            for (Resolution resolution : ROLLUPS) {
+                for (long bucket : starts.get(resolution)) {
+                    each.recompute(resolution, bucket);
+                }
+            }
+        }
+    }
+
+    /*
+     * EFFECTS: returns the epoch days the stretches of length resolution holding days start on
+     */
+    private static Set<Long> startsOf(Set<Long> days, Resolution resolution) {
+        Set<Long> starts = new TreeSet<>();
+        for (long day : days) {
+            starts.add(resolution.start(day));
+        }
+        return starts;
+    }
+
+    /*
+     * EFFECTS: returns points merged in runs of equal length into at most maxPoints points
+     */
+    static List<ProgressPoint> downsample(Collection<ProgressPoint> points, int maxPoints) {
+        int group = (points.size() + maxPoints - 1) / maxPoints;
+        List<ProgressPoint> sampled = new ArrayList<>(Math.min(points.size(), maxPoints));
+        ProgressPoint merged = null;
+        int grouped = 0;
+        for (ProgressPoint point : points) {
+            merged = merged == null ? point : merged.merge(point);
+            grouped++;
+            if (grouped == group) {
+                sampled.add(merged);
+                merged = null;
+                grouped = 0;
+            }
+        }
+        if (merged != null) {
+            sampled.add(merged);
+        }
+        return sampled;
+    }
+
+    private static String exerciseKey(String exerciseName) {
+        return "exercise " + exerciseName.toLowerCase();
+    }
+
+    private static String muscleKey(Muscles muscle) {
+        return "muscle " + muscle.name();
+    }
+
+    /*
+     * Represents the progress of one exercise or muscle type, rolled up at every resolution
+     */
+    private static class Series {
+        private final String name;
+        private final List<TreeMap<Long, ProgressPoint>> levels = new ArrayList<>();
+
+        Series(String name) {
+            this.name = name;
+            for (int i = 0; i < Resolution.values().length; i++) {
+                levels.add(new TreeMap<>());
+            }
+        }
+
+        TreeMap<Long, ProgressPoint> level(Resolution resolution) {
+            return levels.get(resolution.ordinal());
+        }
+
+        /*
+         * MODIFIES: this
+         * EFFECTS: recomputes the point of the stretch of length resolution starting on epoch day start
+         *          from the daily points
+         */
+        void recompute(Resolution resolution, long start) {
+            ProgressPoint merged = null;
+            for (ProgressPoint point : level(Resolution.DAY).subMap(start, resolution.next(start)).values()) {
+                merged = merged == null ? new ProgressPoint(start, point.getMaxWeight(), point.getVolume())
+                        : merged.merge(point);
+            }
+            if (merged == null) {
+                level(resolution).remove(start);
+            } else {
+                level(resolution).put(start, merged);
+            }
+        }
+    }
+}
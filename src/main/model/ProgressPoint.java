@@ -0,0 +1,45 @@
+package model;
+
+import java.time.LocalDate;
+
+/*
+ * Represents the progress over one stretch of time, a day or longer, starting on date:
+ * the heaviest weight lifted and the total volume moved in it
+ */
+public class ProgressPoint {
+    private final long day;         // epoch day the stretch starts on
+    private final int maxWeight;
+    private final long volume;
+
+    /*
+     * EFFECTS: creates a point starting on epoch day day with maxWeight and volume
+     */
+    public ProgressPoint(long day, int maxWeight, long volume) {
+        this.day = day;
+        this.maxWeight = maxWeight;
+        this.volume = volume;
+    }
+
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(day);
+    }
+
+    public long getEpochDay() {
+        return day;
+    }
+
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+
+    /*
+     * EFFECTS: returns the point of the stretch covered by this and the later point other
+     */
+    public ProgressPoint merge(ProgressPoint other) {
+        return new ProgressPoint(day, Math.max(maxWeight, other.maxWeight), volume + other.volume);
+    }
+}
@@ -0,0 +1,299 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+/*
+ * Represents an approximate summary of the distribution of a stream of values, e.g. the weights lifted in
+ * an exercise, in the style of a KLL sketch: values are kept in levels, a value at level h standing for
+ * 2^h of the values added. When the levels outgrow their capacities, the lowest full level is sorted and
+ * every other value of it moves up a level, the rest being dropped. Memory stays below about three times
+ * k values however many are added, and a quantile is off by a rank error that shrinks as k grows (about
+ * 1% of the count for the default k). Sketches of two streams merge into the sketch of both. Up to k
+ * values are kept exactly.
+ */
+public class QuantileSketch implements Writable {
+    public static final int DEFAULT_K = 200;
+    private static final double SHRINK = 2.0 / 3.0;     // capacity of a level relative to the one above
+
+    private final int k;
+    private List<double[]> levels;      // values kept at each level, lowest first
+    private int[] sizes;                // number of values used in each level's array
+    private long count;                 // number of values ever added
+    private double min;
+    private double max;
+    private boolean keepEven;           // which half of a level compaction keeps, alternating
+
+    /*
+     * EFFECTS: creates an empty sketch keeping DEFAULT_K values in its top level
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /*
+     * REQUIRES: k >= 8
+     * EFFECTS: creates an empty sketch keeping k values in its top level
+     */
+    public QuantileSketch(int k) {
+        this.k = k;
+        this.levels = new ArrayList<>();
+        this.sizes = new int[0];
+        this.min = Double.NaN;
+        this.max = Double.NaN;
+        addLevel();
+    }
+
+    /*
+     * EFFECTS: returns the sketch written by toJson in json; throws JSONException if it is not one
+     */
+    public static QuantileSketch fromJson(JSONObject json) {
+        QuantileSketch sketch = new QuantileSketch(json.getInt("k"));
+        JSONArray levels = json.getJSONArray("levels");
+        for (int h = 0; h < levels.length(); h++) {
+            if (h > 0) {
+                sketch.addLevel();
+            }
+            JSONArray values = levels.getJSONArray(h);
+            for (int i = 0; i < values.length(); i++) {
+                sketch.append(h, values.getDouble(i));
+            }
+        }
+        sketch.count = json.getLong("count");
+        sketch.min = json.optDouble("min", Double.NaN);
+        sketch.max = json.optDouble("max", Double.NaN);
+        return sketch;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds value to the stream summarized
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /*
+     * REQUIRES: times >= 0
+     * MODIFIES: this
+     * EFFECTS: adds value times times to the stream summarized, e.g. the weight of every set of an exercise
+     *          logged as a summary; value is kept once at each level h whose bit is set in times, which
+     *          stands for as many values as adding it times times one by one would
+     */
+    public void add(double value, int times) {
+        if (times == 0) {
+            return;
+        }
+        min = count == 0 ? value : Math.min(min, value);
+        max = count == 0 ? value : Math.max(max, value);
+        count += times;
+        for (int h = 0; times >>> h != 0; h++) {
+            if ((times >>> h & 1) != 0) {
+                while (levels.size() <= h) {
+                    addLevel();
+                }
+                append(h, value);
+            }
+        }
+        compress();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the stream summarized by other to the stream summarized by this
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        while (levels.size() < other.levels.size()) {
+            addLevel();
+        }
+        for (int h = 0; h < other.levels.size(); h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels.get(h)[i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        compress();
+    }
+
+    /*
+     * EFFECTS: returns the number of values added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /*
+     * EFFECTS: returns the number of values kept, which bounds the memory used
+     */
+    public int getRetained() {
+        int retained = 0;
+        for (int size : sizes) {
+            retained += size;
+        }
+        return retained;
+    }
+
+    /*
+     * REQUIRES: 0 <= fraction <= 1
+     * EFFECTS: returns about the value below which fraction of the values added lie (e.g. 0.5 for the
+     *          median, 0.9 for the 90th percentile); exact for 0 and 1; NaN if no value was added
+     */
+    public double getQuantile(double fraction) {
+        if (count == 0) {
+            return Double.NaN;
+        } else if (fraction <= 0) {
+            return min;
+        } else if (fraction >= 1) {
+            return max;
+        }
+        int retained = getRetained();
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        double rank = fraction * sortedByValue(values, weights);
+        long seen = 0;
+        for (int i = 0; i < retained; i++) {
+            seen += weights[i];
+            if (seen >= rank) {
+                return values[i];
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("k", k);
+        json.put("count", count);
+        if (count > 0) {
+            json.put("min", min);
+            json.put("max", max);
+        }
+        JSONArray levelsJson = new JSONArray();
+        for (int h = 0; h < levels.size(); h++) {
+            JSONArray values = new JSONArray();
+            for (int i = 0; i < sizes[h]; i++) {
+                values.put(levels.get(h)[i]);
+            }
+            levelsJson.put(values);
+        }
+        json.put("levels", levelsJson);
+        return json;
+    }
+
+    /*
+     * MODIFIES: values, weights
+     * EFFECTS: fills values with every value kept, in increasing order, and weights with how many values
+     *          added each stands for; returns the sum of the weights
+     */
+    private long sortedByValue(double[] values, long[] weights) {
+        Integer[] order = new Integer[values.length];
+        long total = 0;
+        int next = 0;
+        for (int h = 0; h < levels.size(); h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[next] = levels.get(h)[i];
+                weights[next] = 1L << h;
+                total += weights[next];
+                order[next] = next;
+                next++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double[] sortedValues = new double[values.length];
+        long[] sortedWeights = new long[values.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedValues[i] = values[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        System.arraycopy(sortedValues, 0, values, 0, values.length);
+        System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+        return total;
+    }
+
+    /*
+     * EFFECTS: returns how many values level h may keep before it is compacted
+     */
+    private int capacity(int h) {
+        int depth = levels.size() - 1 - h;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: while more values are kept than the levels may hold together, compacts the lowest level
+     *          holding more than its capacity
+     */
+    private void compress() {
+        while (true) {
+            int total = 0;
+            for (int h = 0; h < levels.size(); h++) {
+                total += capacity(h);
+            }
+            if (getRetained() <= total) {
+                return;
+            }
+            for (int h = 0; h < levels.size(); h++) {
+                if (sizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: sorts level h and moves every other value of it up a level, dropping the rest; an odd
+     *          value out stays at level h
+     */
+    private void compact(int h) {
+        if (h + 1 == levels.size()) {
+            addLevel();
+        }
+        double[] values = levels.get(h);
+        Arrays.sort(values, 0, sizes[h]);
+        int paired = sizes[h] - sizes[h] % 2;
+        int start = keepEven ? 0 : 1;
+        keepEven = !keepEven;
+        for (int i = start; i < paired; i += 2) {
+            append(h + 1, values[i]);
+        }
+        if (paired < sizes[h]) {
+            values[0] = values[paired];
+        }
+        sizes[h] -= paired;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: appends value to level h, growing its array if it is full
+     */
+    private void append(int h, double value) {
+        double[] values = levels.get(h);
+        if (sizes[h] == values.length) {
+            values = Arrays.copyOf(values, Math.max(8, values.length * 2));
+            levels.set(h, values);
+        }
+        values[sizes[h]++] = value;
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds an empty level on top
+     */
+    private void addLevel() {
+        levels.add(new double[8]);
+        sizes = Arrays.copyOf(sizes, levels.size());
+    }
+}
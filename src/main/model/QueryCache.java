@@ -0,0 +1,135 @@
+package model;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Represents the remembered results of a logbook's queries, at most capacity of them, the least recently
+ * used dropped first. Every result belongs to a partition, a date or a muscle type; the logbook invalidates
+ * a partition whenever what a query over it returns may have changed, so results over other partitions
+ * survive the change. Results hold the live sessions and exercises, so edits that do not change which ones
+ * a query returns need no invalidation.
+ */
+class QueryCache {
+    private static final Counter HITS = MetricsRegistry.getInstance().counter("logbook.queryCache.hits");
+    private static final Counter MISSES = MetricsRegistry.getInstance().counter("logbook.queryCache.misses");
+
+    private int capacity;
+    private LinkedHashMap<String, Result> results;  // by query and partition, least recently used first
+    private Map<String, Long> invalidations;        // epoch of the last invalidation of each partition
+    private long epoch;                             // bumped on every invalidation
+    private long clearedAt;                         // epoch of the last invalidation of all partitions
+
+    /*
+     * REQUIRES: capacity > 0
+     * EFFECTS: creates an empty cache of at most capacity results
+     */
+    QueryCache(int capacity) {
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+        this.invalidations = new HashMap<>();
+    }
+
+    /*
+     * EFFECTS: returns the partition of the queries over date, the same for every spelling of it
+     */
+    static String datePartition(String date) {
+        return "date " + SessionDates.canonical(date);
+    }
+
+    /*
+     * EFFECTS: returns the partition of the queries over muscle
+     */
+    static String musclePartition(Muscles muscle) {
+        return "muscle " + muscle.name();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns a copy of the result of query over partition if one was remembered since the
+     *          partition was last invalidated, otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> lookup(String query, String partition) {
+        Result cached = results.get(query + " " + partition);
+        if (cached == null || cached.epoch < clearedAt
+                || cached.epoch < invalidations.getOrDefault(partition, 0L)) {
+            MISSES.increment();
+            return null;
+        }
+        HITS.increment();
+        return new ArrayList<>((List<T>) cached.items);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: remembers a copy of items as the current result of query over partition, dropping the
+     *          least recently used result if there are more than capacity
+     */
+    void put(String query, String partition, List<?> items) {
+        results.put(query + " " + partition, new Result(epoch, new ArrayList<>(items)));
+        if (results.size() > capacity) {
+            Iterator<Result> eldest = results.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets the results over partition
+     */
+    void invalidate(String partition) {
+        epoch++;
+        invalidations.put(partition, epoch);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets every result
+     */
+    void invalidateAll() {
+        epoch++;
+        clearedAt = epoch;
+        invalidations.clear();
+        results.clear();
+    }
+
+    /*
+     * EFFECTS: returns the number of results remembered, including ones invalidated but not yet dropped
+     */
+    int size() {
+        return results.size();
+    }
+
+    /*
+     * EFFECTS: returns the number of sessions and exercises held by the results remembered
+     */
+    int getItemCount() {
+        int items = 0;
+        for (Result result : results.values()) {
+            items += result.items.size();
+        }
+        return items;
+    }
+
+    /*
+     * Represents one remembered result and the epoch it was computed at
+     */
+    private static class Result {
+        private final long epoch;
+        private final List<?> items;
+
+        Result(long epoch, List<?> items) {
+            this.epoch = epoch;
+            this.items = items;
+        }
+    }
+}
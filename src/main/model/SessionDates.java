@@ -0,0 +1,57 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/*
+ * Represents the dates sessions are logged under: year, month and day separated by slashes, with or without
+ * leading zeros (the window writes "2025/1/5", CSV import "2025/01/05"). Two dates are the same day if
+ * they have the same epoch day, whatever their spelling
+ */
+public final class SessionDates {
+    public static final long NO_DAY = Long.MIN_VALUE;      // the epoch day of a date that is not a calendar date
+    private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private SessionDates() {
+    }
+
+    /*
+     * EFFECTS: returns the epoch day of date, in the form yyyy/mm/dd, or NO_DAY if it is not a calendar date
+     */
+    public static long epochDay(String date) {
+        String[] parts = date.split("/");
+        if (parts.length != 3) {
+            return NO_DAY;
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    Integer.parseInt(parts[2])).toEpochDay();
+        } catch (RuntimeException e) {
+            return NO_DAY;
+        }
+    }
+
+    /*
+     * EFFECTS: returns true if date is a calendar date in the form yyyy/mm/dd
+     */
+    public static boolean isDate(String date) {
+        return epochDay(date) != NO_DAY;
+    }
+
+    /*
+     * EFFECTS: returns the one form a date is known by whatever its spelling: a calendar date written
+     *          yyyy/mm/dd with leading zeros, and anything else as it is
+     */
+    public static String canonical(String date) {
+        long day = epochDay(date);
+        return day == NO_DAY ? date : format(day);
+    }
+
+    /*
+     * REQUIRES: day != NO_DAY
+     * EFFECTS: returns epoch day day written yyyy/mm/dd, with leading zeros
+     */
+    public static String format(long day) {
+        return LocalDate.ofEpochDay(day).format(FORMAT);
+    }
+}
@@ -0,0 +1,50 @@
+package model;
+
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+/*
+ * Represents a workout session at one moment: its date and the snapshots of its exercises, in order.
+ * A snapshot never changes; a session makes a new one only after it or one of its exercises changed
+ */
+public final class SessionSnapshot implements Writable {
+    private final String date;
+    private final List<ExerciseSnapshot> exercises;
+
+    /*
+     * REQUIRES: exercises is never modified afterwards
+     * EFFECTS: creates the snapshot of a session on date holding exercises
+     */
+    SessionSnapshot(String date, List<ExerciseSnapshot> exercises) {
+        this.date = date;
+        this.exercises = exercises;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    /*
+     * EFFECTS: returns the exercises in order, as an unmodifiable list
+     */
+    public List<ExerciseSnapshot> getExercises() {
+        return exercises;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("date", date);
+
+        JSONArray jsonArray = new JSONArray();
+        for (ExerciseSnapshot e : exercises) {
+            jsonArray.put(e.toJson());
+        }
+        json.put("exercises", jsonArray);
+
+        return json;
+    }
+}
@@ -0,0 +1,235 @@
+package model;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.json.JSONArray;
+
+/*
+ * Represents the sets of an exercise one by one, e.g. a drop set or a pyramid: the weight and reps of each
+ * set, and optionally how hard it felt (RPE, in tenths) and the rest taken after it (in seconds).
+ * Each set is packed into one long, so a log of n sets is one array of n primitives rather than n objects,
+ * and its totals are summed straight from that array. In JSON each set is written as its four small values,
+ * which any JSON client reads exactly. A log never changes; adding a set returns a new log
+ */
+public final class SetLog {
+    public static final SetLog EMPTY = new SetLog(new long[0]);
+    public static final int MAX_WEIGHT = (1 << 24) - 1;
+    public static final int MAX_REPS = (1 << 16) - 1;
+    public static final int MAX_RPE_TENTHS = 100;
+    public static final int MAX_REST_SECONDS = (1 << 16) - 1;
+
+    // layout of a packed set, from the lowest bit: weight (24 bits), reps (16), RPE in tenths (8), rest (16)
+    private static final int REPS_SHIFT = 24;
+    private static final int RPE_SHIFT = 40;
+    private static final int REST_SHIFT = 48;
+    private static final Pattern SET_PATTERN = Pattern.compile("(\\d{1,8})\\s*x\\s*(\\d{1,5})"
+            + "(?:\\s*@\\s*(\\d{1,2}(?:\\.\\d)?))?(?:\\s*/\\s*(\\d{1,5})\\s*s?)?");
+
+    private final long[] sets;
+
+    /*
+     * EFFECTS: creates a log of the packed sets, which it takes over
+     */
+    private SetLog(long[] sets) {
+        this.sets = sets;
+    }
+
+    /*
+     * EFFECTS: returns the log of the sets in json, as written by toJson: each set [weight, reps, rpe, rest],
+     *          RPE and rest being optional; throws IllegalArgumentException if a set cannot be recorded and
+     *          JSONException if a set is not written that way
+     */
+    public static SetLog fromJson(JSONArray json) {
+        long[] sets = new long[json.length()];
+        for (int i = 0; i < sets.length; i++) {
+            JSONArray set = json.getJSONArray(i);
+            sets[i] = pack(set.getInt(0), set.getInt(1), set.optInt(2), set.optInt(3));
+        }
+        return new SetLog(sets);
+    }
+
+    /*
+     * EFFECTS: returns the log written in text as toString writes it, sets separated by commas, each
+     *          "weight x reps", optionally followed by "@rpe" and "/rest s" (e.g. "100x8, 105x6 @8.5 /90s");
+     *          returns an empty log for blank text. Throws IllegalArgumentException if a set is not
+     *          written that way or cannot be recorded
+     */
+    public static SetLog parse(String text) {
+        SetLog log = EMPTY;
+        for (String set : text.split(",")) {
+            if (set.isBlank()) {
+                continue;
+            }
+            Matcher matcher = SET_PATTERN.matcher(set.trim().toLowerCase());
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Set \"" + set.trim() + "\" is not weight x reps");
+            }
+            int rpeTenths = matcher.group(3) == null ? 0 : (int) Math.round(Double.parseDouble(matcher.group(3)) * 10);
+            int rest = matcher.group(4) == null ? 0 : Integer.parseInt(matcher.group(4));
+            log = log.plus(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), rpeTenths, rest);
+        }
+        return log;
+    }
+
+    /*
+     * EFFECTS: returns this log with a set of reps at weight kilograms added at the end, without RPE or rest
+     *          recorded; throws IllegalArgumentException if either is negative or too large to record
+     */
+    public SetLog plus(int weight, int reps) {
+        return plus(weight, reps, 0, 0);
+    }
+
+    /*
+     * EFFECTS: returns this log with a set of reps at weight kilograms added at the end, felt as hard as
+     *          rpeTenths tenths of RPE (0 if not recorded) and followed by restSeconds of rest (0 if not
+     *          recorded); throws IllegalArgumentException if a value is negative or too large to record
+     */
+    public SetLog plus(int weight, int reps, int rpeTenths, int restSeconds) {
+        long[] added = Arrays.copyOf(sets, sets.length + 1);
+        added[sets.length] = pack(weight, reps, rpeTenths, restSeconds);
+        return new SetLog(added);
+    }
+
+    public int size() {
+        return sets.length;
+    }
+
+    public boolean isEmpty() {
+        return sets.length == 0;
+    }
+
+    /*
+     * REQUIRES: 0 <= i < size()
+     * EFFECTS: returns the weight in kilograms of set i
+     */
+    public int getWeight(int i) {
+        return weight(sets[i]);
+    }
+
+    /*
+     * REQUIRES: 0 <= i < size()
+     * EFFECTS: returns the reps of set i
+     */
+    public int getReps(int i) {
+        return reps(sets[i]);
+    }
+
+    /*
+     * REQUIRES: 0 <= i < size()
+     * EFFECTS: returns the RPE of set i in tenths, or 0 if it was not recorded
+     */
+    public int getRpeTenths(int i) {
+        return rpeTenths(sets[i]);
+    }
+
+    /*
+     * REQUIRES: 0 <= i < size()
+     * EFFECTS: returns the seconds of rest after set i, or 0 if it was not recorded
+     */
+    public int getRestSeconds(int i) {
+        return restSeconds(sets[i]);
+    }
+
+    /*
+     * EFFECTS: returns the total weight moved in kilograms: the sum of weight times reps over all sets
+     */
+    public long getVolume() {
+        long volume = 0;
+        for (long set : sets) {
+            volume += (long) weight(set) * reps(set);
+        }
+        return volume;
+    }
+
+    /*
+     * EFFECTS: returns the index of the top set, the heaviest one (the one with more reps on a tie, then
+     *          the first), or -1 if this log is empty
+     */
+    public int getTopSet() {
+        int top = -1;
+        for (int i = 0; i < sets.length; i++) {
+            if (top < 0 || weight(sets[i]) > weight(sets[top])
+                    || (weight(sets[i]) == weight(sets[top]) && reps(sets[i]) > reps(sets[top]))) {
+                top = i;
+            }
+        }
+        return top;
+    }
+
+    /*
+     * EFFECTS: returns the sets as a JSON array holding [weight, reps, rpe, rest] for each set, RPE in tenths
+     *          and rest in seconds, 0 where not recorded
+     */
+    public JSONArray toJson() {
+        JSONArray json = new JSONArray();
+        for (long set : sets) {
+            json.put(new JSONArray().put(weight(set)).put(reps(set)).put(rpeTenths(set)).put(restSeconds(set)));
+        }
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SetLog && Arrays.equals(sets, ((SetLog) o).sets);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(sets);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sets.length; i++) {
+            text.append(i == 0 ? "" : ", ").append(getWeight(i)).append('x').append(getReps(i));
+            if (getRpeTenths(i) > 0) {
+                text.append(" @").append(getRpeTenths(i) / 10).append('.').append(getRpeTenths(i) % 10);
+            }
+            if (getRestSeconds(i) > 0) {
+                text.append(" /").append(getRestSeconds(i)).append('s');
+            }
+        }
+        return text.toString();
+    }
+
+    /*
+     * EFFECTS: throws IllegalArgumentException if a value of a set is negative or too large to record
+     */
+    private static void check(int weight, int reps, int rpeTenths, int restSeconds) {
+        if (weight < 0 || weight > MAX_WEIGHT || reps < 0 || reps > MAX_REPS) {
+            throw new IllegalArgumentException("Set of " + reps + " reps at " + weight + " kg cannot be recorded");
+        }
+        if (rpeTenths < 0 || rpeTenths > MAX_RPE_TENTHS || restSeconds < 0 || restSeconds > MAX_REST_SECONDS) {
+            throw new IllegalArgumentException("RPE " + rpeTenths / 10.0 + " or rest of " + restSeconds
+                    + " s cannot be recorded");
+        }
+    }
+
+    /*
+     * EFFECTS: returns the set of the given values packed into one long; throws IllegalArgumentException
+     *          if a value is negative or too large to record
+     */
+    private static long pack(int weight, int reps, int rpeTenths, int restSeconds) {
+        check(weight, reps, rpeTenths, restSeconds);
+        return weight | (long) reps << REPS_SHIFT | (long) rpeTenths << RPE_SHIFT | (long) restSeconds << REST_SHIFT;
+    }
+
+    private static int weight(long set) {
+        return (int) (set & MAX_WEIGHT);
+    }
+
+    private static int reps(long set) {
+        return (int) (set >>> REPS_SHIFT & MAX_REPS);
+    }
+
+    private static int rpeTenths(long set) {
+        return (int) (set >>> RPE_SHIFT & 0xFF);
+    }
+
+    private static int restSeconds(long set) {
+        return (int) (set >>> REST_SHIFT & MAX_REST_SECONDS);
+    }
+}
@@ -0,0 +1,221 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Represents the days trained in a logbook, overall and per muscle type, as one bitmap per year: bit d of a
+ * year is set if an exercise was logged on its day of year d + 1, so a year takes six 64-bit words per
+ * muscle type and years without training take nothing. The bitmaps follow every change of the logbook,
+ * so day counts, adherence and streaks come from counting and shifting whole words instead of walking the
+ * sessions and parsing their dates. A day counts towards every muscle type worked by an exercise on it.
+ * Sessions whose date is not a calendar date in the form yyyy/mm/dd are not counted.
+ */
+public class TrainingCalendar extends ExerciseIndex<TrainingCalendar.Entry> {
+    private static final int WORDS = 6;                              // 64-bit words per year, 384 bits
+    private static final int OVERALL = Muscles.values().length;      // index of the overall bitmap
+
+    private TreeMap<Integer, long[][]> years;   // bitmap per muscle type ordinal then overall, by year
+    private Map<Long, int[]> counts;            // exercises per muscle type ordinal then overall, by epoch day
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: creates the calendar of the days trained in logbook that keeps up with its changes from now on
+     */
+    public TrainingCalendar(Logbook logbook) {
+        this.years = new TreeMap<>();
+        this.counts = new HashMap<>();
+        follow(logbook);
+    }
+
+    /*
+     * EFFECTS: returns true if anything was trained on date
+     */
+    public synchronized boolean isTrainingDay(LocalDate date) {
+        long[][] bitmaps = years.get(date.getYear());
+        int bit = date.getDayOfYear() - 1;
+        return bitmaps != null && (bitmaps[OVERALL][bit >>> 6] & 1L << bit) != 0;
+    }
+
+    /*
+     * EFFECTS: returns the number of days trained in year
+     */
+    public synchronized int getDaysTrained(int year) {
+        return countDays(year, OVERALL, 0, Year.of(year).length());
+    }
+
+    /*
+     * EFFECTS: returns the number of days in year on which muscle was trained
+     */
+    public synchronized int getDaysTrained(int year, Muscles muscle) {
+        return countDays(year, muscle.ordinal(), 0, Year.of(year).length());
+    }
+
+    /*
+     * REQUIRES: !from.isAfter(to)
+     * EFFECTS: returns the fraction of the days from from to to (inclusive) on which anything was trained
+     */
+    public synchronized double getAdherence(LocalDate from, LocalDate to) {
+        int days = 0;
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            int first = year == from.getYear() ? from.getDayOfYear() - 1 : 0;
+            int end = year == to.getYear() ? to.getDayOfYear() : Year.of(year).length();
+            days += countDays(year, OVERALL, first, end);
+        }
+        return (double) days / (to.toEpochDay() - from.toEpochDay() + 1);
+    }
+
+    /*
+     * EFFECTS: returns the most days in a row anything was trained on
+     */
+    public synchronized int getLongestStreak() {
+        int longest = 0;
+        int run = 0;                // days in a row trained up to the end of the last word looked at
+        Integer last = null;
+        for (Map.Entry<Integer, long[][]> entry : years.entrySet()) {
+            if (last == null || entry.getKey() != last + 1) {
+                run = 0;
+            }
+            last = entry.getKey();
+            int length = Year.of(last).length();
+            long[] words = entry.getValue()[OVERALL];
+            for (int i = 0; i * 64 < length; i++) {
+                int bits = Math.min(64, length - i * 64);
+                long word = words[i];
+                if (word == lowBits(bits)) {
+                    run += bits;
+                    longest = Math.max(longest, run);
+                } else {
+                    longest = Math.max(longest, Math.max(run + Long.numberOfTrailingZeros(~word), longestRun(word)));
+                    run = Long.numberOfLeadingZeros(~(word << (64 - bits)));
+                }
+            }
+        }
+        return longest;
+    }
+
+    /*
+     * EFFECTS: returns the days in a row anything was trained on up to and including date, or 0 if
+     *          nothing was trained on date
+     */
+    public synchronized int getStreakEndingOn(LocalDate date) {
+        int streak = 0;
+        LocalDate day = date;
+        while (isTrainingDay(day)) {
+            streak++;
+            day = day.minusDays(1);
+        }
+        return streak;
+    }
+
+    /*
+     * EFFECTS: returns a copy of the bitmap of year for muscle, or for all training if muscle is null: bit
+     *          d % 64 of word d / 64 is set if the day of year d + 1 was trained, e.g. to draw a heatmap
+     */
+    public synchronized long[] getYear(int year, Muscles muscle) {
+        long[][] bitmaps = years.get(year);
+        return bitmaps == null ? new long[WORDS] : bitmaps[muscle == null ? OVERALL : muscle.ordinal()].clone();
+    }
+
+    @Override
+    Entry count(Exercise exercise, long day) {
+        Entry entry = new Entry(day, exercise.getMuscleMask());
+        tally(entry, 1);
+        return entry;
+    }
+
+    @Override
+    void uncount(Exercise exercise, Entry entry) {
+        tally(entry, -1);
+    }
+
+    @Override
+    void clear() {
+        years.clear();
+        counts.clear();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds sign to the exercises counted on the day of entry for overall and for every muscle type
+     *          it works, and sets or clears their bits as those counts become or stop being positive
+     */
+    private void tally(Entry entry, int sign) {
+        int[] dayCounts = counts.computeIfAbsent(entry.day, day -> new int[OVERALL + 1]);
+        LocalDate date = LocalDate.ofEpochDay(entry.day);
+        long[][] bitmaps = years.computeIfAbsent(date.getYear(), year -> new long[OVERALL + 1][WORDS]);
+        int bit = date.getDayOfYear() - 1;
+        for (int i = 0; i <= OVERALL; i++) {
+            if (i == OVERALL || (entry.muscles & 1 << i) != 0) {
+                dayCounts[i] += sign;
+                if (dayCounts[i] > 0) {
+                    bitmaps[i][bit >>> 6] |= 1L << bit;
+                } else {
+                    bitmaps[i][bit >>> 6] &= ~(1L << bit);
+                }
+            }
+        }
+        if (dayCounts[OVERALL] == 0) {
+            counts.remove(entry.day);
+        }
+    }
+
+    /*
+     * EFFECTS: returns the number of bits from first (inclusive) to end (exclusive) set in the bitmap of
+     *          year at index
+     */
+    private int countDays(int year, int index, int first, int end) {
+        long[][] bitmaps = years.get(year);
+        if (bitmaps == null || first >= end) {
+            return 0;
+        }
+        int days = 0;
+        for (int i = first >>> 6; i <= (end - 1) >>> 6; i++) {
+            long word = bitmaps[index][i];
+            if (i == first >>> 6) {
+                word &= -1L << first;
+            }
+            if (i == (end - 1) >>> 6) {
+                word &= lowBits(end - i * 64);
+            }
+            days += Long.bitCount(word);
+        }
+        return days;
+    }
+
+    /*
+     * REQUIRES: 1 <= bits <= 64
+     * EFFECTS: returns a word with its lowest bits bits set
+     */
+    private static long lowBits(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    /*
+     * EFFECTS: returns the length of the longest run of set bits in word
+     */
+    private static int longestRun(long word) {
+        int run = 0;
+        for (long rest = word; rest != 0; rest &= rest << 1) {
+            run++;
+        }
+        return run;
+    }
+
+    /*
+     * Represents an exercise as it was counted: the epoch day of its session and the mask of the muscle
+     * types it worked
+     */
+    static class Entry {
+        private final long day;
+        private final int muscles;
+
+        Entry(long day, int muscles) {
+            this.day = day;
+            this.muscles = muscles;
+        }
+    }
+}
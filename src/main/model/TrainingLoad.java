@@ -0,0 +1,198 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Represents the training load in a logbook per muscle type and overall: the acute (7-day) and chronic
+ * (28-day) volume as of a given day, today unless asked otherwise, so a break from training shows as a
+ * falling load. The volume of every day is kept, and so are the sums over both windows ending on the day
+ * last asked about. A change to the logbook adds or subtracts the volume of the exercises it touches from
+ * their day and, if the day is in a window, from that window's sum; asking about a later or earlier day
+ * slides both windows day by day. The windows are therefore never summed from the sessions again, and at
+ * most the 28 days of a window are ever added up, whatever the length of the history. An exercise counts
+ * towards every muscle type it works but only once overall. Sessions whose date is not a calendar date in
+ * the form yyyy/mm/dd are not counted.
+ */
+public class TrainingLoad extends ExerciseIndex<TrainingLoad.Entry> {
+    static final int ACUTE_DAYS = 7;
+    static final int CHRONIC_DAYS = 28;
+    private static final int OVERALL = Muscles.values().length;    // index of the overall volume
+
+    private TreeMap<Long, long[]> daily;        // volume per muscle type ordinal then overall, by epoch day
+    private long asOf;                          // epoch day both windows end on, NO_DAY before they are summed
+    private long[] acute;                       // volumes of the 7 days ending on asOf, indexed as in daily
+    private long[] chronic;                     // volumes of the 28 days ending on asOf
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: creates the training load of logbook that keeps up with its changes from now on
+     */
+    public TrainingLoad(Logbook logbook) {
+        this.daily = new TreeMap<>();
+        follow(logbook);
+    }
+
+    /*
+     * EFFECTS: returns the newest day with any volume logged, or null if none is
+     */
+    public synchronized LocalDate getLastDay() {
+        return daily.isEmpty() ? null : LocalDate.ofEpochDay(daily.lastKey());
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the load of all training as of today
+     */
+    public Workload getOverall() {
+        return getOverall(LocalDate.now());
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the load of all training in the windows ending on day
+     */
+    public synchronized Workload getOverall(LocalDate day) {
+        slideTo(day.toEpochDay());
+        return new Workload(acute[OVERALL], chronic[OVERALL]);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the load of the exercises working muscle as of today
+     */
+    public Workload getMuscle(Muscles muscle) {
+        return getMuscle(muscle, LocalDate.now());
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns the load of the exercises working muscle in the windows ending on day
+     */
+    public synchronized Workload getMuscle(Muscles muscle, LocalDate day) {
+        slideTo(day.toEpochDay());
+        return new Workload(acute[muscle.ordinal()], chronic[muscle.ordinal()]);
+    }
+
+    @Override
+    Entry count(Exercise exercise, long day) {
+        Entry entry = new Entry(day, exercise.getMuscleMask(), exercise.getVolume());
+        tally(entry, 1);
+        return entry;
+    }
+
+    @Override
+    void uncount(Exercise exercise, Entry entry) {
+        tally(entry, -1);
+    }
+
+    @Override
+    void clear() {
+        daily.clear();
+        asOf = SessionDates.NO_DAY;
+        acute = new long[OVERALL + 1];
+        chronic = new long[OVERALL + 1];
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the volume of entry, times sign, to its day and to the windows holding that day
+     */
+    private void tally(Entry entry, int sign) {
+        long[] volumes = daily.computeIfAbsent(entry.day, day -> new long[OVERALL + 1]);
+        long volume = sign * entry.volume;
+        boolean inAcute = entry.day <= asOf && entry.day > asOf - ACUTE_DAYS;
+        boolean inChronic = entry.day <= asOf && entry.day > asOf - CHRONIC_DAYS;
+        for (int i = 0; i <= OVERALL; i++) {
+            if (i == OVERALL || (entry.muscles & 1 << i) != 0) {
+                volumes[i] += volume;
+                acute[i] += inAcute ? volume : 0;
+                chronic[i] += inChronic ? volume : 0;
+            }
+        }
+        if (volumes[OVERALL] == 0) {
+            daily.remove(entry.day);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: moves both windows to end on epoch day day, one day at a time, adding the days that enter
+     *          a window and subtracting those that leave it; the first move, and a move by a whole chronic
+     *          window or more, sums the new windows instead
+     */
+    private void slideTo(long day) {
+        if (day == asOf) {
+            return;
+        }
+        if (asOf == SessionDates.NO_DAY || Math.abs(day - asOf) >= CHRONIC_DAYS) {
+            sumWindowsTo(day);
+            return;
+        }
+        while (asOf < day) {
+            asOf++;
+            shift(asOf, 1);
+        }
+        while (asOf > day) {
+            shift(asOf, -1);
+            asOf--;
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: makes both windows end on epoch day day by summing the days in them
+     */
+    private void sumWindowsTo(long day) {
+        acute = new long[OVERALL + 1];
+        chronic = new long[OVERALL + 1];
+        asOf = day;
+        for (Map.Entry<Long, long[]> entry : daily.subMap(day - CHRONIC_DAYS, false, day, true).entrySet()) {
+            add(chronic, entry.getValue(), 1);
+            if (entry.getKey() > day - ACUTE_DAYS) {
+                add(acute, entry.getValue(), 1);
+            }
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: if sign is 1, lets epoch day entering into both windows and lets the days 7 and 28 days
+     *          before it leave them; if sign is -1, undoes that
+     */
+    private void shift(long entering, int sign) {
+        add(acute, daily.get(entering), sign);
+        add(chronic, daily.get(entering), sign);
+        add(acute, daily.get(entering - ACUTE_DAYS), -sign);
+        add(chronic, daily.get(entering - CHRONIC_DAYS), -sign);
+    }
+
+    /*
+     * MODIFIES: sums
+     * EFFECTS: adds volumes, times sign, to sums; does nothing if volumes is null
+     */
+    private static void add(long[] sums, long[] volumes, int sign) {
+        if (volumes != null) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += sign * volumes[i];
+            }
+        }
+    }
+
+    /*
+     * Represents an exercise as it was counted: the epoch day of its session, the mask of the muscle types
+     * it worked and its volume at the time
+     */
+    static class Entry {
+        private final long day;
+        private final int muscles;
+        private final long volume;
+
+        Entry(long day, int muscles, long volume) {
+            this.day = day;
+            this.muscles = muscles;
+            this.volume = volume;
+        }
+    }
+}
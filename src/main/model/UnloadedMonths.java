@@ -0,0 +1,77 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Represents the months of a partitioned logbook that were saved into without ever being loaded: the sessions
+ * stored in each of them before the first such save. They are kept out of the logbook, so saving never changes
+ * what it shows, and merged into every save of the month so its history is written back along with the
+ * sessions the logbook holds. A stored session on the day of a session in the logbook becomes part of it.
+ */
+class UnloadedMonths {
+    private final Map<String, List<SessionSnapshot>> months = new TreeMap<>();   // by partition key
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: keeps stored, the sessions read from month key, to be merged into its saves
+     */
+    void add(String key, List<WorkoutSession> stored) {
+        List<SessionSnapshot> snapshots = new ArrayList<>();
+        for (WorkoutSession session : stored) {
+            snapshots.add(session.snapshot());
+        }
+        months.put(key, snapshots);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: forgets every month, e.g. once the logbook was loaded again
+     */
+    void clear() {
+        months.clear();
+    }
+
+    /*
+     * EFFECTS: returns sessions with the stored sessions of every month kept: a stored session on the day of
+     *          one of sessions is merged into the first such session, its exercises first, and the others come
+     *          before sessions; sessions is returned as it is if no month is kept
+     */
+    List<SessionSnapshot> mergeInto(List<SessionSnapshot> sessions) {
+        if (months.isEmpty()) {
+            return sessions;
+        }
+        Map<Long, SessionSnapshot> byDay = new HashMap<>();
+        for (SessionSnapshot session : sessions) {
+            byDay.putIfAbsent(SessionDates.epochDay(session.getDate()), session);
+        }
+        byDay.remove(SessionDates.NO_DAY);
+
+        List<SessionSnapshot> merged = new ArrayList<>();
+        Map<SessionSnapshot, List<ExerciseSnapshot>> before = new IdentityHashMap<>();
+        for (List<SessionSnapshot> month : months.values()) {
+            for (SessionSnapshot stored : month) {
+                SessionSnapshot current = byDay.get(SessionDates.epochDay(stored.getDate()));
+                if (current == null) {
+                    merged.add(stored);
+                } else {
+                    before.computeIfAbsent(current, s -> new ArrayList<>()).addAll(stored.getExercises());
+                }
+            }
+        }
+        for (SessionSnapshot session : sessions) {
+            List<ExerciseSnapshot> exercises = before.get(session);
+            if (exercises == null) {
+                merged.add(session);
+            } else {
+                exercises.addAll(session.getExercises());
+                merged.add(new SessionSnapshot(session.getDate(), exercises));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+/*
+ * Represents the training load of one muscle type, or of all training, as of a day: the acute load, the
+ * volume of the 7 days ending that day, against the chronic load, the average weekly volume of the 28 days
+ * ending that day. Their ratio (the acute:chronic workload ratio) is about 1 while training stays steady,
+ * and well above 1 after a sudden jump in load
+ */
+public class Workload {
+    private final long acute;
+    private final long chronic;     // total volume of the 28 days, four times the average weekly volume
+
+    /*
+     * EFFECTS: creates the load of acute kilograms moved in the last 7 days and chronic in the last 28
+     */
+    public Workload(long acute, long chronic) {
+        this.acute = acute;
+        this.chronic = chronic;
+    }
+
+    /*
+     * EFFECTS: returns the volume in kilograms of the 7 days ending on the day of this load
+     */
+    public long getAcute() {
+        return acute;
+    }
+
+    /*
+     * EFFECTS: returns the average weekly volume in kilograms of the 28 days ending on the day of this load
+     */
+    public double getChronic() {
+        return chronic / 4.0;
+    }
+
+    /*
+     * EFFECTS: returns the acute load divided by the chronic load, or 0 if there is no chronic load
+     */
+    public double getRatio() {
+        return chronic == 0 ? 0 : acute * 4.0 / chronic;
+    }
+}
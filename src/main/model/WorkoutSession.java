@@ -1,46 +1,106 @@
 package model;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class WorkoutSession implements Writable {
     private String date;
     private List<Exercise> exercises;
+    private long version;           // bumped on every change to this session or one of its exercises
+    private Logbook logbook;        // the logbook this session was added to, told about every change
+    private int position;           // the index of this session in its logbook
+    private SessionSnapshot snapshot;   // the snapshot of this session as of snapshotVersion, or null
+    private long snapshotVersion;
 
     public WorkoutSession(String date) {
-        this.date = date;
-        this.exercises = new ArrayList<>();
+        this(date, new ArrayList<>());
     
         EventLog.getInstance().logEvent(new Event("Started new workout session for date: " + date));
     }
 
+    /*
+     * EFFECTS: creates a session on date holding exercises, without logging any event
+     */
+    private WorkoutSession(String date, List<Exercise> exercises) {
+        this.date = date;
+        this.exercises = exercises;
+    }
+
+    /*
+     * EFFECTS: returns a session read back from storage or imported in bulk, holding exercises in order;
+     *          unlike the constructor it logs no event, since the session is not new to the user
+     */
+    public static WorkoutSession restore(String date, List<Exercise> exercises) {
+        WorkoutSession session = new WorkoutSession(date, new ArrayList<>(exercises));
+        for (Exercise exercise : exercises) {
+            exercise.setSession(session);
+        }
+        return session;
+    }
+
     public void addExercise(Exercise exercise) {
-        this.exercises.add(exercise);
+        synchronized (lock()) {
+            this.exercises.add(exercise);
+            exercise.setSession(this);
+            joined(exercise, exercises.size() - 1);
+            modified();
+        }
 
         EventLog.getInstance().logEvent(new Event("Added " + exercise.getExerciseName() + " to session on " + date));
     }
 
-    public boolean removeExercise(String exerciseName) {
-        Exercise toRemove = null;
-        for (Exercise e : exercises) {
-            if (e.getExerciseName().equalsIgnoreCase(exerciseName)) {
-                toRemove = e;
-                break;
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds all of added in order as one change, undone at once, logging a single summary event
+     */
+    public void addExercises(List<Exercise> added) {
+        synchronized (lock()) {
+            if (logbook != null) {
+                logbook.edit("add " + added.size() + " exercises on " + date, () -> append(added));
+            } else {
+                append(added);
             }
         }
 
-        if (toRemove != null) {
-            exercises.remove(toRemove);
-            EventLog.getInstance().logEvent(new Event("Removed " + exerciseName + " from session on " + date));
-            
-            return true;
+        EventLog.getInstance().logEvent(new Event("Added " + added.size() + " exercises to session on " + date));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds all of added in order, without logging an event
+     */
+    private void append(List<Exercise> added) {
+        for (Exercise exercise : added) {
+            this.exercises.add(exercise);
+            exercise.setSession(this);
+            joined(exercise, exercises.size() - 1);
         }
+        modified();
+    }
+
+    public boolean removeExercise(String exerciseName) {
+        synchronized (lock()) {
+            Exercise toRemove = null;
+            for (Exercise e : exercises) {
+                if (e.getExerciseName().equalsIgnoreCase(exerciseName)) {
+                    toRemove = e;
+                    break;
+                }
+            }
+
+            if (toRemove != null) {
+                dropExercise(toRemove);
+                EventLog.getInstance().logEvent(new Event("Removed " + exerciseName + " from session on " + date));
+                
+                return true;
+            }
 
-        return false;
+            return false;
+        }
     }
 
     public String getDate() {
@@ -48,25 +108,182 @@ public class WorkoutSession implements Writable {
     }
 
     public List<Exercise> getExercises() {
-        return new ArrayList<>(exercises);
+        synchronized (lock()) {
+            return new ArrayList<>(exercises);
+        }
+    }
+
+    /*
+     * EFFECTS: returns the mask of every muscle type worked by some exercise of this session
+     */
+    public int getMuscleMask() {
+        synchronized (lock()) {
+            int mask = 0;
+            for (Exercise exercise : exercises) {
+                mask |= exercise.getMuscleMask();
+            }
+            return mask;
+        }
+    }
+
+    public long getVersion() {
+        return version;
     }
 
     public void setDate(String date) {
-        this.date = date;
+        moveTo(date);
         EventLog.getInstance().logEvent(new Event("Updated session date to: " + date));
     }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: moves this session to date, without logging an event
+     */
+    void moveTo(String date) {
+        synchronized (lock()) {
+            String oldDate = this.date;
+            this.date = date;
+            version++;
+            if (logbook != null) {
+                logbook.sessionMoved(this, oldDate);
+            }
+        }
+    }
     
-    @Override
-    public JSONObject toJson() {
-        JSONObject json = new JSONObject();
-        json.put("date", date);
+    /*
+     * MODIFIES: this
+     * EFFECTS: attaches this session to logbook (or detaches it when logbook is null)
+     */
+    void setLogbook(Logbook logbook) {
+        this.logbook = logbook;
+    }
 
-        JSONArray jsonArray = new JSONArray();
-        for (Exercise e : exercises) {
-            jsonArray.put(e.toJson());
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that this session is at index position of its logbook
+     */
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    /*
+     * EFFECTS: returns the index of this session in its logbook
+     */
+    int getPosition() {
+        return position;
+    }
+
+    /*
+     * EFFECTS: returns this session as it is now, which no later change affects; the snapshot is
+     *          made again only after this session or one of its exercises changed
+     */
+    public SessionSnapshot snapshot() {
+        synchronized (lock()) {
+            if (snapshot == null || snapshotVersion != version) {
+                List<ExerciseSnapshot> values = new ArrayList<>(exercises.size());
+                for (Exercise exercise : exercises) {
+                    values.add(exercise.snapshot());
+                }
+                snapshot = new SessionSnapshot(date, Collections.unmodifiableList(values));
+                snapshotVersion = version;
+            }
+            return snapshot;
+        }
+    }
+
+    /*
+     * EFFECTS: returns the logbook this session belongs to, or null if it belongs to none
+     */
+    Logbook getLogbook() {
+        return logbook;
+    }
+
+    /*
+     * EFFECTS: returns the monitor that guards this session: its logbook's once it was added to one,
+     *          so a save on another thread never sees the session half-changed
+     */
+    Object lock() {
+        Logbook owner = logbook;
+        return owner != null ? owner : this;
+    }
+
+    /*
+     * REQUIRES: 0 <= position <= number of exercises
+     * MODIFIES: this, exercise
+     * EFFECTS: inserts exercise at position, without logging an event
+     */
+    void insertExercise(int position, Exercise exercise) {
+        synchronized (lock()) {
+            exercises.add(position, exercise);
+            exercise.setSession(this);
+            joined(exercise, position);
+            modified();
+        }
+    }
+
+    /*
+     * REQUIRES: exercise is one of this session's exercises
+     * MODIFIES: this, exercise
+     * EFFECTS: removes exercise (that very object, not one with its name), without logging an event
+     */
+    void dropExercise(Exercise exercise) {
+        synchronized (lock()) {
+            int position = 0;
+            while (exercises.get(position) != exercise) {
+                position++;
+            }
+            exercises.remove(position);
+            exercise.setSession(null);
+            if (logbook != null) {
+                logbook.exerciseRemoved(this, exercise, position);
+            }
+            modified();
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: records that exercise, one of this session's exercises, changed from before
+     */
+    void exerciseModified(Exercise exercise, ExerciseSnapshot before) {
+        if (logbook != null) {
+            logbook.exerciseChanged(this, exercise, before);
+        }
+        modified();
+    }
+
+    /*
+     * EFFECTS: tells the owning logbook, if any, that one of this session's exercises started or stopped
+     *          working the muscle types in the mask muscles
+     */
+    void musclesChanged(int muscles) {
+        if (logbook != null) {
+            logbook.musclesChanged(muscles);
+        }
+    }
+
+    /*
+     * EFFECTS: tells the owning logbook, if any, that exercise was just added to this session at position
+     */
+    private void joined(Exercise exercise, int position) {
+        if (logbook != null) {
+            logbook.exerciseAdded(this, exercise, position);
+        }
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: bumps the version and tells the owning logbook, if any, that this session changed
+     */
+    private void modified() {
+        version++;
+        if (logbook != null) {
+            logbook.sessionModified(this);
         }
-        json.put("exercises", jsonArray);
+    }
 
-        return json;
+    @Override
+    public JSONObject toJson() {
+        return snapshot().toJson();
     }
 }
\ No newline at end of file
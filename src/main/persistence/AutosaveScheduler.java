@@ -0,0 +1,154 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import model.Event;
+import model.EventLog;
+import model.Logbook;
+import model.LogbookListener;
+
+// Represents a background saver that coalesces bursts of changes to a logbook into a single save.
+// A save runs once the logbook has been quiet for quietMillis, but never later than maxDelayMillis
+// after the first unsaved change, so a steady stream of edits cannot postpone saving forever.
+// Saves run on one dedicated daemon thread, never on the caller's (e.g. the Swing event) thread.
+public class AutosaveScheduler implements LogbookListener {
+    public static final long DEFAULT_QUIET_MILLIS = 2000;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+
+    private Logbook logbook;
+    private long quietMillis;
+    private long maxDelayMillis;
+    private ScheduledExecutorService executor;
+    private LongSupplier clock;             // the current time in nanoseconds
+    private ScheduledFuture<?> pending;     // the save scheduled for the current burst, if any
+    private long firstChangeNanos;          // when the current burst started; -1 if there is none
+    private int saveCount;
+    private IOException lastError;
+
+    // EFFECTS: constructs a scheduler for logbook with the default quiet period and maximum delay
+    public AutosaveScheduler(Logbook logbook) {
+        this(logbook, DEFAULT_QUIET_MILLIS, DEFAULT_MAX_DELAY_MILLIS);
+    }
+
+    // REQUIRES: 0 <= quietMillis <= maxDelayMillis
+    // EFFECTS: constructs a scheduler for logbook that saves after quietMillis without changes,
+    // or at the latest maxDelayMillis after the first unsaved change
+    public AutosaveScheduler(Logbook logbook, long quietMillis, long maxDelayMillis) {
+        this(logbook, quietMillis, maxDelayMillis, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        }), System::nanoTime);
+    }
+
+    // REQUIRES: 0 <= quietMillis <= maxDelayMillis, executor runs one task at a time
+    // EFFECTS: constructs a scheduler for logbook like the one above that runs its saves on executor and
+    // reads the time from clock, in nanoseconds, so that tests can control both
+    AutosaveScheduler(Logbook logbook, long quietMillis, long maxDelayMillis, ScheduledExecutorService executor,
+                      LongSupplier clock) {
+        this.logbook = logbook;
+        this.quietMillis = quietMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.firstChangeNanos = -1;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    // MODIFIES: this, logbook
+    // EFFECTS: starts listening to logbook so its changes get saved
+    public void start() {
+        logbook.addListener(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: (re)schedules the save of the current burst of changes
+    @Override
+    public synchronized void logbookChanged(Logbook changed) {
+        long now = clock.getAsLong();
+        if (firstChangeNanos < 0) {
+            firstChangeNanos = now;
+        }
+
+        long untilDeadline = maxDelayMillis - TimeUnit.NANOSECONDS.toMillis(now - firstChangeNanos);
+        long delay = Math.max(0, Math.min(quietMillis, untilDeadline));
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = executor.schedule(this::runSave, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this, logbook's file
+    // EFFECTS: saves any pending changes right away on the autosave thread and waits for it to finish;
+    // throws IOException if that save fails
+    public void flush() throws IOException {
+        try {
+            executor.submit(this::runSave).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while saving", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        synchronized (this) {
+            if (lastError != null) {
+                throw lastError;
+            }
+        }
+    }
+
+    // MODIFIES: this, logbook, logbook's file
+    // EFFECTS: stops listening to logbook, saves any pending changes and stops the autosave thread;
+    // throws IOException if the final save fails
+    public void shutdown() throws IOException {
+        logbook.removeListener(this);
+        try {
+            flush();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // EFFECTS: returns how many saves actually ran
+    public synchronized int getSaveCount() {
+        return saveCount;
+    }
+
+    // EFFECTS: returns the error of the most recent save, or null if it succeeded
+    public synchronized IOException getLastError() {
+        return lastError;
+    }
+
+    // MODIFIES: this, logbook's file
+    // EFFECTS: ends the current burst and saves the logbook, remembering any error
+    private void runSave() {
+        synchronized (this) {
+            if (pending != null) {
+                pending.cancel(false);
+                pending = null;
+            }
+            firstChangeNanos = -1;
+        }
+
+        try {
+            logbook.saveLogBook();
+            recordResult(null);
+        } catch (IOException e) {
+            recordResult(e);
+            EventLog.getInstance().logEvent(new Event("Autosave failed: " + e.getMessage()));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the outcome of one save
+    private synchronized void recordResult(IOException error) {
+        saveCount++;
+        lastError = error;
+    }
+}
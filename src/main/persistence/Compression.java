@@ -0,0 +1,108 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+// Represents how a logbook file is compressed on disk. Logbook JSON repeats the same keys and
+// exercise names for every entry, so it typically shrinks several times over, at the price of
+// some CPU time on every save and load. Data is streamed through the compressor in small buffers.
+public enum Compression {
+    NONE(""),
+    GZIP(".gz"),
+    DEFLATE(".deflate");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    // EFFECTS: returns the compression implied by the extension of file, NONE if there is none
+    public static Compression forFile(String file) {
+        for (Compression compression : values()) {
+            if (compression != NONE && file.endsWith(compression.extension)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    // EFFECTS: returns a stream that compresses what is written to it into out
+    public OutputStream compress(OutputStream out) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(out, BUFFER_SIZE);
+            case DEFLATE:
+                return deflating(out);
+            default:
+                return out;
+        }
+    }
+
+    // EFFECTS: returns a stream that decompresses what is read from in
+    public InputStream decompress(InputStream in) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            case DEFLATE:
+                return inflating(in);
+            default:
+                return in;
+        }
+    }
+
+    // EFFECTS: returns a stream that deflates into out through a buffer as large as GZIP's, and releases
+    // its deflater when closed, as the GZIP stream does
+    private static OutputStream deflating(OutputStream out) {
+        Deflater deflater = new Deflater();
+        return new DeflaterOutputStream(out, deflater, BUFFER_SIZE, true) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    deflater.end();
+                }
+            }
+        };
+    }
+
+    // EFFECTS: returns a stream that inflates what is read from in through a buffer as large as GZIP's,
+    // and releases its inflater when closed
+    private static InputStream inflating(InputStream in) {
+        Inflater inflater = new Inflater();
+        return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes any compressed data still buffered in out, a stream returned by compress,
+    // without closing the underlying stream
+    public static void finish(OutputStream out) throws IOException {
+        if (out instanceof DeflaterOutputStream) {
+            ((DeflaterOutputStream) out).finish();
+        }
+        out.flush();
+    }
+}
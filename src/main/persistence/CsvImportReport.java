@@ -0,0 +1,54 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents the outcome of a CSV import: how many rows made it into the logbook,
+// and which rows were rejected and why (only the first few messages are kept)
+public class CsvImportReport {
+    private static final int MAX_PROBLEMS = 100;
+
+    private int rowsImported;
+    private int rowsRejected;
+    private int sessionsCreated;
+    private List<String> problems;
+
+    // EFFECTS: constructs an empty report
+    public CsvImportReport() {
+        this.problems = new ArrayList<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that rows rows were imported into sessions new sessions
+    void imported(int rows, int sessions) {
+        rowsImported += rows;
+        sessionsCreated += sessions;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that line number row was rejected because of reason
+    void rejected(int row, String reason) {
+        rowsRejected++;
+        if (problems.size() < MAX_PROBLEMS) {
+            problems.add("row " + row + ": " + reason);
+        }
+    }
+
+    public int getRowsImported() {
+        return rowsImported;
+    }
+
+    public int getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public int getSessionsCreated() {
+        return sessionsCreated;
+    }
+
+    // EFFECTS: returns messages describing the first rejected rows
+    public List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+}
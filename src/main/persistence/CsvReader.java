@@ -0,0 +1,201 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.SessionDates;
+import model.WorkoutSession;
+
+// Represents a reader that imports exercises from a CSV file with one exercise per row:
+//     date,exercise,muscle,weight,sets,reps
+// where an exercise working several muscle types lists them joined by '+', the main one first (e.g. LEGS+BACK).
+// A field in double quotes may hold commas and line breaks, so a row can span several lines.
+// Rows are streamed in and handed to the logbook in batches, grouped by date, so memory use does not
+// depend on the size of the file. Malformed rows are reported and skipped without aborting the import.
+public class CsvReader {
+    public static final String HEADER = "date,exercise,muscle,weight,sets,reps";
+    private static final int BATCH_SIZE = 10000;
+    private static final int FIELDS = 6;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ROW_CHARS = 64 * 1024;    // longest row read while a quoted field is open
+
+    private String source;
+    private Map<String, List<Exercise>> batch;  // rows of the current batch grouped by date, in file order
+    private Map<String, String> dates;          // raw date -> normalized date, for the current batch
+    private int batchRows;
+    private int lines;                          // lines read so far
+    private int row;                            // number of the first line of the row read last
+
+    // EFFECTS: constructs reader to import from source file; files ending in .gz or .deflate are decompressed
+    public CsvReader(String source) {
+        this.source = source;
+    }
+
+    // MODIFIES: logbook
+    // EFFECTS: adds the exercises of every well-formed row to the session of its date in logbook,
+    // creating sessions as needed, and returns what was imported and rejected;
+    // throws IOException if an error occurs reading data from file
+    public CsvImportReport importInto(Logbook logbook) throws IOException {
+        CsvImportReport report = new CsvImportReport();
+        batch = new LinkedHashMap<>();
+        dates = new HashMap<>();
+        batchRows = 0;
+        lines = 0;
+
+        try (BufferedReader reader = openReader()) {
+            String line;
+            while ((line = readRow(reader)) != null) {
+                if ((row == 1 && line.trim().equalsIgnoreCase(HEADER)) || line.isBlank()) {
+                    continue;
+                }
+                parseRow(line, row, report);
+                if (batchRows == BATCH_SIZE) {
+                    flush(logbook, report);
+                }
+            }
+        }
+        flush(logbook, report);
+        return report;
+    }
+
+    // EFFECTS: opens source for reading, decompressing it as its extension says
+    private BufferedReader openReader() throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(source)), BUFFER_SIZE);
+        return new BufferedReader(new InputStreamReader(Compression.forFile(source).decompress(in),
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next row of reader, joining the lines of a quoted field that holds line breaks
+    // (up to MAX_ROW_CHARS, past which the row is left unclosed), or null at the end of the file
+    private String readRow(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        row = ++lines;
+        while (splitRow(line) == null && line.length() < MAX_ROW_CHARS) {
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            lines++;
+            line = line + '\n' + next;
+        }
+        return line;
+    }
+
+    // MODIFIES: this, report
+    // EFFECTS: adds the exercise on line (line number row) to the current batch, or reports why it is malformed
+    private void parseRow(String line, int row, CsvImportReport report) {
+        List<String> fields = splitRow(line);
+        if (fields == null || fields.size() != FIELDS) {
+            report.rejected(row, "expected " + FIELDS + " comma separated fields");
+            return;
+        }
+
+        try {
+            String date = dates.computeIfAbsent(fields.get(0), CsvReader::normalizeDate);
+            String name = fields.get(1).trim();
+            if (date == null || name.isEmpty()) {
+                report.rejected(row, date == null ? "date is not yyyy/mm/dd" : "exercise name is empty");
+                return;
+            }
+            Exercise exercise = parseExercise(name, fields);
+            batch.computeIfAbsent(date, d -> new ArrayList<>()).add(exercise);
+            batchRows++;
+        } catch (IllegalArgumentException e) {
+            report.rejected(row, e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns the exercise called name in the muscle, weight, sets and reps fields of a row;
+    // throws IllegalArgumentException if a muscle type or count is not valid
+    private static Exercise parseExercise(String name, List<String> fields) {
+        String[] muscles = fields.get(2).split("\\+");
+        Muscles muscle = Muscles.valueOf(muscles[0].trim().toUpperCase());
+        int others = 0;
+        for (int i = 1; i < muscles.length; i++) {
+            others |= Muscles.valueOf(muscles[i].trim().toUpperCase()).bit();
+        }
+        return Exercise.restore(name, muscle, others, parseCount(fields.get(3)), parseCount(fields.get(4)),
+                parseCount(fields.get(5)));
+    }
+
+    // MODIFIES: this, logbook, report
+    // EFFECTS: hands the current batch to logbook: rows of a date that already has a session are appended
+    // to it, the rest become new sessions added in one go; then starts an empty batch
+    private void flush(Logbook logbook, CsvImportReport report) {
+        List<WorkoutSession> created = new ArrayList<>();
+        for (Map.Entry<String, List<Exercise>> group : batch.entrySet()) {
+            WorkoutSession existing = logbook.getSessionByDate(group.getKey());
+            if (existing != null) {
+                existing.addExercises(group.getValue());
+            } else {
+                created.add(WorkoutSession.restore(group.getKey(), group.getValue()));
+            }
+        }
+
+        if (!created.isEmpty()) {
+            logbook.addSessions(created);
+        }
+        report.imported(batchRows, created.size());
+        batch.clear();
+        dates.clear();
+        batchRows = 0;
+    }
+
+    // EFFECTS: splits line into its fields, honouring double quotes around fields that contain commas;
+    // returns null if a quoted field is not closed
+    static List<String> splitRow(String line) {
+        List<String> fields = new ArrayList<>(FIELDS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted && c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                field.append('"');
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return quoted ? null : fields;
+    }
+
+    // EFFECTS: returns raw ("yyyy/mm/dd" or "yyyy-mm-dd") in the canonical form of session dates, a zero-padded
+    // "yyyy/mm/dd", or null if it is not a calendar date of that form
+    static String normalizeDate(String raw) {
+        String date = raw.trim().replace('-', '/');
+        return SessionDates.isDate(date) ? SessionDates.canonical(date) : null;
+    }
+
+    // EFFECTS: returns field as a non-negative number; throws IllegalArgumentException if it is not one
+    private static int parseCount(String field) {
+        int value = Integer.parseInt(field.trim());
+        if (value < 0) {
+            throw new IllegalArgumentException("negative value " + value);
+        }
+        return value;
+    }
+}
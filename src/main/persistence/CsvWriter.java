@@ -0,0 +1,78 @@
+package persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import model.ExerciseSnapshot;
+import model.Logbook;
+import model.Muscles;
+import model.SessionSnapshot;
+
+// Represents a writer that exports a logbook as CSV with one exercise per row, in the layout
+// CsvReader imports; rows are streamed out so the export never builds the whole file in memory
+public class CsvWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private String destination;
+
+    // EFFECTS: constructs writer to export to destination file; files ending in .gz or .deflate are compressed
+    public CsvWriter(String destination) {
+        this.destination = destination;
+    }
+
+    // EFFECTS: writes a header and one row per exercise of logbook, in session order, and returns
+    // the number of rows written; the rows come from a snapshot, so the logbook can be edited meanwhile;
+    // throws IOException if an error occurs writing data to file
+    public int write(Logbook logbook) throws IOException {
+        int rows = 0;
+        OutputStream out = Compression.forFile(destination).compress(Files.newOutputStream(Paths.get(destination)));
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CsvReader.HEADER);
+            writer.write('\n');
+            for (SessionSnapshot session : logbook.snapshot().getSessions()) {
+                for (ExerciseSnapshot exercise : session.getExercises()) {
+                    writeRow(writer, session.getDate(), exercise);
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes exercise done on date as one row
+    private void writeRow(Writer writer, String date, ExerciseSnapshot exercise) throws IOException {
+        writer.write(quote(date));
+        writer.write(',');
+        writer.write(quote(exercise.getExerciseName()));
+        writer.write(',');
+        writer.write(exercise.getMuscleType().name());
+        for (Muscles muscle : exercise.getMuscles()) {
+            if (muscle != exercise.getMuscleType()) {
+                writer.write('+');
+                writer.write(muscle.name());
+            }
+        }
+        writer.write(',');
+        writer.write(Integer.toString(exercise.getWeightLifted()));
+        writer.write(',');
+        writer.write(Integer.toString(exercise.getNumSets()));
+        writer.write(',');
+        writer.write(Integer.toString(exercise.getNumReps()));
+        writer.write('\n');
+    }
+
+    // EFFECTS: returns field, wrapped in double quotes if it contains a comma, quote or line break
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,46 @@
+package persistence;
+
+// Represents when a save forces its data to the storage device before it replaces the old file:
+// on every save (slowest, nothing acknowledged is ever lost), on every n-th save (a crash can lose
+// up to n - 1 saves), or never (fastest, leaves flushing entirely to the operating system)
+public class FsyncPolicy {
+    private int interval;       // force every interval-th save; 0 means never
+    private int unsyncedSaves;  // saves since the last forced one
+
+    // REQUIRES: interval >= 0
+    // EFFECTS: constructs a policy that forces every interval-th save, or never if interval is 0
+    private FsyncPolicy(int interval) {
+        this.interval = interval;
+    }
+
+    // EFFECTS: returns a policy that forces every save
+    public static FsyncPolicy everySave() {
+        return new FsyncPolicy(1);
+    }
+
+    // REQUIRES: saves > 0
+    // EFFECTS: returns a policy that forces only every saves-th save
+    public static FsyncPolicy batched(int saves) {
+        return new FsyncPolicy(saves);
+    }
+
+    // EFFECTS: returns a policy that never forces a save
+    public static FsyncPolicy never() {
+        return new FsyncPolicy(0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records one more save and returns true if it has to be forced to the device
+    public synchronized boolean shouldSync() {
+        if (interval == 0) {
+            return false;
+        }
+
+        unsyncedSaves++;
+        if (unsyncedSaves >= interval) {
+            unsyncedSaves = 0;
+            return true;
+        }
+        return false;
+    }
+}
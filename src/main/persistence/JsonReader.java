@@ -1,39 +1,226 @@
 package persistence;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import metrics.Counter;
+import metrics.MetricsRegistry;
+import metrics.Timer;
 import model.Exercise;
 import model.WorkoutSession;
 import model.Muscles;
+import model.SetLog;
 
 // Referenced from JsonSerialization Demo
 // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
-// Represents a reader that reads logs from JSON data stored in file
+// Represents a reader that reads logs from JSON data stored in file.
+// Files ending in .gz or .deflate are decompressed on the fly.
+// Every layout listed in LogbookFormat can be read; the layout is detected once per file.
+// With a parallelism above 1, an uncompressed file is cut into chunks of whole sessions that are parsed
+// on that many threads. Anything the chunks cannot reproduce exactly (a legacy file, a syntax or content
+// error) is read again sequentially, so the sessions and errors are always those of the sequential read.
 public class JsonReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MIN_CHUNK_BYTES = 256 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final Pattern ERROR_INDEX = Pattern.compile(" at (\\d+) \\[character");
+    private static final Timer READ_TIMER = MetricsRegistry.getInstance().timer("persistence.read");
+    private static final Counter FALLBACKS = MetricsRegistry.getInstance().counter("persistence.read.fallbacks");
+
     private String source;
+    private Compression compression;
+    private long bytesRead;     // size of the file read last
+    private int parallelism = 1;
+    private long chunkBytes;    // bytes per chunk of a parallel read, 0 to size chunks from the file
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
         this.source = source;
+        this.compression = Compression.forFile(source);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: overrides the compression implied by the file extension
+    public void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    // REQUIRES: parallelism >= 1
+    // MODIFIES: this
+    // EFFECTS: sets how many threads parse a file; 1 parses it sequentially as it is streamed in
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets how many bytes of sessions each chunk of a parallel read holds at least,
+    // 0 to size chunks from the file and the parallelism
+    void setChunkBytes(long chunkBytes) {
+        this.chunkBytes = chunkBytes;
+    }
+
+    // EFFECTS: returns the bytes (before decompression) of the file read last
+    public long getBytesRead() {
+        return bytesRead;
     }
 
     // EFFECTS: reads logbook from file and return it as a list of sessions;
-    // throws IOException if an error occurs reading data from file
+    // the file is parsed as it is streamed in rather than read into one string first, or in parallel
+    // chunks if this reader's parallelism allows it;
+    // throws MalformedLogbookException if the file is not valid JSON or its sessions are malformed, and
+    // IOException if an error occurs reading data from file or its layout is unknown
     public List<WorkoutSession> read() throws IOException {
-        String jsonData = readFile(source);
+        long start = READ_TIMER.start();
+        try {
+            bytesRead = Files.size(Paths.get(source));
+            List<WorkoutSession> sessions = null;
+            if (parallelism > 1 && compression == Compression.NONE) {
+                sessions = readInParallel();
+            }
+            return sessions != null ? sessions : readSequentially();
+        } finally {
+            READ_TIMER.stop(start);
+        }
+    }
+
+    // EFFECTS: reads logbook from file as it is streamed in and returns it as a list of sessions;
+    // throws MalformedLogbookException if the file is not valid JSON or its sessions are malformed, and
+    // IOException if an error occurs reading data from file or its layout is unknown
+    private List<WorkoutSession> readSequentially() throws IOException {
+        Object root;
+        try (Reader reader = openReader(source)) {
+            root = new JSONTokener(reader).nextValue();
+        } catch (JSONException e) {
+            throw new MalformedLogbookException(e.getMessage(), syntaxErrorOffset(e), e);
+        }
+        switch (LogbookFormat.detect(root)) {
+            case LEGACY:
+                return parseLegacyLogbook((JSONArray) root);
+            case ARRAY:
+                return parseLogbook((JSONArray) root);
+            default:
+                return parseLogbook(((JSONObject) root).getJSONArray("sessions"));
+        }
+    }
 
-        JSONArray jsonArray = new JSONArray(jsonData);
-        
-        return parseLogbook(jsonArray);
+    // EFFECTS: reads logbook from file in chunks of whole sessions parsed on parallelism threads and returns
+    // it as a list of sessions, or returns null if it must be read sequentially instead;
+    // throws IOException if an error occurs reading data from file
+    private List<WorkoutSession> readInParallel() throws IOException {
+        SessionArrayLayout layout;
+        try (InputStream in = openStream(source)) {
+            long minGap = chunkBytes > 0 ? chunkBytes : Math.max(MIN_CHUNK_BYTES,
+                    bytesRead / ((long) parallelism * CHUNKS_PER_THREAD));
+            layout = SessionArrayLayout.scan(in, minGap);
+        }
+        if (layout != null && !layout.getElementStarts().isEmpty()) {
+            try (FileChannel channel = FileChannel.open(Paths.get(source))) {
+                if (!layout.isWrapped() || hasHeader(channel, layout)) {
+                    return parseChunks(channel, layout);
+                }
+            } catch (RuntimeException e) {
+                // a chunk failed to parse; the sequential read reports the error
+            }
+        }
+        FALLBACKS.increment();
+        return null;
+    }
+
+    // EFFECTS: returns true if everything of the root object in channel except its session array is
+    // a header of the current layout
+    private static boolean hasHeader(FileChannel channel, SessionArrayLayout layout) throws IOException {
+        String header = readRange(channel, layout.getRootStart(), layout.getArrayStart()) + "[]"
+                + readRange(channel, layout.getArrayEnd() + 1, layout.getRootEnd());
+        try {
+            return LogbookFormat.detect(new JSONObject(header)) == LogbookFormat.HEADER;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: parses the session array laid out in channel as layout says, one chunk per element start
+    // kept, on parallelism threads, and returns its sessions in order;
+    // throws RuntimeException if any chunk cannot be parsed
+    private List<WorkoutSession> parseChunks(FileChannel channel, SessionArrayLayout layout) {
+        List<Long> bounds = new ArrayList<>(layout.getElementStarts());
+        bounds.set(0, layout.getArrayStart() + 1);
+        bounds.add(layout.getArrayEnd());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<List<WorkoutSession>>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.size(); i++) {
+                long from = bounds.get(i);
+                long to = bounds.get(i + 1);
+                boolean last = i + 2 == bounds.size();
+                chunks.add(pool.submit(() -> parseChunk(channel, from, to, last)));
+            }
+            List<WorkoutSession> sessions = new ArrayList<>();
+            for (ForkJoinTask<List<WorkoutSession>> chunk : chunks) {
+                sessions.addAll(chunk.join());
+            }
+            return sessions;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // EFFECTS: parses the sessions in bytes [from, to) of channel, which end with the comma before the
+    // next chunk unless last is true, and returns them in order;
+    // throws JSONException if they are not sessions separated by commas, or are legacy entries
+    private List<WorkoutSession> parseChunk(FileChannel channel, long from, long to, boolean last)
+            throws IOException {
+        String text = readRange(channel, from, to).trim();
+        if (!last) {
+            if (!text.endsWith(",")) {
+                throw new JSONException("Chunk does not end between sessions");
+            }
+            text = text.substring(0, text.length() - 1);
+        }
+        JSONArray array = new JSONArray("[" + text + "]");
+        List<WorkoutSession> sessions = new ArrayList<>(array.length());
+        for (Object json : array) {
+            JSONObject sessionJson = (JSONObject) json;
+            if (sessionJson.has("exercise")) {
+                throw new JSONException("Legacy entries are read sequentially");
+            }
+            sessions.add(parseWorkoutSession(sessionJson));
+        }
+        return sessions;
+    }
+
+    // EFFECTS: returns bytes [from, to) of channel decoded as UTF-8;
+    // throws IOException if they cannot be read
+    private static String readRange(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(to - from));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, from + buffer.position()) < 0) {
+                throw new EOFException("Logbook file ended early");
+            }
+        }
+        return new String(buffer.array(), StandardCharsets.UTF_8);
     }
 
     // EFFECTS: reads source file as string and returns it;
@@ -41,55 +228,131 @@ public class JsonReader {
     public String readFile(String source) throws IOException {
         StringBuilder contentBuilder = new StringBuilder();
 
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+        try (BufferedReader reader = openReader(source)) {
+            reader.lines().forEach(s -> contentBuilder.append(s));
         }
 
         return contentBuilder.toString();
     }
 
-    // EFFECTS: parses logbook from JSON array and return it as a list of sessions
-    private List<WorkoutSession> parseLogbook(JSONArray jsonArray) {
+    // EFFECTS: opens source for reading, decompressing it as this reader's compression says
+    private BufferedReader openReader(String source) throws IOException {
+        return new BufferedReader(new InputStreamReader(openStream(source), StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // EFFECTS: opens the bytes of source, decompressed as this reader's compression says
+    private InputStream openStream(String source) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(source)), BUFFER_SIZE);
+        try {
+            return compression.decompress(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    // EFFECTS: returns the byte offset in the (decompressed) file at which the parser stopped with the
+    // syntax error e, or -1 if e does not say;
+    // throws IOException if an error occurs reading data from file
+    private long syntaxErrorOffset(JSONException e) throws IOException {
+        Matcher matcher = ERROR_INDEX.matcher(String.valueOf(e.getMessage()));
+        if (!matcher.find()) {
+            return -1;
+        }
+        long chars = Long.parseLong(matcher.group(1));
+        long offset = 0;
+        try (Reader reader = openReader(source)) {
+            int c;
+            for (long i = 0; i < chars && (c = reader.read()) >= 0; i++) {
+                offset += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate((char) c) ? 2 : 3;
+            }
+        }
+        return offset;
+    }
+
+    // EFFECTS: returns an exception for the malformed element at index of the session array in file,
+    // caused by cause;
+    // throws IOException if an error occurs reading data from file
+    private MalformedLogbookException malformedElement(int index, RuntimeException cause) throws IOException {
+        long offset = -1;
+        try (InputStream in = openStream(source)) {
+            SessionArrayLayout layout = SessionArrayLayout.scan(in, 0);
+            if (layout != null && index < layout.getElementStarts().size()) {
+                offset = layout.getElementStarts().get(index);
+            }
+        }
+        return new MalformedLogbookException("Entry " + index + " of the logbook is malformed: "
+                + cause.getMessage(), offset, cause);
+    }
+
+    // EFFECTS: parses logbook from JSON array and return it as a list of sessions;
+    // throws MalformedLogbookException if an entry is not a session
+    private List<WorkoutSession> parseLogbook(JSONArray jsonArray) throws IOException {
         List<WorkoutSession> sessions = new ArrayList<>();
 
-        for (Object json : jsonArray) {
-            JSONObject sessionJson = (JSONObject) json;
-            WorkoutSession session = parseWorkoutSession(sessionJson);
-            sessions.add(session);
+        for (int i = 0; i < jsonArray.length(); i++) {
+            try {
+                sessions.add(parseWorkoutSession((JSONObject) jsonArray.get(i)));
+            } catch (JSONException | ClassCastException | IllegalArgumentException e) {
+                throw malformedElement(i, e);
+            }
         }
 
         return sessions;
     }
 
+    // EFFECTS: parses a logbook in the legacy layout, one exercise per entry, and returns it as a list
+    // of sessions; entries with the same date are merged into one session, in order of first appearance;
+    // throws MalformedLogbookException if an entry is not an exercise with a date
+    private List<WorkoutSession> parseLegacyLogbook(JSONArray jsonArray) throws IOException {
+        Map<String, List<Exercise>> exercisesByDate = new LinkedHashMap<>();
+
+        for (int i = 0; i < jsonArray.length(); i++) {
+            try {
+                JSONObject entryJson = (JSONObject) jsonArray.get(i);
+                Exercise exercise = parseExercise(entryJson.getJSONObject("exercise"), "number of sets");
+                exercisesByDate.computeIfAbsent(entryJson.getString("date"), d -> new ArrayList<>()).add(exercise);
+            } catch (JSONException | ClassCastException | IllegalArgumentException e) {
+                throw malformedElement(i, e);
+            }
+        }
+
+        List<WorkoutSession> sessions = new ArrayList<>();
+        for (Map.Entry<String, List<Exercise>> entry : exercisesByDate.entrySet()) {
+            sessions.add(WorkoutSession.restore(entry.getKey(), entry.getValue()));
+        }
+        return sessions;
+    }
+
     // EFFECTS: parses a single WorkoutSession from JSONObject
     private WorkoutSession parseWorkoutSession(JSONObject sessionJson) {
         String date = sessionJson.getString("date");
-        WorkoutSession session = new WorkoutSession(date);
-
-        JSONArray exerciseArray = sessionJson.getJSONArray("exercises");
-        addExerciseToSession(session, exerciseArray);
+        JSONArray exercisesArray = sessionJson.getJSONArray("exercises");
 
-        return session;
-    }
-    
-    // MODIFIES: session
-    // EFFECTS: parses exercieses from JSONArray and adds them to the workout session
-    private void addExerciseToSession(WorkoutSession session, JSONArray exercisesArray) {
+        List<Exercise> exercises = new ArrayList<>(exercisesArray.length());
         for (Object exJson : exercisesArray) {
-            JSONObject exerciseJson = (JSONObject) exJson;
-            Exercise exercise = parseExercise(exerciseJson);
-            session.addExercise(exercise);
+            exercises.add(parseExercise((JSONObject) exJson, "number of Sets"));
         }
+
+        return WorkoutSession.restore(date, exercises);
     }
 
-    // EFFECTS: parses a single Exercise from a JSONObject
-    private Exercise parseExercise(JSONObject exerciseJson) {
+    // EFFECTS: parses a single Exercise from a JSONObject whose number of sets is stored under setsKey;
+    // the mask of the other muscle types it works, "muscles", is only there when it works more than one,
+    // and its "set log" only when its sets were logged one by one
+    private Exercise parseExercise(JSONObject exerciseJson, String setsKey) {
         String exerciseName = exerciseJson.getString("exercise name");
         Muscles muscleType = Muscles.valueOf(exerciseJson.getString("muscle Type"));
+        int muscles = exerciseJson.optInt("muscles", 0);
         int weightLifted = exerciseJson.getInt("weight");
-        int numSets = exerciseJson.getInt("number of Sets");
+        int numSets = exerciseJson.getInt(setsKey);
         int numReps = exerciseJson.getInt("number of Repetitions");
 
-        return new Exercise(exerciseName, muscleType, weightLifted, numSets, numReps);
+        Exercise exercise = Exercise.restore(exerciseName, muscleType, muscles, weightLifted, numSets, numReps);
+        JSONArray sets = exerciseJson.optJSONArray("set log");
+        if (sets != null) {
+            exercise.setSets(SetLog.fromJson(sets));
+        }
+        return exercise;
     }
 }
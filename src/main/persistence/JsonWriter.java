@@ -1,50 +1,198 @@
 package persistence;
 
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-
-import java.io.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.SecureRandom;
 
 import org.json.JSONArray;
+import org.json.JSONException;
 
 // Referenced from JsonSerialization Demo
 // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
 
-// Represents a writer that write all logs into JSON file
+// Represents a writer that write all logs into JSON file.
+// The logs are written to a temporary file next to the destination, forced to disk according to the
+// fsync policy and then renamed over the destination, so a crash mid-save never leaves a truncated file.
+// Files ending in .gz or .deflate are compressed on the fly.
 public class JsonWriter {
     private static final int TAB = 4;
-    private PrintWriter writer;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final SecureRandom TEMP_NAMES = new SecureRandom();
+
     private String directory;
+    private FsyncPolicy fsyncPolicy;
+    private Compression compression;
+    private Path target;
+    private Path temp;
+    private FileChannel channel;
+    private OutputStream compressed;
+    private Writer writer;
+    private long bytesWritten;      // size of the file written by the last successful close
 
-    // EFFECTS: constructs writer to write a file to directory
+    // EFFECTS: constructs writer to write a file to directory, forcing every save to disk
     public JsonWriter(String directory) {
+        this(directory, FsyncPolicy.everySave());
+    }
+
+    // EFFECTS: constructs writer to write a file to directory, forcing saves to disk as fsyncPolicy says
+    public JsonWriter(String directory, FsyncPolicy fsyncPolicy) {
         this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.compression = Compression.forFile(directory);
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    // EFFECTS: returns the bytes (after compression) of the file written by the last successful close
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: overrides the compression implied by the file extension
+    public void setCompression(Compression compression) {
+        this.compression = compression;
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
-    // be opened for writing
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(directory));
+    // EFFECTS: opens writer on a temporary file next to the destination; the destination itself is not
+    // touched until close; throws IOException if the temporary file cannot be created
+    public void open() throws IOException {
+        try {
+            target = Paths.get(directory).toAbsolutePath();
+        } catch (InvalidPathException e) {
+            throw new FileNotFoundException(directory + " (" + e.getReason() + ")");
+        }
+
+        temp = createTemp(target);
+        channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+        try {
+            compressed = compression.compress(Channels.newOutputStream(channel));
+        } catch (IOException e) {
+            discard();
+            throw e;
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(compressed, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // EFFECTS: creates and returns an empty temporary file next to target, with the permissions of target if
+    // it exists and the default permissions for a new file (as the umask leaves them) otherwise, so that the
+    // rename over target does not change who may read the logbook; throws IOException if it cannot be created
+    private static Path createTemp(Path target) throws IOException {
+        Path created = null;
+        while (created == null) {
+            Path candidate = target.resolveSibling("." + target.getFileName() + "."
+                    + Long.toUnsignedString(TEMP_NAMES.nextLong()) + ".tmp");
+            try {
+                created = Files.createFile(candidate);
+            } catch (FileAlreadyExistsException e) {
+                // another save picked the same name; pick again
+            }
+        }
+        boolean posix = Files.getFileStore(created).supportsFileAttributeView(PosixFileAttributeView.class);
+        if (posix && Files.exists(target)) {
+            Files.setPosixFilePermissions(created, Files.getPosixFilePermissions(target));
+        }
+        return created;
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of logs to file
-    public void write(JSONArray jsonArrLog) {
-        // JSONArray jsonArrLog = new JSONArray();
-        // jsonArrLog.put(log.toJson());
-        saveToFile(jsonArrLog.toString(TAB));
+    // EFFECTS: writes JSON representation of logs to the temporary file;
+    // throws IOException (and discards the temporary file) if the data cannot be written
+    public void write(JSONArray jsonArrLog) throws IOException {
+        try {
+            jsonArrLog.write(writer, TAB, 0);
+        } catch (JSONException e) {
+            discard();
+            throw unwrap(e);
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: writes sessions (JSON of workout sessions) under a header naming the current logbook
+    // format and its version to the temporary file; the header comes first so the layout is known
+    // before any session is read; throws IOException (and discards the temporary file) if the data
+    // cannot be written
+    public void writeLogbook(JSONArray sessions) throws IOException {
+        try {
+            writer.write("{\n    \"format\": \"" + LogbookFormat.FORMAT_NAME + "\",\n");
+            writer.write("    \"version\": " + LogbookFormat.CURRENT.getVersion() + ",\n    \"sessions\": ");
+            sessions.write(writer, TAB, TAB);
+            writer.write("\n}");
+        } catch (IOException e) {
+            discard();
+            throw e;
+        } catch (JSONException e) {
+            discard();
+            throw unwrap(e);
+        }
+    }
+
+    // EFFECTS: returns the IOException behind e, or e wrapped in one
+    private static IOException unwrap(JSONException e) {
+        return e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+    }
+
+    // MODIFIES: this, destination file
+    // EFFECTS: flushes the temporary file, forces it to disk if the fsync policy asks for it and
+    // atomically renames it over the destination; throws IOException (and keeps the old destination)
+    // if any of these steps fail
+    public void close() throws IOException {
+        try {
+            boolean sync = fsyncPolicy.shouldSync();
+            writer.flush();
+            Compression.finish(compressed);
+            if (sync) {
+                channel.force(true);
+            }
+            long size = channel.size();
+            writer.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            bytesWritten = size;
+            if (sync) {
+                syncDirectory();
+            }
+        } catch (IOException e) {
+            discard();
+            throw e;
+        }
+    }
+
+    // EFFECTS: forces the rename into the destination's directory entry to disk where the platform allows
+    // opening a directory; elsewhere the rename is as durable as the file system makes it
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(target.getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened for syncing on every platform; the file itself is already forced
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: writies string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: closes and deletes the temporary file after a failed save
+    private void discard() {
+        try {
+            channel.close();
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            // the failure that caused the discard is the one worth reporting
+        }
     }
 }
@@ -0,0 +1,55 @@
+package persistence;
+
+import java.io.IOException;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+// Represents the on-disk layouts a logbook file has had. The layout of a file is detected once from its
+// top-level value, and the whole file is then decoded by the decoder of that layout:
+//  - LEGACY: a bare array with one "exercise" object per entry and a lowercase "number of sets" key;
+//            a session with several exercises is spread over several entries with the same date
+//  - ARRAY:  a bare array of sessions, each with an "exercises" array
+//  - HEADER: an object {"format": "fitness-record", "version": 2, "sessions": [...]} whose sessions
+//            are laid out as in ARRAY
+public enum LogbookFormat {
+    LEGACY(0),
+    ARRAY(1),
+    HEADER(2);
+
+    public static final LogbookFormat CURRENT = HEADER;
+    public static final String FORMAT_NAME = "fitness-record";
+
+    private final int version;
+
+    LogbookFormat(int version) {
+        this.version = version;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    // EFFECTS: returns the layout of a logbook file whose top-level JSON value is root;
+    // throws IOException if root is not a logbook or was written by a newer, unknown version
+    public static LogbookFormat detect(Object root) throws IOException {
+        if (root instanceof JSONObject) {
+            JSONObject header = (JSONObject) root;
+            if (!FORMAT_NAME.equals(header.optString("format")) || !header.has("sessions")) {
+                throw new IOException("Not a logbook file");
+            }
+            int version = header.optInt("version", -1);
+            if (version != HEADER.version) {
+                throw new IOException("Unsupported logbook version " + version);
+            }
+            return HEADER;
+        }
+        if (root instanceof JSONArray) {
+            JSONArray entries = (JSONArray) root;
+            boolean legacy = !entries.isEmpty() && entries.optJSONObject(0) != null
+                    && entries.getJSONObject(0).has("exercise");
+            return legacy ? LEGACY : ARRAY;
+        }
+        throw new IOException("Not a logbook file");
+    }
+}
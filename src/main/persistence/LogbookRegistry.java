@@ -0,0 +1,246 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import model.Event;
+import model.EventLog;
+import model.Logbook;
+
+// Represents the logbooks of many users, one file per user in a directory, of which only the recently used
+// ones are kept in memory. A logbook is opened the first time its user needs it; once more than maxResident
+// logbooks are open, or their estimated size exceeds the memory budget, the least recently used ones that
+// nobody is using are saved and dropped. A user's logbook is only ever used by one caller at a time.
+public class LogbookRegistry {
+    // rough heap cost of a session and of an exercise, including their share of the date index
+    static final long SESSION_BYTES = 250;
+    static final long EXERCISE_BYTES = 150;
+    // rough heap cost of the JSON of a session and of an exercise kept from the last save
+    static final long SAVED_SESSION_BYTES = 150;
+    static final long SAVED_EXERCISE_BYTES = 150;
+    // rough heap cost of a change, session or exercise kept for undo, and of a cached query result and
+    // each session or exercise it holds
+    static final long JOURNAL_BYTES = 300;
+    static final long QUERY_BYTES = 200;
+    static final long QUERY_ITEM_BYTES = 16;
+
+    private static final Pattern USER_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private String directory;
+    private int maxResident;
+    private long memoryBudget;
+    private LinkedHashMap<String, Entry> resident;  // in least to most recently used order
+    private Map<String, Entry> closing;             // evicted but still being saved
+    private long estimatedBytes;                    // sum of the estimates of the resident logbooks
+
+    // REQUIRES: maxResident > 0, memoryBudget > 0
+    // EFFECTS: constructs an empty registry of the logbooks stored in directory, keeping at most maxResident
+    // of them, and no more than about memoryBudget bytes of them, in memory
+    public LogbookRegistry(String directory, int maxResident, long memoryBudget) {
+        this.directory = directory;
+        this.maxResident = maxResident;
+        this.memoryBudget = memoryBudget;
+        this.resident = new LinkedHashMap<>(16, 0.75f, true);
+        this.closing = new HashMap<>();
+    }
+
+    // MODIFIES: this, files in directory
+    // EFFECTS: runs action on the logbook of user, opening it first if it is not in memory, and returns
+    // its result; no other caller uses that logbook meanwhile; afterwards evicts logbooks as needed to stay
+    // within the limits; action must not use the registry itself.
+    // Throws IllegalArgumentException if user is not made of letters, digits, '_' and '-' only, and
+    // IOException if the logbook cannot be read or action throws it
+    public <T> T withLogbook(String user, Action<T> action) throws IOException {
+        Entry entry = acquire(user);
+        try {
+            synchronized (entry) {
+                entry.open();
+                T result = action.apply(entry.logbook);
+                entry.estimate = estimate(entry.logbook);
+                return result;
+            }
+        } finally {
+            release(entry);
+        }
+    }
+
+    // MODIFIES: files in directory
+    // EFFECTS: saves every logbook in memory that has unsaved changes; throws IOException if any save fails,
+    // after attempting all of them
+    public void flushAll() throws IOException {
+        IOException failure = null;
+        for (Entry entry : snapshot()) {
+            try {
+                entry.save();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: returns true if the logbook of user is in memory
+    public synchronized boolean isResident(String user) {
+        return resident.containsKey(user);
+    }
+
+    // EFFECTS: returns the users whose logbooks are in memory, least recently used first
+    public synchronized List<String> getResidentUsers() {
+        return new ArrayList<>(resident.keySet());
+    }
+
+    // EFFECTS: returns the estimated heap bytes of the logbooks in memory
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the entry of user, reviving it if it is still being saved after an eviction,
+    // and marks it in use
+    private synchronized Entry acquire(String user) {
+        if (!USER_ID.matcher(user).matches()) {
+            throw new IllegalArgumentException("Invalid user id: " + user);
+        }
+
+        Entry entry = resident.get(user);
+        if (entry == null) {
+            entry = closing.remove(user);
+            if (entry == null) {
+                entry = new Entry(user, Paths.get(directory, user + ".json").toString());
+            }
+            resident.put(user, entry);
+            estimatedBytes += entry.counted;
+        }
+        entry.users++;
+        return entry;
+    }
+
+    // MODIFIES: this, files in directory
+    // EFFECTS: marks entry no longer in use by the caller, then saves and drops least recently used
+    // logbooks that are not in use until the registry is within its limits
+    private void release(Entry entry) {
+        for (Entry victim : releaseAndPickVictims(entry)) {
+            try {
+                victim.save();
+                evicted(victim);
+            } catch (IOException e) {
+                keep(victim);
+                EventLog.getInstance().logEvent(new Event("Unable to save logbook of " + victim.user
+                        + ", keeping it in memory: " + e.getMessage()));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks entry no longer in use, then removes from memory and returns the least recently used
+    // entries not in use until the registry is within its limits
+    private synchronized List<Entry> releaseAndPickVictims(Entry entry) {
+        entry.users--;
+        estimatedBytes += entry.estimate - entry.counted;
+        entry.counted = entry.estimate;
+
+        List<Entry> victims = new ArrayList<>();
+        Iterator<Entry> lru = resident.values().iterator();
+        while ((resident.size() > maxResident || estimatedBytes > memoryBudget) && lru.hasNext()) {
+            Entry candidate = lru.next();
+            if (candidate.users == 0) {
+                lru.remove();
+                estimatedBytes -= candidate.counted;
+                closing.put(candidate.user, candidate);
+                victims.add(candidate);
+            }
+        }
+        return victims;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets victim once it is saved, unless its user came back for it meanwhile
+    private synchronized void evicted(Entry victim) {
+        closing.remove(victim.user, victim);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts victim, which could not be saved, back among the logbooks in memory
+    private synchronized void keep(Entry victim) {
+        if (closing.remove(victim.user, victim)) {
+            resident.put(victim.user, victim);
+            estimatedBytes += victim.counted;
+        }
+    }
+
+    // EFFECTS: returns the entries in memory
+    private synchronized List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>(resident.values());
+        entries.addAll(closing.values());
+        return entries;
+    }
+
+    // EFFECTS: returns the estimated heap bytes of logbook: its sessions and exercises, the JSON kept from
+    // the last save (taking saved sessions to hold as many exercises as the average session), the edits
+    // kept for undo and the cached query results
+    static long estimate(Logbook logbook) {
+        long sessions = logbook.getSessionCount();
+        long exercises = logbook.getExerciseCount();
+        long saved = logbook.getCachedJsonCount();
+        long savedExercises = sessions == 0 ? 0 : saved * exercises / sessions;
+        return sessions * SESSION_BYTES + exercises * EXERCISE_BYTES
+                + saved * SAVED_SESSION_BYTES + savedExercises * SAVED_EXERCISE_BYTES
+                + logbook.getJournalSize() * JOURNAL_BYTES
+                + logbook.getCachedQueryCount() * QUERY_BYTES + logbook.getCachedQueryItemCount() * QUERY_ITEM_BYTES;
+    }
+
+    // Represents work done on one user's logbook
+    public interface Action<T> {
+        T apply(Logbook logbook) throws IOException;
+    }
+
+    // Represents one user's logbook and its bookkeeping. The entry's monitor serializes everything done
+    // to the logbook: opening it, the callers' actions and saving it on eviction.
+    private static class Entry {
+        private final String user;
+        private final String file;
+        private Logbook logbook;    // null until opened
+        private int users;          // callers between acquire and release; guarded by the registry
+        private long estimate;      // estimated bytes as of the last action; guarded by the entry
+        private long counted;       // estimate included in the registry's total; guarded by the registry
+
+        Entry(String user, String file) {
+            this.user = user;
+            this.file = file;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the logbook from its file the first time; a user without a file starts empty
+        synchronized void open() throws IOException {
+            if (logbook != null) {
+                return;
+            }
+            Logbook opened = new Logbook(file);
+            if (Files.exists(Paths.get(file))) {
+                opened.loadLogBook();
+            } else {
+                opened.checkpoint();
+            }
+            logbook = opened;
+        }
+
+        // MODIFIES: file
+        // EFFECTS: saves the logbook if it was opened and has unsaved changes
+        synchronized void save() throws IOException {
+            if (logbook != null && logbook.isDirty()) {
+                Files.createDirectories(Paths.get(file).toAbsolutePath().getParent());
+                logbook.saveLogBook();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package persistence;
+
+import java.io.IOException;
+
+// Represents a logbook file that is not valid JSON, or whose sessions are not laid out as its format says,
+// together with the byte offset (in the decompressed JSON) where the problem was found
+public class MalformedLogbookException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long byteOffset;
+
+    // EFFECTS: constructs an exception for a problem found at byteOffset (-1 if unknown), described by
+    // message and caused by cause
+    public MalformedLogbookException(String message, long byteOffset, Throwable cause) {
+        super(message, cause);
+        this.byteOffset = byteOffset;
+    }
+
+    // EFFECTS: returns the byte offset where the problem was found, or -1 if it is unknown
+    public long getByteOffset() {
+        return byteOffset;
+    }
+}
@@ -0,0 +1,265 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import model.ChangeSet;
+import model.SessionSnapshot;
+import model.WorkoutSession;
+
+// Represents a logbook stored as one JSON segment file per month plus a small manifest,
+// so loads can be limited to the months a query needs and saves only rewrite the months that changed
+public class PartitionedStore {
+    private static final String MANIFEST = "manifest.json";
+    private static final String UNDATED = "undated";
+
+    private String directory;
+    private Map<String, Integer> manifest;      // partition key -> number of sessions on disk
+    private Set<String> resident;               // keys of the partitions read or written through this store
+    private FsyncPolicy fsyncPolicy;            // shared by all segment and manifest writes
+    private long bytesRead;                     // bytes of the segments read since the last readAll or read
+    private long bytesWritten;                  // bytes of the files written by the last write
+
+    // EFFECTS: constructs a store rooted at directory; nothing is read until a load is requested
+    public PartitionedStore(String directory) {
+        this.directory = directory;
+        this.resident = new HashSet<>();
+        this.fsyncPolicy = FsyncPolicy.everySave();
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    // EFFECTS: returns the bytes of the segment files read since the last readAll or read began
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    // EFFECTS: returns the bytes of the segment and manifest files written by the last write
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // EFFECTS: returns the partition key ("yyyy-mm") of a session dated date ("yyyy/mm/dd"),
+    // or "undated" if date does not follow that layout
+    public static String partitionOf(String date) {
+        String[] parts = date.split("/");
+        if (parts.length != 3) {
+            return UNDATED;
+        }
+
+        try {
+            int year = Integer.parseInt(parts[0].trim());
+            int month = Integer.parseInt(parts[1].trim());
+            return String.format("%04d-%02d", year, month);
+        } catch (NumberFormatException e) {
+            return UNDATED;
+        }
+    }
+
+    // EFFECTS: returns the keys of all partitions on disk, oldest first;
+    // throws IOException if the manifest cannot be read
+    public List<String> getPartitions() throws IOException {
+        return new ArrayList<>(manifest().keySet());
+    }
+
+    // EFFECTS: returns true if partition key has been read or written through this store
+    public boolean isResident(String key) {
+        return resident.contains(key);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads every partition, oldest first;
+    // throws IOException if an error occurs reading data from file
+    public List<WorkoutSession> readAll() throws IOException {
+        resident.clear();
+        bytesRead = 0;
+        return readPartitions(getPartitions());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the partitions whose keys lie between fromKey and toKey (inclusive), oldest first;
+    // partitions read before are no longer resident afterwards;
+    // throws IOException if an error occurs reading data from file
+    public List<WorkoutSession> read(String fromKey, String toKey) throws IOException {
+        resident.clear();
+        bytesRead = 0;
+        List<String> keys = new ArrayList<>();
+        for (String key : getPartitions()) {
+            if (key.compareTo(fromKey) >= 0 && key.compareTo(toKey) <= 0) {
+                keys.add(key);
+            }
+        }
+        return readPartitions(keys);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the single partition key and marks it resident; a partition that does not exist
+    // on disk yet reads as empty; throws IOException if an error occurs reading data from file
+    public List<WorkoutSession> readPartition(String key) throws IOException {
+        List<WorkoutSession> sessions = new ArrayList<>();
+        if (manifest().containsKey(key)) {
+            JsonReader reader = new JsonReader(segmentPath(key));
+            sessions = reader.read();
+            bytesRead += reader.getBytesRead();
+        }
+        resident.add(key);
+        return sessions;
+    }
+
+    // EFFECTS: returns the keys of the partitions touched by changes: those of the changed sessions'
+    // current dates and those of dates whose sessions were removed or moved away
+    public Set<String> partitionsOf(ChangeSet changes) {
+        Set<String> keys = new TreeSet<>();
+        for (WorkoutSession session : changes.getModifiedSessions()) {
+            keys.add(partitionOf(session.getDate()));
+        }
+        for (String date : changes.getStaleDates()) {
+            keys.add(partitionOf(date));
+        }
+        return keys;
+    }
+
+    // EFFECTS: returns those of keys that exist on disk but have not been read, so their history
+    // would be lost if they were written now; throws IOException if the manifest cannot be read
+    public Set<String> nonResident(Set<String> keys) throws IOException {
+        Set<String> missing = new TreeSet<>();
+        for (String key : keys) {
+            if (!isResident(key) && manifest().containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+
+    // REQUIRES: nonResident(dirty) is empty
+    // MODIFIES: this, files in directory
+    // EFFECTS: rewrites only the partitions in dirty (see partitionsOf) with the sessions that fall into them,
+    // deleting those left without any session, and rewrites the manifest if a partition appeared,
+    // disappeared or changed size; throws IOException if an error occurs writing data to file
+    public void write(List<SessionSnapshot> sessions, Set<String> dirty) throws IOException {
+        bytesWritten = 0;
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        Files.createDirectories(Paths.get(directory));
+        Map<String, JSONArray> groups = groupByPartition(sessions, dirty);
+        boolean manifestChanged = false;
+
+        for (String key : dirty) {
+            if (groups.containsKey(key)) {
+                manifestChanged |= writePartition(key, groups.get(key));
+            } else {
+                manifestChanged |= deletePartition(key);
+            }
+        }
+
+        if (manifestChanged) {
+            writeManifest();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the given partitions in order and returns their sessions
+    private List<WorkoutSession> readPartitions(List<String> keys) throws IOException {
+        List<WorkoutSession> sessions = new ArrayList<>();
+        for (String key : keys) {
+            sessions.addAll(readPartition(key));
+        }
+        return sessions;
+    }
+
+    // EFFECTS: groups the JSON of the sessions that fall into one of keys by partition key,
+    // keeping the order of sessions within a group; sessions of other partitions are not serialized
+    private Map<String, JSONArray> groupByPartition(List<SessionSnapshot> sessions, Set<String> keys) {
+        Map<String, JSONArray> groups = new TreeMap<>();
+        for (SessionSnapshot session : sessions) {
+            String key = partitionOf(session.getDate());
+            if (keys.contains(key)) {
+                groups.computeIfAbsent(key, k -> new JSONArray()).put(session.toJson());
+            }
+        }
+        return groups;
+    }
+
+    // MODIFIES: this, segment file of key
+    // EFFECTS: writes the partition; returns true if the manifest needs to be rewritten
+    private boolean writePartition(String key, JSONArray sessionsJson) throws IOException {
+        JsonWriter writer = new JsonWriter(segmentPath(key), fsyncPolicy);
+        writer.open();
+        writer.writeLogbook(sessionsJson);
+        writer.close();
+        bytesWritten += writer.getBytesWritten();
+
+        resident.add(key);
+        Integer previous = manifest().put(key, sessionsJson.length());
+        return previous == null || previous != sessionsJson.length();
+    }
+
+    // MODIFIES: this, segment file of key
+    // EFFECTS: removes a resident partition that became empty; returns true if it was in the manifest
+    private boolean deletePartition(String key) throws IOException {
+        resident.remove(key);
+        Files.deleteIfExists(Paths.get(segmentPath(key)));
+        return manifest().remove(key) != null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the manifest, reading it from disk the first time it is needed;
+    // a store without a manifest file is empty
+    private Map<String, Integer> manifest() throws IOException {
+        if (manifest == null) {
+            manifest = new TreeMap<>();
+            Path path = Paths.get(directory, MANIFEST);
+            if (Files.exists(path)) {
+                JSONArray entries = new JSONArray(new JsonReader(path.toString()).readFile(path.toString()));
+                for (Object entry : entries) {
+                    JSONObject json = (JSONObject) entry;
+                    manifest.put(json.getString("partition"), json.getInt("sessions"));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    // MODIFIES: manifest file
+    // EFFECTS: writes the partition keys and their session counts to the manifest file
+    private void writeManifest() throws IOException {
+        JSONArray entries = new JSONArray();
+        for (Map.Entry<String, Integer> entry : manifest().entrySet()) {
+            JSONObject json = new JSONObject();
+            json.put("partition", entry.getKey());
+            json.put("sessions", entry.getValue());
+            entries.put(json);
+        }
+
+        JsonWriter writer = new JsonWriter(Paths.get(directory, MANIFEST).toString(), fsyncPolicy);
+        writer.open();
+        writer.write(entries);
+        writer.close();
+        bytesWritten += writer.getBytesWritten();
+    }
+
+    // EFFECTS: returns the path of the segment file that holds partition key
+    private String segmentPath(String key) {
+        return Paths.get(directory, key + ".json").toString();
+    }
+}
@@ -0,0 +1,196 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents where the sessions lie in the bytes of a logbook file: the byte range of the session array
+// (the root array, or the "sessions" member of a header object) and the offsets at which its elements
+// start. It is found in one pass over the bytes that only follows nesting and strings, without building
+// any JSON, so the array can then be cut at element boundaries and the pieces parsed independently.
+class SessionArrayLayout {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] SESSIONS_KEY = "sessions".getBytes(StandardCharsets.US_ASCII);
+
+    private final long minGap;
+    private boolean wrapped;                    // true if the array is the "sessions" member of an object
+    private long rootStart = -1;                // offset of the root value's first byte
+    private long rootEnd = -1;                  // offset just past the root value
+    private long arrayStart = -1;               // offset of the session array's '['
+    private long arrayEnd = -1;                 // offset of the session array's ']'
+    private List<Long> elementStarts = new ArrayList<>();
+
+    // scanning state
+    private long position = -1;
+    private int depth;
+    private int arrayDepth = -1;                // depth inside the session array, -1 until it is found
+    private boolean inString;
+    private boolean escaped;
+    private boolean awaitingElement;            // inside the session array, between elements
+    private boolean expectingKey;               // directly inside a root object, before a member's key
+    private int keyMatched = -1;                // bytes of the current key matching "sessions", -1 if not
+    private boolean sessionsKey;                // the last key directly inside a root object was "sessions"
+    private long lastElementStart;
+
+    // EFFECTS: creates an empty layout that keeps only element starts at least minGap bytes past
+    // the previous one kept (all of them when minGap is 0)
+    private SessionArrayLayout(long minGap) {
+        this.minGap = minGap;
+    }
+
+    // EFFECTS: scans in, the bytes of a logbook file, and returns where its sessions lie, keeping only
+    // element starts at least minGap bytes apart; returns null if the root value is not an array or
+    // object, holds no session array, or ends before it is closed.
+    // Throws IOException if in cannot be read
+    static SessionArrayLayout scan(InputStream in, long minGap) throws IOException {
+        SessionArrayLayout layout = new SessionArrayLayout(minGap);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while (layout.rootEnd < 0 && (read = in.read(buffer)) >= 0) {
+            for (int i = 0; i < read && layout.rootEnd < 0; i++) {
+                layout.position++;
+                if (!layout.accept(buffer[i])) {
+                    return null;
+                }
+            }
+        }
+        return layout.rootEnd < 0 || layout.arrayEnd < 0 ? null : layout;
+    }
+
+    boolean isWrapped() {
+        return wrapped;
+    }
+
+    long getRootStart() {
+        return rootStart;
+    }
+
+    long getRootEnd() {
+        return rootEnd;
+    }
+
+    long getArrayStart() {
+        return arrayStart;
+    }
+
+    long getArrayEnd() {
+        return arrayEnd;
+    }
+
+    // EFFECTS: returns the offsets of the element starts kept, in order
+    List<Long> getElementStarts() {
+        return elementStarts;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the scan over b, the byte at position; returns false if the root value
+    // turns out to be neither an array nor an object
+    private boolean accept(byte b) {
+        if (inString) {
+            acceptInString(b);
+            return true;
+        }
+        if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+            return true;
+        }
+        if (depth == 0 && b != '[' && b != '{') {
+            return false;
+        }
+        if (awaitingElement && depth == arrayDepth && b != ']' && b != ',') {
+            elementStarted();
+        }
+        acceptStructural(b);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the scan over b, a byte inside a string
+    private void acceptInString(byte b) {
+        if (escaped) {
+            escaped = false;
+            keyMatched = -1;
+        } else if (b == '\\') {
+            escaped = true;
+        } else if (b == '"') {
+            inString = false;
+            if (keyMatched >= 0) {
+                sessionsKey = keyMatched == SESSIONS_KEY.length;
+                keyMatched = -1;
+            }
+        } else if (keyMatched >= 0) {
+            keyMatched = keyMatched < SESSIONS_KEY.length && b == SESSIONS_KEY[keyMatched] ? keyMatched + 1 : -1;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: advances the scan over b, a byte outside strings that is not white space
+    private void acceptStructural(byte b) {
+        switch (b) {
+            case '"':
+                inString = true;
+                if (expectingKey && depth == 1) {
+                    expectingKey = false;
+                    keyMatched = 0;
+                }
+                break;
+            case '{':
+            case '[':
+                opened(b);
+                break;
+            case '}':
+            case ']':
+                closed(b);
+                break;
+            case ',':
+                expectingKey = depth == 1 && wrapped;
+                awaitingElement = depth == arrayDepth;
+                break;
+            default:
+                break;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: enters the array or object b opens
+    private void opened(byte b) {
+        if (depth == 0) {
+            rootStart = position;
+            wrapped = b == '{';
+            expectingKey = wrapped;
+        }
+        depth++;
+        if (arrayStart < 0 && b == '[' && (depth == 1 || (depth == 2 && wrapped && sessionsKey))) {
+            arrayStart = position;
+            arrayDepth = depth;
+            awaitingElement = true;
+        }
+        sessionsKey = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: leaves the array or object b closes
+    private void closed(byte b) {
+        if (depth == arrayDepth && b == ']') {
+            arrayEnd = position;
+            arrayDepth = -1;
+            awaitingElement = false;
+        }
+        depth--;
+        if (depth == 0) {
+            rootEnd = position + 1;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that an element of the session array starts at position, if it is far enough
+    // past the last one kept
+    private void elementStarted() {
+        awaitingElement = false;
+        if (elementStarts.isEmpty() || position - lastElementStart >= minGap) {
+            elementStarts.add(position);
+            lastElementStart = position;
+        }
+    }
+}
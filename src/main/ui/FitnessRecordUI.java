@@ -2,17 +2,42 @@ package ui;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 
+import metrics.Counter;
+import metrics.Diagnostics;
+import metrics.DisplayRefreshEvent;
+import metrics.MetricsExporter;
+import metrics.MetricsRegistry;
+import metrics.StartupPhases;
+import metrics.Timer;
 import model.Exercise;
+import model.ExerciseDistributions;
 import model.Logbook;
 import model.Muscles;
+import model.PersonalRecord;
+import model.PersonalRecordTracker;
+import model.ProgressHistory;
 import model.WorkoutSession;
+import model.Workload;
 import model.PrintEventLog;
+import model.SetLog;
+import model.QuantileSketch;
+import model.TrainingCalendar;
+import model.TrainingLoad;
+import persistence.AutosaveScheduler;
 
 import java.util.List;
 
@@ -25,14 +50,30 @@ public class FitnessRecordUI extends JFrame {
     private static final int WIDTH = 350;
     private static final int HEIGHT = 700;
     private static final String IMAGE_STORE = "./image/background.png";
+    private static final String METRICS_FILE_PROPERTY = "fitnessrecord.metrics.file";
+    private static final Timer DISPLAY_TIMER = MetricsRegistry.getInstance().timer("ui.displayLogs");
+    private static final Counter DISPLAY_UNCHANGED = MetricsRegistry.getInstance().counter("ui.displayLogs.unchanged");
     
     // MODEL
     private Logbook logbook;
+    private AutosaveScheduler autosave;
+    private boolean autosaving;             // true once autosave started, after the logbook was loaded
+    private PersonalRecordTracker records;
+    private TrainingLoad load;
+    private TrainingCalendar calendar;
+    private ExerciseDistributions distributions;
+    private ProgressHistory progress;
 
     // View components
     private JFrame parentFrame;
+    private JLabel loadStatus;
+    private JProgressBar loadProgress;
+    private List<JButton> logbookButtons = new ArrayList<>();   // the buttons that need the loaded logbook
     private JComboBox<Muscles> muscleComboBox;
+    private Map<Muscles, JCheckBox> muscleBoxes;    // boxes for the other muscle types worked, by muscle type
     private JTextArea logDisplay;
+    private String shownView;       // title of what logDisplay shows, null before the first refresh
+    private long shownVersion;      // logbook version logDisplay shows shownView at
     private JScrollPane scrollPane;
     private JTextField yearField;
     private JTextField monthField;
@@ -41,27 +82,44 @@ public class FitnessRecordUI extends JFrame {
     private JTextField weightField;
     private JTextField setsField;
     private JTextField repsField;
+    private JTextField setLogField;
     private String[] labels = {
         "Exercise Name", 
         "Muscle Type", 
         "Weight (kg)", 
         "Number of Reps", 
         "Number of Sets", 
-        "Date yyyy/mm/dd"
+        "Date yyyy/mm/dd",
+        "Also Works",
+        "Set by Set (optional)"
     };
     
 
     /*
      * MODIFIES: this
-     * EFFECTS: creates the main application window and initialize components
+     * EFFECTS: creates and shows the main application window at once, then loads the logbook in the
+     *          background; the buttons that need the logbook are enabled once it is loaded.
+     *          Must be called on the event dispatch thread
      */
     public FitnessRecordUI() {
         // Initialize the LogBook. This is the Model
         // It automatically knows where to save/load from.
         logbook = new Logbook("./data/fitness_log.json");
+        logbook.setReadParallelism(Runtime.getRuntime().availableProcessors());
 
         parentFrame = new JFrame("Fitness Record");
-        parentFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        parentFrame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        parentFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                StartupPhases.getInstance().mark("frameShown");
+            }
+
+            @Override
+            public void windowClosing(WindowEvent e) {
+                exitApplication();
+            }
+        });
         parentFrame.setSize(WIDTH, HEIGHT);
         parentFrame.setLayout(new BorderLayout());
         
@@ -80,18 +138,97 @@ public class FitnessRecordUI extends JFrame {
             }
         });
 
-        // Attempt to load existing logs on startup
-        try {
-            logbook.loadLogBook();
-        } catch (IOException e) {
-            System.out.println("No existing log file found. Starting fresh.");
-        }
+        // keeps the personal records current and announces each new one as soon as it is set
+        records = new PersonalRecordTracker(logbook);
+        records.addRecordListener(this::announceRecords);
+        progress = new ProgressHistory(logbook);
+        load = new TrainingLoad(logbook);
+        calendar = new TrainingCalendar(logbook);
+        distributions = new ExerciseDistributions(logbook);
+
+        // saves edits in the background a couple of seconds after the user stops making them, once the
+        // logbook has been loaded (or found missing), so a file that fails to load is never overwritten
+        autosave = new AutosaveScheduler(logbook);
+
+        // lets jconsole and other JMX clients watch the logbook and where the time goes
+        Diagnostics.registerAll(logbook, autosave);
 
         parentFrame.add(new ImagePanel(IMAGE_STORE), BorderLayout.CENTER);
+        addLoadStatusPanel();
         addButtonPanel();
 
         centreOnScreen();
         parentFrame.setVisible(true);
+        loadInBackground();
+    }
+
+    /*
+     * EFFECTS: starts decoding the images the main window shows, so that happens while the window is built
+     */
+    public static void preloadAssets() {
+        ImagePanel.preload(IMAGE_STORE);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: adds the status line that shows the progress of loading the logbook to the main frame
+     */
+    private void addLoadStatusPanel() {
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(new EmptyBorder(5, 5, 0, 5));
+        loadStatus = new JLabel("Loading your workout log...");
+        loadProgress = new JProgressBar();
+        loadProgress.setIndeterminate(true);
+        statusPanel.add(loadStatus, BorderLayout.NORTH);
+        statusPanel.add(loadProgress, BorderLayout.SOUTH);
+        parentFrame.add(statusPanel, BorderLayout.NORTH);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: reads and indexes the logbook on a background thread while the window stays responsive,
+     *          then reports the outcome and enables the buttons that need the logbook
+     */
+    private void loadInBackground() {
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() throws IOException {
+                try {
+                    logbook.loadLogBook();
+                    StartupPhases.getInstance().mark("logbookLoaded");
+                    return "Loaded " + logbook.getSessionCount() + " workout sessions.";
+                } catch (NoSuchFileException e) {
+                    System.out.println("No existing log file found. Starting fresh.");
+                    return "No existing log file found. Starting fresh.";
+                }
+            }
+
+            @Override
+            protected void done() {
+                finishLoading(this);
+            }
+        }.execute();
+    }
+
+    /*
+     * REQUIRES: loader is done
+     * MODIFIES: this
+     * EFFECTS: shows the outcome of loader, hides the progress bar and enables the logbook buttons; starts
+     *          autosave only if the logbook was loaded or there was no file yet, so that a file which failed
+     *          to load is only written when the user saves explicitly
+     */
+    private void finishLoading(SwingWorker<String, Void> loader) {
+        try {
+            loadStatus.setText(loader.get());
+            startAutosave();
+        } catch (InterruptedException | ExecutionException e) {
+            loadStatus.setText("Unable to load your workout log: " + e.getCause());
+        }
+        loadProgress.setVisible(false);
+        for (JButton button : logbookButtons) {
+            button.setEnabled(true);
+        }
+        StartupPhases.getInstance().mark("interactive");
     }
 
     /*
@@ -121,45 +258,457 @@ public class FitnessRecordUI extends JFrame {
         // YES_OPTION == 0, NO_OPTION == 1
         if (result == JOptionPane.YES_OPTION) {
             // user clicked "Yes" or pressed ENTER
-            PrintEventLog.printEventLog();
-            System.exit(0);
+            exitApplication();
         }
 
         // If user clicks "No" (result == 1)
         // or presses ESC/ clicks the [x] button (result == -1)
         // the dialog simply closes and nothing happens
     }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts saving edits in the background, if it has not started yet
+     */
+    private void startAutosave() {
+        if (!autosaving) {
+            autosaving = true;
+            autosave.start();
+        }
+    }
+
+    /*
+     * EFFECTS: saves any edits autosave has not written yet, prints the event log and exits; saves nothing
+     *          if autosave never started because the logbook failed to load. If that save fails, tells the
+     *          user and keeps the application open
+     */
+    private void exitApplication() {
+        try {
+            if (autosaving) {
+                autosave.shutdown();
+            }
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(parentFrame, "Unable to save your latest changes: " + e.getMessage());
+            autosave = new AutosaveScheduler(logbook);
+            autosave.start();
+            Diagnostics.registerAll(logbook, autosave);
+            return;
+        }
+
+        PrintEventLog.printEventLog();
+        exportMetrics();
+        System.exit(0);
+    }
+
+    /*
+     * EFFECTS: writes a snapshot of the metrics to the file named by the fitnessrecord.metrics.file
+     *          system property, if it is set
+     */
+    private void exportMetrics() {
+        String file = System.getProperty(METRICS_FILE_PROPERTY);
+        if (file == null) {
+            return;
+        }
+
+        try {
+            new MetricsExporter(MetricsRegistry.getInstance()).exportTo(file);
+        } catch (IOException e) {
+            System.out.println("Unable to write metrics to " + file + ": " + e.getMessage());
+        }
+    }
     /*
      * MODIFIES: this
      * EFFECTS: creates and adds the option button panel to the main frame
      */
     private void addButtonPanel() {
         JPanel buttonPanel = new JPanel();
-        buttonPanel.setLayout(new GridLayout(8, 1));
+        buttonPanel.setLayout(new GridLayout(16, 1));
         buttonPanel.setBorder(new EmptyBorder(5, 5, 5, 5));
-        buttonPanel.add(createButton("Add an exercise", e -> addExercise()));
-        buttonPanel.add(createButton("Remove an exercise", e -> removeExercise()));
-        buttonPanel.add(createButton("Update the log", e -> updateLog()));
-        buttonPanel.add(createButton("Filter workout log", e -> filteredLog()));
-        buttonPanel.add(createButton("View all exercises you added", 
+        logbookButtons.add(createButton("Add an exercise", e -> addExercise()));
+        logbookButtons.add(createButton("Remove an exercise", e -> removeExercise()));
+        logbookButtons.add(createButton("Update the log", e -> updateLog()));
+        logbookButtons.add(createButton("Edit history in bulk", e -> editHistory()));
+        logbookButtons.add(createButton("Undo (Ctrl+Z)", e -> undoEdit()));
+        logbookButtons.add(createButton("Redo (Ctrl+Y)", e -> redoEdit()));
+        logbookButtons.add(createButton("Filter workout log", e -> filteredLog()));
+        logbookButtons.add(createButton("View all exercises you added", 
                                             e -> displayAllLogs()));
-        buttonPanel.add(createButton("Save logs to file", e -> saveLogsToFile()));
-        buttonPanel.add(createButton("Load logs from file", e -> loadLogsFromFile()));
-        buttonPanel.add(createButton("Exit", e -> {
-            PrintEventLog.printEventLog();
-            System.exit(0);
-        }));
+        logbookButtons.add(createButton("View personal records", e -> viewPersonalRecords()));
+        logbookButtons.add(createButton("Chart progress", e -> chartProgress()));
+        logbookButtons.add(createButton("View training load", e -> viewTrainingLoad()));
+        logbookButtons.add(createButton("View training calendar", e -> viewTrainingCalendar()));
+        logbookButtons.add(createButton("View weight and rep spread", e -> viewDistribution()));
+        logbookButtons.add(createButton("Save logs to file", e -> saveLogsToFile()));
+        logbookButtons.add(createButton("Load logs from file", e -> loadLogsFromFile()));
+        for (JButton button : logbookButtons) {
+            button.setEnabled(false);   // until the logbook is loaded
+            buttonPanel.add(button);
+        }
+        buttonPanel.add(createButton("Exit", e -> exitApplication()));
     
         parentFrame.add(buttonPanel, BorderLayout.SOUTH);
+        addUndoShortcuts();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: binds Ctrl+Z to undo and Ctrl+Y to redo anywhere in the main frame, once the logbook is loaded
+     */
+    private void addUndoShortcuts() {
+        JRootPane rootPane = parentFrame.getRootPane();
+        InputMap keys = rootPane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "undo");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "redo");
+        rootPane.getActionMap().put("undo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (logbookButtons.get(0).isEnabled()) {
+                    undoEdit();
+                }
+            }
+        });
+        rootPane.getActionMap().put("redo", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (logbookButtons.get(0).isEnabled()) {
+                    redoEdit();
+                }
+            }
+        });
+    }
+
+    /*
+     * MODIFIES: this, logbook
+     * EFFECTS: asks which change to make across the whole history (rename, change the muscle type of or
+     *          delete an exercise everywhere, or shift a range of dates), makes it as one edit that can be
+     *          undone at once, and shows how much it changed
+     */
+    private void editHistory() {
+        String[] changes = {"Rename an exercise", "Change the muscle type of an exercise", "Delete an exercise",
+                "Shift dates"};
+        String change = (String) JOptionPane.showInputDialog(this, "What would you like to change everywhere?",
+                "Edit history in bulk", JOptionPane.QUESTION_MESSAGE, null, changes, changes[0]);
+        try {
+            String result = null;
+            if (changes[0].equals(change)) {
+                result = renameEverywhere();
+            } else if (changes[1].equals(change)) {
+                result = recategorizeEverywhere();
+            } else if (changes[2].equals(change)) {
+                result = deleteEverywhere();
+            } else if (changes[3].equals(change)) {
+                result = shiftDates();
+            }
+            if (result != null) {
+                JOptionPane.showMessageDialog(this, result);
+                displayAllLogs();
+            }
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a whole number of days.");
+        }
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: renames an exercise the user names everywhere; returns what was done, or null if cancelled
+     */
+    private String renameEverywhere() {
+        String from = JOptionPane.showInputDialog(this, "Exercise to rename (e.g. Bench):");
+        String to = from == null ? null : JOptionPane.showInputDialog(this, "New name (e.g. Bench press):");
+        if (to == null || from.isBlank() || to.isBlank()) {
+            return null;
+        }
+        return "Renamed " + logbook.renameExercise(from.trim(), to.trim()) + " exercises.";
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: files an exercise the user names under another muscle type everywhere; returns what was
+     *          done, or null if cancelled
+     */
+    private String recategorizeEverywhere() {
+        String name = JOptionPane.showInputDialog(this, "Exercise to change:");
+        Muscles muscle = name == null ? null : (Muscles) JOptionPane.showInputDialog(this, "New muscle type:",
+                "Edit history in bulk", JOptionPane.QUESTION_MESSAGE, null, Muscles.values(), Muscles.values()[0]);
+        if (muscle == null || name.isBlank()) {
+            return null;
+        }
+        return "Changed " + logbook.recategorizeExercise(name.trim(), muscle) + " exercises.";
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: deletes every exercise with a name the user gives; returns what was done, or null if cancelled
+     */
+    private String deleteEverywhere() {
+        String name = JOptionPane.showInputDialog(this, "Exercise to delete from every session:");
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String target = name.trim();
+        int removed = logbook.removeExercisesIf(
+                (date, exercise) -> exercise.getExerciseName().equalsIgnoreCase(target));
+        return "Deleted " + removed + " exercises.";
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: moves the sessions in a range of dates the user gives by a number of days; returns what was
+     *          done, or null if cancelled; throws NumberFormatException if the number of days is not a number
+     */
+    private String shiftDates() {
+        String from = JOptionPane.showInputDialog(this, "First date to shift (yyyy/mm/dd):");
+        String to = from == null ? null : JOptionPane.showInputDialog(this, "Last date to shift (yyyy/mm/dd):");
+        String days = to == null ? null : JOptionPane.showInputDialog(this, "Days to shift by (e.g. -1 or 7):");
+        if (days == null) {
+            return null;
+        }
+        return "Moved " + logbook.shiftDates(from.trim(), to.trim(), Integer.parseInt(days.trim())) + " sessions.";
+    }
+
+    /*
+     * MODIFIES: this, logbook
+     * EFFECTS: undoes the last edit of the logbook, if there is one, and shows all logs as they are now
+     */
+    private void undoEdit() {
+        String undone = logbook.undo();
+        if (undone == null) {
+            JOptionPane.showMessageDialog(this, "Nothing to undo.");
+            return;
+        }
+        displayAllLogs();
+    }
+
+    /*
+     * MODIFIES: this, logbook
+     * EFFECTS: redoes the edit undone last, if there is one, and shows all logs as they are now
+     */
+    private void redoEdit() {
+        String redone = logbook.redo();
+        if (redone == null) {
+            JOptionPane.showMessageDialog(this, "Nothing to redo.");
+            return;
+        }
+        displayAllLogs();
+    }
+
+    /*
+     * EFFECTS: shows records, just set by an exercise the user added or edited, once the current
+     *          event is handled; called while the logbook is locked, so it only schedules the dialog
+     */
+    private void announceRecords(List<PersonalRecord> newRecords) {
+        StringBuilder message = new StringBuilder("New personal record!");
+        for (PersonalRecord record : newRecords) {
+            message.append("\n").append(record.getDescription());
+        }
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(parentFrame, message.toString()));
+    }
+
+    /*
+     * EFFECTS: asks for an exercise name and shows its heaviest weight, the most reps at that weight
+     *          and its best volume
+     */
+    private void viewPersonalRecords() {
+        String name = JOptionPane.showInputDialog(parentFrame, "Exercise name:");
+        if (name == null || name.isBlank()) {
+            return;
+        }
+
+        PersonalRecord weight = records.getBestWeight(name.trim());
+        if (weight == null) {
+            JOptionPane.showMessageDialog(parentFrame, "No " + name.trim() + " logged yet.");
+            return;
+        }
+        PersonalRecord reps = records.getBestReps(name.trim(), weight.getWeight());
+        PersonalRecord volume = records.getBestVolume(name.trim());
+        JOptionPane.showMessageDialog(parentFrame, weight.getDescription() + "\n" + reps.getDescription()
+                + "\n" + volume.getDescription());
+    }
+
+    /*
+     * EFFECTS: asks for an exercise name and a number of months and shows the spread of its working weights
+     *          and reps over those months, up to this one, as percentiles
+     */
+    private void viewDistribution() {
+        String name = JOptionPane.showInputDialog(parentFrame, "Exercise name:");
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String input = JOptionPane.showInputDialog(parentFrame, "Over the last how many months?", 12);
+        if (input == null) {
+            return;
+        }
+        try {
+            LocalDate to = LocalDate.now();
+            LocalDate from = to.minusMonths(Integer.parseInt(input.trim()) - 1L);
+            QuantileSketch weights = distributions.getWeights(name.trim(), from, to);
+            if (weights.getCount() == 0) {
+                JOptionPane.showMessageDialog(parentFrame, "No " + name.trim() + " logged in that time.");
+                return;
+            }
+            JOptionPane.showMessageDialog(parentFrame, distributionText(name.trim(), weights,
+                    distributions.getReps(name.trim(), from, to)));
+        } catch (NumberFormatException | DateTimeException e) {
+            JOptionPane.showMessageDialog(parentFrame, "Please enter a number of months such as 12.");
+        }
+    }
+
+    /*
+     * EFFECTS: returns the median and 90th percentile of weights and reps of the exercise named name
+     */
+    private String distributionText(String name, QuantileSketch weights, QuantileSketch reps) {
+        return String.format("%s over %d sets%n"
+                + "Weight: median %.0f kg, 90th percentile %.0f kg, heaviest %.0f kg%n"
+                + "Reps: median %.0f, 90th percentile %.0f", name, weights.getCount(),
+                weights.getQuantile(0.5), weights.getQuantile(0.9), weights.getQuantile(1),
+                reps.getQuantile(0.5), reps.getQuantile(0.9));
+    }
+
+    /*
+     * EFFECTS: asks for a year and shows which of its days were trained, week by week, with the number of
+     *          days trained, the adherence and the longest streak
+     */
+    private void viewTrainingCalendar() {
+        String input = JOptionPane.showInputDialog(parentFrame, "Year:", LocalDate.now().getYear());
+        if (input == null) {
+            return;
+        }
+        try {
+            int year = Integer.parseInt(input.trim());
+            LocalDate first = LocalDate.of(year, 1, 1);
+            StringBuilder text = new StringBuilder(calendarGrid(year));
+            text.append(String.format("%nTrained on %d days (%.0f%% of the year). Longest streak ever: %d days.",
+                    calendar.getDaysTrained(year), 100 * calendar.getAdherence(first, first.plusYears(1).minusDays(1)),
+                    calendar.getLongestStreak()));
+
+            JTextArea grid = new JTextArea(text.toString());
+            grid.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            grid.setEditable(false);
+            JOptionPane.showMessageDialog(parentFrame, new JScrollPane(grid), "Training calendar " + year,
+                    JOptionPane.INFORMATION_MESSAGE);
+        } catch (NumberFormatException | DateTimeException e) {
+            JOptionPane.showMessageDialog(parentFrame, "Please enter a year such as 2025.");
+        }
+    }
+
+    /*
+     * EFFECTS: returns the days of year as a grid with a row per day of the week and a column per week,
+     *          '#' for a day trained and '.' for one not
+     */
+    private String calendarGrid(int year) {
+        long[] days = calendar.getYear(year, null);
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int offset = first.getDayOfWeek().getValue() - 1;
+        int length = first.lengthOfYear();
+        String[] names = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+        StringBuilder grid = new StringBuilder();
+        for (int weekday = 0; weekday < 7; weekday++) {
+            grid.append(names[weekday]).append(' ');
+            for (int cell = weekday; cell < offset + length; cell += 7) {
+                int day = cell - offset;
+                grid.append(day < 0 ? ' ' : (days[day >>> 6] & 1L << day) != 0 ? '#' : '.');
+            }
+            grid.append('\n');
+        }
+        return grid.toString();
+    }
+
+    /*
+     * EFFECTS: shows the acute (last 7 days) and chronic (weekly average of the last 28 days) volume and
+     *          their ratio, overall and per muscle type, as of today
+     */
+    private void viewTrainingLoad() {
+        if (load.getLastDay() == null) {
+            JOptionPane.showMessageDialog(parentFrame, "No workouts logged yet.");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        StringBuilder text = new StringBuilder(String.format("%-10s %12s %12s %7s%n", "", "7-day kg",
+                "28-day kg/wk", "ratio"));
+        text.append(loadRow("Overall", load.getOverall(today)));
+        for (Muscles muscle : Muscles.values()) {
+            text.append(loadRow(muscle.toString(), load.getMuscle(muscle, today)));
+        }
+        text.append("\nAs of ").append(today).append(", last workout ").append(load.getLastDay())
+                .append(". A ratio between 0.8 and 1.3 means the last week\n")
+                .append("was in line with the last four; well above 1.3 is a sudden jump in load.");
+
+        JTextArea table = new JTextArea(text.toString());
+        table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        table.setEditable(false);
+        JOptionPane.showMessageDialog(parentFrame, table, "Training load", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /*
+     * EFFECTS: returns one line of the training load table, for workload under name
+     */
+    private String loadRow(String name, Workload workload) {
+        return String.format("%-10s %12d %12.0f %7.2f%n", name, workload.getAcute(), workload.getChronic(),
+                workload.getRatio());
+    }
+
+    /*
+     * EFFECTS: opens a resizable chart of the weight or volume over time of a chosen muscle type or exercise
+     */
+    private void chartProgress() {
+        JDialog dialog = createDialog("Progress chart", 600, 420);
+        dialog.setResizable(true);
+        ProgressChartPanel chart = new ProgressChartPanel(progress);
+        JComboBox<Object> subject = createChartSubjectCombo();
+        JComboBox<String> metric = new JComboBox<>(new String[] {"Weight", "Volume"});
+
+        ActionListener update = e -> {
+            boolean volume = "Volume".equals(metric.getSelectedItem());
+            Object selected = subject.getSelectedItem();
+            if (selected instanceof Muscles) {
+                chart.showMuscle((Muscles) selected, volume);
+            } else {
+                chart.showExercise((String) selected, volume);
+            }
+        };
+        subject.addActionListener(update);
+        metric.addActionListener(update);
+        update.actionPerformed(null);
+
+        JPanel controls = new JPanel();
+        controls.add(subject);
+        controls.add(metric);
+        dialog.add(controls, BorderLayout.NORTH);
+        dialog.add(chart, BorderLayout.CENTER);
+        dialog.setVisible(true);
+    }
+
+    /*
+     * EFFECTS: creates and returns a combo box of every muscle type followed by every exercise logged
+     */
+    private JComboBox<Object> createChartSubjectCombo() {
+        JComboBox<Object> subject = new JComboBox<>();
+        for (Muscles muscle : Muscles.values()) {
+            subject.addItem(muscle);
+        }
+        for (String name : progress.getExerciseNames()) {
+            subject.addItem(name);
+        }
+        return subject;
     }
 
     /*
      * REQUIRES: text != null, action != null
-     * EFFECTS: creates and returns a button with the text and action listener
+     * EFFECTS: creates and returns a button with the text and action listener;
+     *          every run of action is timed as "ui.<text>", which for actions that open a modal
+     *          dialog includes the time the dialog stays open
      */
     private JButton createButton(String text, ActionListener action) {
         JButton button = new JButton(text);
-        button.addActionListener(action);
+        Timer timer = MetricsRegistry.getInstance().timer("ui." + text);
+        button.addActionListener(e -> {
+            long start = timer.start();
+            try {
+                action.actionPerformed(e);
+            } finally {
+                timer.stop(start);
+            }
+        });
         return button;
     }
 
@@ -185,7 +734,7 @@ public class FitnessRecordUI extends JFrame {
      */
     private void addExercise() {
         createDisplayLog();
-        JDialog dialog = createDialog("Add Exercise", 400, 320);
+        JDialog dialog = createDialog("Add Exercise", 480, 400);
         
         JPanel addExercisePanel = new JPanel();
         // use BorderLayout for the main panel (10px horizontal gap)
@@ -277,20 +826,17 @@ public class FitnessRecordUI extends JFrame {
                 
                 // creates the exercise object
                 Exercise exercise = new Exercise(exerciseName, muscleType, weight, reps, sets);
-                // finds the session for that date
-                WorkoutSession session = logbook.getSessionByDate(date);
-                
-                if (session == null) {
-                    // if no session exists for that date, create one
-                    session = new WorkoutSession(date);
-                    logbook.addSession(session);
-                }
+                exercise.setMuscles(selectedMuscles());
+                exercise.setSets(SetLog.parse(setLogField.getText()));
 
-                // adds the exercise to that day's session
-                session.addExercise(exercise);
+                // adds the exercise to that day's session, creating the session if there is none yet;
+                // both are undone together
+                logbook.edit("add " + exercise.getExerciseName() + " on " + date,
+                        () -> logbook.getOrAddSession(date).addExercise(exercise));
                 
                 // updates display and close
                 displayLog(exercise, date, "Exercise Added");
+                shownView = null;
                 JOptionPane.showMessageDialog(dialog, "Exercise added successfully");
                 dialog.dispose();
 
@@ -325,13 +871,31 @@ public class FitnessRecordUI extends JFrame {
         logDisplay.append(String.format(
                 "\n" + title + ": %s\n Muscle: %s\n Weight: %d kg\n Reps: %d\n Sets: %d\n Date: %s\n", 
                 e.getExerciseName(), 
-                e.getMuscleType(), 
+                musclesText(e), 
                 e.getWeightLifted(), 
                 e.getNumReps(), 
                 e.getNumSets(), 
                 date
             )
         );
+        if (!e.getSets().isEmpty()) {
+            logDisplay.append(" Set by Set: " + e.getSets() + "\n");
+        }
+    }
+
+    /*
+     * EFFECTS: returns the main muscle type of e, followed by the others it works, if any
+     */
+    private String musclesText(Exercise e) {
+        StringBuilder text = new StringBuilder(e.getMuscleType().toString());
+        String separator = " (also ";
+        for (Muscles muscle : e.getMuscles()) {
+            if (muscle != e.getMuscleType()) {
+                text.append(separator).append(muscle);
+                separator = ", ";
+            }
+        }
+        return separator.equals(", ") ? text.append(')').toString() : text.toString();
     }
 
     /*
@@ -384,6 +948,14 @@ public class FitnessRecordUI extends JFrame {
 
         // Date 
         fieldPanel.add(createDatePanel());
+
+        // Other muscle types worked
+        fieldPanel.add(createMuscleBoxes());
+
+        // Each set on its own, which then sets the weight, reps and sets
+        setLogField = new JTextField();
+        setLogField.setToolTipText("e.g. 100x8, 110x5 @8.5 /120s, 90x10 (weight x reps @RPE /rest)");
+        fieldPanel.add(setLogField);
     }
 
     /*
@@ -761,6 +1333,12 @@ public class FitnessRecordUI extends JFrame {
      * EFFECTS: iterates through all logs and display the details in the main panel
      */
     private void displayAllLogs() {
+        if (isShowing("All logs")) {
+            return;
+        }
+        DisplayRefreshEvent event = new DisplayRefreshEvent();
+        event.begin();
+        long start = DISPLAY_TIMER.start();
         createDisplayLog();
         logDisplay.setText(""); // clear the display
 
@@ -770,19 +1348,30 @@ public class FitnessRecordUI extends JFrame {
             logDisplay.setText("No exercises have been logged yet.");
         } else {
             for (WorkoutSession session : sessions) {
-                // adds a header for the date
-                logDisplay.append("\n===============================\n");
-                logDisplay.append("    DATE: " + session.getDate() + "\n");
-                logDisplay.append("===============================\n");
-
-                List<Exercise> exercises = session.getExercises();
-                if (exercises.isEmpty()) {
-                    logDisplay.append("  (Rest Day / No exercises logged)\n");
-                } else {
-                    for (Exercise ex : exercises) {
-                        displayLog(ex, session.getDate(), "Exercise");
-                    }
-                }
+                displaySession(session);
+            }
+        }
+        DISPLAY_TIMER.stop(start);
+        event.finish("All logs", sessions.size(), logDisplay.getDocument().getLength());
+    }
+
+    /*
+     * REQUIRES: session != null
+     * MODIFIES: this
+     * EFFECTS: appends a header for the date of session and the details of its exercises to the main panel
+     */
+    private void displaySession(WorkoutSession session) {
+        // adds a header for the date
+        logDisplay.append("\n===============================\n");
+        logDisplay.append("    DATE: " + session.getDate() + "\n");
+        logDisplay.append("===============================\n");
+
+        List<Exercise> exercises = session.getExercises();
+        if (exercises.isEmpty()) {
+            logDisplay.append("  (Rest Day / No exercises logged)\n");
+        } else {
+            for (Exercise ex : exercises) {
+                displayLog(ex, session.getDate(), "Exercise");
             }
         }
     }
@@ -793,25 +1382,58 @@ public class FitnessRecordUI extends JFrame {
      * EFFECTS: Display a *filtered* list of sessions in the main display
      */
     private void displayAllLogs(List<WorkoutSession> sessions, String title) {
+        if (isShowing(title)) {
+            return;
+        }
+        DisplayRefreshEvent event = new DisplayRefreshEvent();
+        event.begin();
+        long start = DISPLAY_TIMER.start();
         createDisplayLog();
         logDisplay.setText("");
         logDisplay.append("--- " + title + " ---\n");
         if (sessions.isEmpty()) {
             logDisplay.append("No workout found matching this filter.");
-            return;
+        } else {
+            for (WorkoutSession session : sessions) {
+                displayFilteredSession(session);
+            }
         }
+        DISPLAY_TIMER.stop(start);
+        event.finish(title, sessions.size(), logDisplay.getDocument().getLength());
+    }
 
-        for (WorkoutSession session : sessions) {
-            logDisplay.append("\n--- " + session.getDate() + " --- \n");
-            if (session.getExercises().isEmpty()) {
-                logDisplay.append("  (No exercises for this session)\n");
-            } else {
-                for (Exercise ex : session.getExercises()) {
-                    displayLog(ex, session.getDate(), "Exercise");
-                }
+    /*
+     * MODIFIES: this
+     * EFFECTS: returns true if the main display already shows view as of the logbook's current version,
+     *          so it need not be rebuilt; otherwise records that view is about to be shown at that version
+     */
+    private boolean isShowing(String view) {
+        long version = logbook.getVersion();
+        if (logDisplay != null && view.equals(shownView) && version == shownVersion) {
+            DISPLAY_UNCHANGED.increment();
+            return true;
+        }
+        shownView = view;
+        shownVersion = version;
+        return false;
+    }
+
+    /*
+     * REQUIRES: session != null
+     * MODIFIES: this
+     * EFFECTS: appends the date of session and the details of its exercises to the filtered display
+     */
+    private void displayFilteredSession(WorkoutSession session) {
+        logDisplay.append("\n--- " + session.getDate() + " --- \n");
+        if (session.getExercises().isEmpty()) {
+            logDisplay.append("  (No exercises for this session)\n");
+        } else {
+            for (Exercise ex : session.getExercises()) {
+                displayLog(ex, session.getDate(), "Exercise");
             }
         }
     }
+
     /*
      * MODIFIES: this
      * EFFECTS: gives options to users for exercise to be filtered by date or muscle type
@@ -897,20 +1519,24 @@ public class FitnessRecordUI extends JFrame {
      */
     private void filteredByMuscleTypeEventHandler(JButton muscleTypeButton) {
         muscleTypeButton.addActionListener(e -> {
-            JDialog subDialog = createDialog("Filtered By Muscle Type", 400, 150);
+            JDialog subDialog = createDialog("Filtered By Muscle Type", 480, 220);
 
             JPanel muscleTypePanel = new JPanel();
-            muscleTypePanel.setLayout(new GridLayout(2, 1));
+            muscleTypePanel.setLayout(new GridLayout(5, 1));
             JLabel muscleTypeLabel = new JLabel("Select Muscle Type: ");
             muscleComboBox = createMuscleCombo();
+            JCheckBox allBox = new JCheckBox("Only workouts that work all of the selected muscle types");
 
             muscleTypePanel.add(muscleTypeLabel);
             muscleTypePanel.add(muscleComboBox);
+            muscleTypePanel.add(new JLabel("Or any of these too: "));
+            muscleTypePanel.add(createMuscleBoxes());
+            muscleTypePanel.add(allBox);
 
             JButton filterButton = new JButton("filter");
             JButton cancelButton = createCancelButton(subDialog, "cancel");
 
-            filteredByMuscleTypeEventHandlerHelper(filterButton, subDialog);
+            filteredByMuscleTypeEventHandlerHelper(filterButton, allBox, subDialog);
             
             JPanel buttonPanel = new JPanel();
             buttonPanel.add(filterButton);
@@ -924,20 +1550,60 @@ public class FitnessRecordUI extends JFrame {
     }
 
     /*
-     * REQURIES: filterButton and subDialog != null
+     * REQURIES: filterButton, allBox and subDialog != null
      * MODIFIES: this
-     * EFFECTS: filteres and displays exercises by the inputted muscle type using logbook
+     * EFFECTS: filteres and displays exercises by the inputted muscle type using logbook; when other
+     *          muscle types are ticked too, shows the workouts that work any of them, or all of them
+     *          if allBox is ticked
      */
-    private void filteredByMuscleTypeEventHandlerHelper(JButton filterButton, JDialog subDialog) {
+    private void filteredByMuscleTypeEventHandlerHelper(JButton filterButton, JCheckBox allBox, JDialog subDialog) {
         filterButton.addActionListener(event -> {
             Muscles selectedMuscleType = (Muscles) muscleComboBox.getSelectedItem();
-            List<WorkoutSession> filteredSessions = logbook.filterSessionsByMuscle(selectedMuscleType);
+            Set<Muscles> selected = selectedMuscles();
+            List<WorkoutSession> filteredSessions;
+            String title;
+            if (selected.size() == 1) {
+                filteredSessions = logbook.filterSessionsByMuscle(selectedMuscleType);
+                title = "Workouts for " + selectedMuscleType.toString();
+            } else {
+                filteredSessions = logbook.filterSessionsByMuscles(selected, allBox.isSelected());
+                title = "Workouts for " + (allBox.isSelected() ? "all" : "any") + " of " + selected;
+            }
 
-            displayAllLogs(filteredSessions, "Workouts for " + selectedMuscleType.toString());
+            displayAllLogs(filteredSessions, title);
             subDialog.dispose();
         });
     }
 
+    /*
+     * MODIFIES: this
+     * EFFECTS: creates and returns a row of unticked boxes, one per muscle type, remembered in muscleBoxes
+     */
+    private JPanel createMuscleBoxes() {
+        JPanel musclePanel = new JPanel(new GridLayout(1, Muscles.values().length));
+        muscleBoxes = new EnumMap<>(Muscles.class);
+        for (Muscles muscle : Muscles.values()) {
+            JCheckBox box = new JCheckBox(muscle.toString().substring(0, 3));
+            box.setToolTipText(muscle.toString());
+            muscleBoxes.put(muscle, box);
+            musclePanel.add(box);
+        }
+        return musclePanel;
+    }
+
+    /*
+     * EFFECTS: returns the muscle type selected in muscleComboBox together with those ticked in muscleBoxes
+     */
+    private EnumSet<Muscles> selectedMuscles() {
+        EnumSet<Muscles> selected = EnumSet.of((Muscles) muscleComboBox.getSelectedItem());
+        for (Map.Entry<Muscles, JCheckBox> box : muscleBoxes.entrySet()) {
+            if (box.getValue().isSelected()) {
+                selected.add(box.getKey());
+            }
+        }
+        return selected;
+    }
+
     /*
      * MODIFIES: a file
      * EFFECTS: saves all logs from logbook to its desginated file
@@ -945,8 +1611,9 @@ public class FitnessRecordUI extends JFrame {
     private void saveLogsToFile() {
         try {
             logbook.saveLogBook();
+            startAutosave();
             JOptionPane.showMessageDialog(this, "Logs saved successfully!");
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             JOptionPane.showMessageDialog(this, "Unable to write logs to the file: " + e.getMessage());
         }
     }
@@ -957,6 +1624,7 @@ public class FitnessRecordUI extends JFrame {
     private void loadLogsFromFile() {
         try {
             logbook.loadLogBook();
+            startAutosave();
             displayAllLogs(); // refreshes the view after loading
             JOptionPane.showMessageDialog(this, "Logs successfully loaded!");
         } catch (IOException e) {
@@ -1,38 +1,64 @@
 package ui;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import metrics.StartupPhases;
 
 /*
 * Represent application's main window frame
 */
 public class ImagePanel extends JPanel {
+    // every image decoded or being decoded, by path, so each is only ever decoded once
+    private static final Map<String, CompletableFuture<ImageIcon>> images = new ConcurrentHashMap<>();
 
     /*
      * REQUIRES: imagePath != null
-     * EFFECTS: loads the image from the given path and display it in a centered JLabel.
+     * EFFECTS: creates a panel that displays the image from the given path in a centered JLabel
+     *          as soon as it is decoded, without waiting for it on the calling thread
      */
     public ImagePanel(String imagePath) {
         setLayout(new BorderLayout());
-        JLabel imageLabel = createImageLabel(imagePath);
+        JLabel imageLabel = new JLabel();
+        imageLabel.setHorizontalAlignment(SwingConstants.CENTER);
         add(imageLabel, BorderLayout.CENTER);
+        preload(imagePath).thenAccept(icon -> SwingUtilities.invokeLater(() -> imageLabel.setIcon(icon)));
+    }
+
+    /*
+     * REQUIRES: imagePath != null
+     * EFFECTS: starts decoding the image at imagePath on a background thread, unless that was started
+     *          before, and returns the icon to come; it is null if the image cannot be read
+     */
+    public static CompletableFuture<ImageIcon> preload(String imagePath) {
+        return images.computeIfAbsent(imagePath, path -> CompletableFuture.supplyAsync(() -> decode(path)));
     }
 
     /*
      * REQURIES: imagePath != null
-     * EFFECTS: creates and returns a JLabel with the specified image
+     * EFFECTS: reads and decodes the image at imagePath once and returns it as an icon,
+     *          or null (after reporting it) if it cannot be read
      */
-    private JLabel createImageLabel(String imagePath) {
-        JLabel backgroundImage = new JLabel(new ImageIcon(imagePath));
-        
-        if (new ImageIcon(imagePath).getImageLoadStatus() == MediaTracker.ERRORED) {
-            System.out.println("Image not loaded: " + imagePath);
-            System.out.println(new File(imagePath).getAbsolutePath());
+    private static ImageIcon decode(String imagePath) {
+        try {
+            BufferedImage image = ImageIO.read(new File(imagePath));
+            if (image != null) {
+                StartupPhases.getInstance().mark("imageDecoded");
+                return new ImageIcon(image);
+            }
+        } catch (IOException e) {
+            // reported below, like an unsupported format
         }
-        
-        backgroundImage.setHorizontalAlignment(SwingConstants.CENTER);
 
-        return backgroundImage;
+        System.out.println("Image not loaded: " + imagePath);
+        System.out.println(new File(imagePath).getAbsolutePath());
+        return null;
     }
 }
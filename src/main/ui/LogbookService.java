@@ -0,0 +1,503 @@
+package ui;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import model.Exercise;
+import model.ExerciseDistributions;
+import model.Logbook;
+import model.Muscles;
+import model.SessionDates;
+import model.SetLog;
+import model.WorkoutSession;
+import persistence.AutosaveScheduler;
+
+/*
+ * Represents the headless mode of the application: a small HTTP/JSON service over one logbook,
+ * bound to the loopback interface so only clients on the same machine (e.g. a gym kiosk) can reach it.
+ *
+ *   GET    /health                              session count and version
+ *   GET    /sessions[?date=yyyy/mm/dd|?muscle=M]  all sessions, or those filtered by date or muscle
+ *   GET    /sessions?muscles=M1,M2[&match=all]  sessions working any (or all) of the muscles listed
+ *   GET    /exercises?muscle=M                  all exercises for muscle M
+ *   POST   /exercises                           adds the exercise in the body ("date" plus the fields
+ *                                               of Exercise.toJson) to the session on its date; an
+ *                                               optional "muscles" list (e.g. ["LEGS", "BACK"]) names
+ *                                               every muscle type it works, and an optional "set log"
+ *                                               its sets one by one (e.g. "100x8, 110x5 @8.5 /120s")
+ *   PUT    /exercises?date=D&name=N             updates the fields in the body of exercise N on date D
+ *   DELETE /exercises?date=D&name=N             removes exercise N from the session on date D
+ *   GET    /distributions?name=N                the quantile sketches of the weights and reps of exercise
+ *                                               N by month ("yyyy/mm"), for the client to merge over any
+ *                                               months and read percentiles from
+ *   POST   /save                                saves the logbook now
+ *
+ * Every request runs on its own virtual thread where the JDK has them, and on a pool of platform
+ * threads otherwise. The logbook serializes access to itself, and edits are saved in the background
+ * by autosave. Exercises need a name, a yyyy/mm/dd date and no negative weight, sets or reps; an
+ * update changes every field in its body or, if one is invalid, none of them, and is undone as one edit.
+ */
+public class LogbookService {
+    public static final int DEFAULT_PORT = 8210;
+    private static final int BACKLOG = 1024;
+    private static final int POOL_THREADS_PER_CPU = 8;
+
+    private Logbook logbook;
+    private AutosaveScheduler autosave;
+    private ExerciseDistributions distributions;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /*
+     * EFFECTS: creates a service for logbook listening on the loopback interface at port (0 picks a free
+     *          port); nothing is served until start; throws IOException if the port cannot be bound
+     */
+    public LogbookService(Logbook logbook, int port) throws IOException {
+        this.logbook = logbook;
+        this.autosave = new AutosaveScheduler(logbook);
+        this.distributions = new ExerciseDistributions(logbook);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.createContext("/health", exchange -> serve(exchange, this::health));
+        server.createContext("/sessions", exchange -> serve(exchange, this::sessions));
+        server.createContext("/exercises", exchange -> serve(exchange, this::exercises));
+        server.createContext("/distributions", exchange -> serve(exchange, this::distributions));
+        server.createContext("/save", exchange -> serve(exchange, this::save));
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: starts autosave and serving requests
+     */
+    public void start() {
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        autosave.start();
+        server.start();
+    }
+
+    /*
+     * MODIFIES: this, logbook's file
+     * EFFECTS: stops serving requests, lets those in progress finish, then saves any pending edits;
+     *          throws IOException if that save fails
+     */
+    public void stop() throws IOException {
+        server.stop(1);
+        executor.shutdown();
+        autosave.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /*
+     * EFFECTS: returns an executor that runs every task on a new virtual thread if this JDK has them,
+     *          otherwise a fixed pool of platform threads sized to the machine
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Runtime.getRuntime().availableProcessors() * POOL_THREADS_PER_CPU;
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    /*
+     * EFFECTS: returns the number of sessions and the version of the logbook
+     */
+    private Object health(HttpExchange exchange) {
+        requireMethod(exchange, "GET");
+        JSONObject json = new JSONObject();
+        json.put("sessions", logbook.getSessionCount());
+        json.put("version", logbook.getVersion());
+        return json;
+    }
+
+    /*
+     * EFFECTS: returns all sessions, or those on the date, for the muscle or for any (or all, with
+     *          match=all) of the comma separated muscles given in the query
+     */
+    private Object sessions(HttpExchange exchange) {
+        requireMethod(exchange, "GET");
+        Map<String, String> query = query(exchange);
+        List<WorkoutSession> sessions;
+        if (query.containsKey("date")) {
+            sessions = logbook.filterSessionsByDate(query.get("date"));
+        } else if (query.containsKey("muscle")) {
+            sessions = logbook.filterSessionsByMuscle(muscle(query.get("muscle")));
+        } else if (query.containsKey("muscles")) {
+            sessions = logbook.filterSessionsByMuscles(muscles(Arrays.asList(query.get("muscles").split(","))),
+                    "all".equalsIgnoreCase(query.get("match")));
+        } else {
+            sessions = logbook.getAllSessions();
+        }
+
+        JSONArray json = new JSONArray();
+        for (WorkoutSession session : sessions) {
+            json.put(session.toJson());
+        }
+        return json;
+    }
+
+    /*
+     * EFFECTS: returns the sketches of the weights and reps, by month, of the exercise named in the query
+     */
+    private Object distributions(HttpExchange exchange) {
+        requireMethod(exchange, "GET");
+        return distributions.toJson(required(query(exchange), "name"));
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: lists, adds, updates or removes exercises depending on the request method
+     */
+    private Object exercises(HttpExchange exchange) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                return listExercises(exchange);
+            case "POST":
+                return addExercise(exchange);
+            case "PUT":
+                return updateExercise(exchange);
+            case "DELETE":
+                return removeExercise(exchange);
+            default:
+                throw new HttpError(405, "Method not allowed");
+        }
+    }
+
+    /*
+     * EFFECTS: returns all exercises for the muscle given in the query
+     */
+    private Object listExercises(HttpExchange exchange) {
+        JSONArray json = new JSONArray();
+        for (Exercise exercise : logbook.getAllExercisesByMuscle(muscle(required(query(exchange), "muscle")))) {
+            json.put(exercise.toJson());
+        }
+        return json;
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: adds the exercise in the body to the session on its date, creating the session if needed
+     */
+    private Object addExercise(HttpExchange exchange) throws IOException {
+        JSONObject body = body(exchange);
+        String date = date(body.getString("date"));
+        Exercise exercise = new Exercise(name(body.getString("exercise name")), muscle(body.getString("muscle Type")),
+                count(body, "weight"), count(body, "number of Sets"), count(body, "number of Repetitions"));
+
+        if (body.has("muscles")) {
+            exercise.setMuscles(muscles(body.getJSONArray("muscles").toList()));
+        }
+        if (body.has("set log")) {
+            exercise.setSets(setLog(body));
+        }
+        logbook.getOrAddSession(date).addExercise(exercise);
+        return exercise.toJson();
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: sets the fields present in the body on the exercise named in the query, all of them as
+     *          one edit, once every one of them is known to be valid; a set log in the body is set first,
+     *          and the weight, sets and reps must then agree with the sets logged
+     */
+    private Object updateExercise(HttpExchange exchange) throws IOException {
+        Exercise exercise = findExercise(query(exchange));
+        JSONObject body = body(exchange);
+        SetLog log = body.has("set log") ? setLog(body) : null;
+        List<Consumer<Exercise>> updates = new ArrayList<>();
+        update(updates, body, "exercise name", key -> name(body.getString(key)), Exercise::setExerciseName);
+        update(updates, body, "muscle Type", key -> muscle(body.getString(key)), Exercise::setMuscleType);
+        update(updates, body, "muscles", key -> muscles(body.getJSONArray(key).toList()), Exercise::setMuscles);
+        update(updates, body, "set log", key -> log, Exercise::setSets);
+        update(updates, body, "weight", key -> count(body, key), Exercise::setWeightLifted);
+        update(updates, body, "number of Sets", key -> count(body, key), Exercise::setNumSets);
+        update(updates, body, "number of Repetitions", key -> count(body, key), Exercise::setNumReps);
+        logbook.edit("update " + exercise.getExerciseName(), () -> {
+            requireSummaryOf(log == null ? exercise.getSets() : log, body);
+            updates.forEach(change -> change.accept(exercise));
+        });
+        return exercise.toJson();
+    }
+
+    /*
+     * EFFECTS: throws a 400 HttpError if log has sets and body gives a weight, number of sets or number of
+     *          reps other than the ones of log, which an exercise with the sets of log must keep
+     */
+    private static void requireSummaryOf(SetLog log, JSONObject body) {
+        if (log.isEmpty()) {
+            return;
+        }
+        int top = log.getTopSet();
+        if (body.optInt("weight", log.getWeight(top)) != log.getWeight(top)
+                || body.optInt("number of Sets", log.size()) != log.size()
+                || body.optInt("number of Repetitions", log.getReps(top)) != log.getReps(top)) {
+            throw new HttpError(400, "The weight, sets and reps of an exercise come from its logged sets: "
+                    + log);
+        }
+    }
+
+    /*
+     * MODIFIES: updates
+     * EFFECTS: if body has key, reads its value now with read, which throws if it is invalid, and adds
+     *          setting it with set to updates
+     */
+    private static <T> void update(List<Consumer<Exercise>> updates, JSONObject body, String key,
+                                   Function<String, T> read, BiConsumer<Exercise, T> set) {
+        if (body.has(key)) {
+            T value = read.apply(key);
+            updates.add(exercise -> set.accept(exercise, value));
+        }
+    }
+
+    /*
+     * MODIFIES: logbook
+     * EFFECTS: removes the exercise named in the query from the session on the date in the query
+     */
+    private Object removeExercise(HttpExchange exchange) {
+        Map<String, String> query = query(exchange);
+        WorkoutSession session = findSession(query);
+        if (!session.removeExercise(required(query, "name"))) {
+            throw new HttpError(404, "No exercise " + query.get("name") + " on " + query.get("date"));
+        }
+        return new JSONObject().put("removed", query.get("name"));
+    }
+
+    /*
+     * MODIFIES: logbook's file
+     * EFFECTS: saves the logbook now
+     */
+    private Object save(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        logbook.saveLogBook();
+        return new JSONObject().put("version", logbook.getVersion());
+    }
+
+    /*
+     * EFFECTS: returns the session on the date in query
+     */
+    private WorkoutSession findSession(Map<String, String> query) {
+        WorkoutSession session = logbook.getSessionByDate(required(query, "date"));
+        if (session == null) {
+            throw new HttpError(404, "No session on " + query.get("date"));
+        }
+        return session;
+    }
+
+    /*
+     * EFFECTS: returns the exercise named in query (ignoring case) in the session on the date in query
+     */
+    private Exercise findExercise(Map<String, String> query) {
+        String name = required(query, "name");
+        for (Exercise exercise : findSession(query).getExercises()) {
+            if (exercise.getExerciseName().equalsIgnoreCase(name)) {
+                return exercise;
+            }
+        }
+        throw new HttpError(404, "No exercise " + name + " on " + query.get("date"));
+    }
+
+    /*
+     * MODIFIES: exchange
+     * EFFECTS: runs handler and sends its result as JSON; bad input is answered with 400, missing
+     *          sessions or exercises with 404 and failed saves or any other failure with 500, each with
+     *          an error message, so every request gets a response
+     */
+    private void serve(HttpExchange exchange, Handler handler) throws IOException {
+        try {
+            send(exchange, 200, handler.handle(exchange));
+        } catch (HttpError e) {
+            send(exchange, e.getStatus(), error(e.getMessage()));
+        } catch (JSONException | IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (IOException | RuntimeException e) {
+            send(exchange, 500, error(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /*
+     * MODIFIES: exchange
+     * EFFECTS: sends json with status as the response to exchange
+     */
+    private static void send(HttpExchange exchange, int status, Object json) throws IOException {
+        byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /*
+     * EFFECTS: returns a JSON error with message
+     */
+    private static JSONObject error(String message) {
+        return new JSONObject().put("error", String.valueOf(message));
+    }
+
+    /*
+     * EFFECTS: throws HttpError 405 unless exchange uses method
+     */
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) {
+            throw new HttpError(405, "Method not allowed");
+        }
+    }
+
+    /*
+     * EFFECTS: returns the decoded query parameters of exchange
+     */
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return parameters;
+        }
+        for (String pair : raw.split("&")) {
+            int split = pair.indexOf('=');
+            String key = split < 0 ? pair : pair.substring(0, split);
+            String value = split < 0 ? "" : pair.substring(split + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /*
+     * EFFECTS: returns parameter key of query; throws HttpError 400 if it is missing
+     */
+    private static String required(Map<String, String> query, String key) {
+        String value = query.get(key);
+        if (value == null || value.isEmpty()) {
+            throw new HttpError(400, "Missing query parameter: " + key);
+        }
+        return value;
+    }
+
+    /*
+     * EFFECTS: returns name without surrounding blanks; throws IllegalArgumentException if nothing is left
+     */
+    private static String name(String name) {
+        if (name.isBlank()) {
+            throw new IllegalArgumentException("Exercise name is empty");
+        }
+        return name.trim();
+    }
+
+    /*
+     * EFFECTS: returns date; throws IllegalArgumentException if it is not a calendar date in the form yyyy/mm/dd
+     */
+    private static String date(String date) {
+        if (!SessionDates.isDate(date)) {
+            throw new IllegalArgumentException("Date " + date + " is not in the form yyyy/mm/dd");
+        }
+        return date;
+    }
+
+    /*
+     * EFFECTS: returns the integer key of body; throws JSONException if it is missing or not an integer
+     *          and IllegalArgumentException if it is negative
+     */
+    private static int count(JSONObject body, String key) {
+        int count = body.getInt(key);
+        if (count < 0) {
+            throw new IllegalArgumentException(key + " cannot be negative");
+        }
+        return count;
+    }
+
+    /*
+     * EFFECTS: returns the muscle type called name, in any case; throws IllegalArgumentException if none is
+     */
+    private static Muscles muscle(String name) {
+        return Muscles.valueOf(name.trim().toUpperCase());
+    }
+
+    /*
+     * EFFECTS: returns the muscle types called names, in any case; throws IllegalArgumentException if
+     *          one is not a muscle type or there are none
+     */
+    private static EnumSet<Muscles> muscles(List<?> names) {
+        EnumSet<Muscles> muscles = EnumSet.noneOf(Muscles.class);
+        for (Object name : names) {
+            muscles.add(muscle(name.toString()));
+        }
+        if (muscles.isEmpty()) {
+            throw new IllegalArgumentException("No muscle types given");
+        }
+        return muscles;
+    }
+
+    /*
+     * EFFECTS: returns the "set log" of body, written as text (e.g. "100x8, 110x5") or as the array
+     *          Exercise.toJson writes (e.g. [[100, 8, 0, 0], [110, 5, 85, 120]]); throws
+     *          IllegalArgumentException or JSONException if it is neither
+     */
+    private static SetLog setLog(JSONObject body) {
+        Object setLog = body.get("set log");
+        return setLog instanceof String ? SetLog.parse((String) setLog) : SetLog.fromJson(body.getJSONArray("set log"));
+    }
+
+    /*
+     * EFFECTS: returns the body of exchange as a JSON object
+     */
+    private static JSONObject body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /*
+     * Represents the work behind one route; returns the JSON to send back
+     */
+    private interface Handler {
+        Object handle(HttpExchange exchange) throws IOException;
+    }
+
+    /*
+     * Represents a request that cannot be served, with the HTTP status that says why
+     */
+    private static class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+}
@@ -1,7 +1,54 @@
 package ui;
 
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+import javax.swing.SwingUtilities;
+
+import metrics.StartupPhases;
+import model.EventLog;
+import model.Logbook;
+
 public class Main {
+    private static final String LOG_FILE = "./data/fitness_log.json";
+    private static final int SERVICE_EVENT_LOG_LIMIT = 10000;   // events kept by a long-running service
+
+    // EFFECTS: starts the Swing application on the event dispatch thread, or with --headless [port] [file]
+    // the HTTP service over the logbook in file (by default the application's own) on the loopback interface
     public static void main(String[] args) throws Exception {
-        new FitnessRecordUI();
+        if (args.length > 0 && args[0].equals("--headless")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : LogbookService.DEFAULT_PORT;
+            startService(port, args.length > 2 ? args[2] : LOG_FILE);
+        } else {
+            StartupPhases.getInstance().mark("main");
+            FitnessRecordUI.preloadAssets();
+            SwingUtilities.invokeLater(FitnessRecordUI::new);
+        }
+    }
+
+    // EFFECTS: loads the logbook in file and serves it at port until the process is stopped,
+    // saving pending edits on the way out; throws IOException, serving nothing, if file exists but cannot
+    // be loaded, so that it is never overwritten. The event log keeps only its most recent events, so it
+    // stays bounded however many requests are served
+    private static void startService(int port, String file) throws IOException {
+        EventLog.getInstance().limitTo(SERVICE_EVENT_LOG_LIMIT);
+        Logbook logbook = new Logbook(file);
+        logbook.setReadParallelism(Runtime.getRuntime().availableProcessors());
+        try {
+            logbook.loadLogBook();
+        } catch (NoSuchFileException e) {
+            System.out.println("No existing log file found. Starting fresh.");
+        }
+
+        LogbookService service = new LogbookService(logbook, port);
+        service.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                service.stop();
+            } catch (IOException e) {
+                System.out.println("Unable to save your latest changes: " + e.getMessage());
+            }
+        }));
+        System.out.println("Serving " + file + " on http://localhost:" + service.getPort());
     }
 }
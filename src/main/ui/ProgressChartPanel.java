@@ -0,0 +1,126 @@
+package ui;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.*;
+
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import model.Muscles;
+import model.ProgressHistory;
+import model.ProgressPoint;
+
+/*
+ * Represents a line chart of the progress of one exercise or muscle type over its whole history:
+ * the heaviest weight or the total volume per stretch of time. Every repaint asks the progress history
+ * for about one point per pixel of plot width, so a resize redraws from its precomputed rollups
+ */
+public class ProgressChartPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final int MARGIN = 40;
+    private static final Timer PAINT_TIMER = MetricsRegistry.getInstance().timer("ui.chart.paint");
+
+    private ProgressHistory history;
+    private String exerciseName;    // the exercise charted, or null if a muscle type is
+    private Muscles muscle;         // the muscle type charted, or null if an exercise is
+    private boolean volume;         // true to chart the volume instead of the heaviest weight
+
+    /*
+     * EFFECTS: creates an empty chart of the progress in history
+     */
+    public ProgressChartPanel(ProgressHistory history) {
+        this.history = history;
+        setPreferredSize(new Dimension(560, 320));
+        setBackground(Color.WHITE);
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: charts the progress of exerciseName, its volume if volume is true and otherwise its weight
+     */
+    public void showExercise(String exerciseName, boolean volume) {
+        this.exerciseName = exerciseName;
+        this.muscle = null;
+        this.volume = volume;
+        repaint();
+    }
+
+    /*
+     * MODIFIES: this
+     * EFFECTS: charts the progress of muscle, its volume if volume is true and otherwise its weight
+     */
+    public void showMuscle(Muscles muscle, boolean volume) {
+        this.exerciseName = null;
+        this.muscle = muscle;
+        this.volume = volume;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        long start = PAINT_TIMER.start();
+        int width = getWidth() - 2 * MARGIN;
+        int height = getHeight() - 2 * MARGIN;
+        if (width > 0 && height > 0) {
+            List<ProgressPoint> points = pointsFor(width);
+            if (points.isEmpty()) {
+                g.drawString("Nothing to chart yet.", MARGIN, MARGIN);
+            } else {
+                drawChart(g, points, width, height);
+            }
+        }
+        PAINT_TIMER.stop(start);
+    }
+
+    /*
+     * EFFECTS: returns at most width points of what is charted
+     */
+    private List<ProgressPoint> pointsFor(int width) {
+        if (exerciseName != null) {
+            return history.getExerciseProgress(exerciseName, width);
+        } else if (muscle != null) {
+            return history.getMuscleProgress(muscle, width);
+        }
+        return new ArrayList<>();
+    }
+
+    /*
+     * REQUIRES: points is not empty, width > 0, height > 0
+     * MODIFIES: g
+     * EFFECTS: draws the axes, their labels and a line through points scaled to width x height
+     */
+    private void drawChart(Graphics g, List<ProgressPoint> points, int width, int height) {
+        long firstDay = points.get(0).getEpochDay();
+        long span = Math.max(1, points.get(points.size() - 1).getEpochDay() - firstDay);
+        long top = 1;
+        for (ProgressPoint point : points) {
+            top = Math.max(top, valueOf(point));
+        }
+
+        int[] xs = new int[points.size()];
+        int[] ys = new int[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = MARGIN + (int) ((points.get(i).getEpochDay() - firstDay) * width / span);
+            ys[i] = MARGIN + height - (int) (valueOf(points.get(i)) * height / top);
+        }
+
+        g.setColor(Color.GRAY);
+        g.drawLine(MARGIN, MARGIN, MARGIN, MARGIN + height);
+        g.drawLine(MARGIN, MARGIN + height, MARGIN + width, MARGIN + height);
+        g.drawString(top + " kg" + (volume ? " volume" : ""), 5, MARGIN - 10);
+        g.drawString(points.get(0).getDate().toString(), MARGIN, MARGIN + height + 20);
+        g.drawString(points.get(points.size() - 1).getDate().toString(), MARGIN + width - 70, MARGIN + height + 20);
+        g.setColor(Color.BLUE);
+        g.drawPolyline(xs, ys, points.size());
+    }
+
+    /*
+     * EFFECTS: returns the charted value of point
+     */
+    private long valueOf(ProgressPoint point) {
+        return volume ? point.getVolume() : point.getMaxWeight();
+    }
+}
@@ -0,0 +1,68 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.EventLog;
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class DiagnosticsTest {
+
+    @Test
+    void testRegisteredBeansExposeTheLogbook(@TempDir Path directory) throws JMException {
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession session = new WorkoutSession("2025/11/01");
+        session.addExercise(new Exercise("Squat", Muscles.LEGS, 100, 5, 5));
+        logbook.addSession(session);
+        assertTrue(Diagnostics.registerAll(logbook, null));
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName logbookName = new ObjectName("fitnessrecord:type=Logbook");
+        assertEquals(1, server.getAttribute(logbookName, "SessionCount"));
+        assertEquals(1, server.getAttribute(logbookName, "ExerciseCount"));
+        assertEquals(true, server.getAttribute(logbookName, "IndexConsistent"));
+        assertEquals(true, server.getAttribute(logbookName, "Dirty"));
+
+        server.invoke(logbookName, "save", null, null);
+        assertEquals(false, server.getAttribute(logbookName, "Dirty"));
+        assertTrue(Files.exists(directory.resolve("log.json")));
+
+        ObjectName persistenceName = new ObjectName("fitnessrecord:type=Persistence");
+        assertTrue((Long) server.getAttribute(persistenceName, "StoreBytes") > 0);
+        assertTrue((Double) server.getAttribute(persistenceName, "LastSaveMillis") > 0);
+    }
+
+    @Test
+    void testEventLogBeanTrims() throws JMException {
+        assertTrue(Diagnostics.register(new EventLogDiagnostics(), "EventLog"));
+        EventLog.getInstance().clear();
+
+        ObjectName name = new ObjectName("fitnessrecord:type=EventLog");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1, server.getAttribute(name, "Size"));
+        assertEquals(1, server.invoke(name, "trim", new Object[] {0}, new String[] {"int"}));
+        assertEquals(0, EventLog.getInstance().size());
+    }
+
+    @Test
+    void testPersistenceBeanWithoutSave(@TempDir Path directory) {
+        PersistenceDiagnostics diagnostics =
+                new PersistenceDiagnostics(new Logbook(directory.resolve("none.json").toString()), null);
+        assertEquals(0, diagnostics.getStoreBytes());
+        assertEquals(0, diagnostics.getAutosaveCount());
+        assertEquals("", diagnostics.getLastAutosaveError());
+    }
+}
@@ -0,0 +1,72 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class FlightEventsTest {
+
+    @Test
+    void testLogbookOperationsAreRecorded(@TempDir Path directory) throws IOException {
+        Path dump = directory.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("fitnessrecord.LogbookLoad");
+            recording.enable("fitnessrecord.LogbookSave");
+            recording.enable("fitnessrecord.LogbookQuery");
+            recording.start();
+
+            Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+            WorkoutSession session = new WorkoutSession("2025/11/01");
+            session.addExercise(new Exercise("Squat", Muscles.LEGS, 100, 5, 5));
+            logbook.addSession(session);
+            logbook.saveLogBook();
+            logbook.loadLogBook();
+            logbook.filterSessionsByMuscle(Muscles.LEGS);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent save = find(events, "fitnessrecord.LogbookSave");
+        assertEquals(1, save.getInt("sessions"));
+        assertEquals(1, save.getInt("changes"));
+        assertTrue(save.getLong("bytes") > 0);
+
+        RecordedEvent load = find(events, "fitnessrecord.LogbookLoad");
+        assertEquals(1, load.getInt("exercises"));
+        assertEquals(save.getLong("bytes"), load.getLong("bytes"));
+
+        RecordedEvent query = find(events, "fitnessrecord.LogbookQuery");
+        assertEquals("filterSessionsByMuscle", query.getString("query"));
+        assertEquals("LEGS", query.getString("argument"));
+        assertEquals(1, query.getInt("results"));
+    }
+
+    // EFFECTS: returns the one event called name in events
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        RecordedEvent found = null;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                assertNull(found, "more than one " + name);
+                found = event;
+            }
+        }
+        assertNotNull(found, "no " + name);
+        return found;
+    }
+}
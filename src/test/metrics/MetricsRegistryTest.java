@@ -0,0 +1,111 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class MetricsRegistryTest {
+
+    @Test
+    void testCounter() {
+        Counter counter = MetricsRegistry.getInstance().counter("test.counter");
+        long before = counter.getCount();
+        counter.increment();
+        counter.add(4);
+        assertEquals(before + 5, counter.getCount());
+        assertSame(counter, MetricsRegistry.getInstance().counter("test.counter"));
+    }
+
+    @Test
+    void testTimer() {
+        Timer timer = new Timer();
+        timer.record(100);
+        timer.record(300);
+        timer.record(5000);
+
+        assertEquals(3, timer.getCount());
+        assertEquals(5400, timer.getTotalNanos());
+        assertEquals(1800, timer.getMeanNanos());
+        assertEquals(5000, timer.getMaxNanos());
+        assertEquals(511, timer.getPercentileNanos(0.5));   // 300 lies in the bucket [256, 512)
+        assertEquals(5000, timer.getPercentileNanos(0.99)); // never above the largest sample
+
+        timer.reset();
+        assertEquals(0, timer.getCount());
+        assertEquals(0, timer.getPercentileNanos(0.5));
+    }
+
+    @Test
+    void testHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(15, histogram.getPercentile(0.5));
+        assertEquals(15, histogram.getPercentile(0.99));
+        assertEquals((1L << 20) - 1, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void testLogbookIsInstrumented(@TempDir Path directory) throws IOException {
+        Timer save = MetricsRegistry.getInstance().timer("logbook.save");
+        Timer query = MetricsRegistry.getInstance().timer("logbook.query.filterByMuscle");
+        Timer read = MetricsRegistry.getInstance().timer("persistence.read");
+        long saves = save.getCount();
+        long queries = query.getCount();
+        long reads = read.getCount();
+
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        logbook.addSession(new WorkoutSession("2025/11/01"));
+        logbook.saveLogBook();
+        logbook.filterSessionsByMuscle(Muscles.CHEST);
+        logbook.loadLogBook();
+
+        assertEquals(saves + 1, save.getCount());
+        assertEquals(queries + 1, query.getCount());
+        assertEquals(reads + 1, read.getCount());
+    }
+
+    @Test
+    void testExportTo(@TempDir Path directory) throws IOException {
+        MetricsRegistry.getInstance().timer("test.export").record(2000);
+        Path file = directory.resolve("metrics.json");
+
+        MetricsExporter exporter = new MetricsExporter(MetricsRegistry.getInstance());
+        exporter.exportTo(file.toString());
+
+        JSONArray snapshot = new JSONArray(Files.readString(file));
+        JSONObject timer = null;
+        for (Object json : snapshot) {
+            if ("test.export".equals(((JSONObject) json).getString("name"))) {
+                timer = (JSONObject) json;
+            }
+        }
+        assertNotNull(timer);
+        assertEquals("timer", timer.getString("type"));
+        assertTrue(timer.getLong("count") >= 1);
+        assertTrue(exporter.getTimerCounts().containsKey("test.export"));
+    }
+
+    @Test
+    void testRegister() {
+        MetricsExporter exporter = new MetricsExporter(MetricsRegistry.getInstance());
+        assertTrue(exporter.register());
+        assertTrue(exporter.register()); // replaces the exporter registered before
+    }
+}
@@ -0,0 +1,27 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class StartupPhasesTest {
+
+    @Test
+    void testPhasesAreRecordedOnceInOrder() {
+        StartupPhases phases = StartupPhases.getInstance();
+        phases.mark("testFirst");
+        phases.mark("testSecond");
+        long first = phases.getPhaseMillis().get("testFirst");
+        phases.mark("testFirst");
+
+        Map<String, Long> millis = phases.getPhaseMillis();
+        assertEquals(first, millis.get("testFirst"));
+        assertTrue(millis.get("testSecond") >= first);
+        List<String> order = List.copyOf(millis.keySet());
+        assertTrue(order.indexOf("testFirst") < order.indexOf("testSecond"));
+        assertEquals(1, MetricsRegistry.getInstance().timer("startup.testFirst").getCount());
+    }
+}
@@ -0,0 +1,128 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EditJournalTest {
+    private Logbook logbook;
+    private WorkoutSession session;
+    private Exercise squat;
+    private Exercise lunge;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        session = new WorkoutSession("2025/10/06");
+        squat = new Exercise("Squat", Muscles.LEGS, 100, 5, 5);
+        lunge = new Exercise("Lunge", Muscles.LEGS, 40, 3, 10);
+        session.addExercise(squat);
+        session.addExercise(lunge);
+        logbook.addSession(session);
+    }
+
+    @Test
+    void testUndoRedoFieldChange() {
+        squat.setWeightLifted(120);
+        squat.setMuscleType(Muscles.BACK);
+        assertEquals("edit Squat", logbook.getUndoDescription());
+
+        assertEquals("edit Squat", logbook.undo());
+        assertEquals(Muscles.LEGS, squat.getMuscleType());
+        assertEquals(2, logbook.getAllExercisesByMuscle(Muscles.LEGS).size());
+        logbook.undo();
+        assertEquals(100, squat.getWeightLifted());
+        assertEquals(100, logbook.snapshot().getSessions().get(0).getExercises().get(0).getWeightLifted());
+
+        assertEquals("edit Squat", logbook.redo());
+        assertEquals(120, squat.getWeightLifted());
+        assertEquals(Muscles.LEGS, squat.getMuscleType());
+    }
+
+    @Test
+    void testUndoRemoveRestoresPosition() {
+        session.removeExercise("squat");
+        assertEquals("remove Squat on 2025/10/06", logbook.undo());
+        assertSame(squat, session.getExercises().get(0));
+        assertEquals(2, session.getExercises().size());
+
+        logbook.redo();
+        assertEquals(List.of(lunge), session.getExercises());
+        assertNull(logbook.redo());
+    }
+
+    @Test
+    void testUndoGroupedAddAndMove() {
+        Exercise bench = new Exercise("Bench press", Muscles.CHEST, 80, 3, 8);
+        logbook.edit("add bench", () -> logbook.getOrAddSession("2025/10/07").addExercise(bench));
+        session.setDate("2025/10/08");
+
+        assertEquals("move 2025/10/06 to 2025/10/08", logbook.undo());
+        assertSame(session, logbook.getSessionByDate("2025/10/06"));
+        assertEquals("add bench", logbook.undo());
+        assertNull(logbook.getSessionByDate("2025/10/07"));
+        assertEquals(1, logbook.getSessionCount());
+        assertEquals(1, logbook.snapshot().getSessionCount());
+        assertTrue(logbook.isIndexConsistent());
+
+        logbook.redo();
+        assertSame(bench, logbook.getSessionByDate("2025/10/07").getExercises().get(0));
+        assertTrue(logbook.isIndexConsistent());
+    }
+
+    @Test
+    void testUndoClearAndListeners() {
+        PersonalRecordTracker tracker = new PersonalRecordTracker(logbook);
+        logbook.clearLogbook();
+        assertNull(tracker.getBestWeight("squat"));
+
+        assertEquals("clear logbook", logbook.undo());
+        assertSame(session, logbook.getSessionByDate("2025/10/06"));
+        assertEquals(100, tracker.getBestWeight("squat").getWeight());
+
+        assertEquals("add session 2025/10/06", logbook.undo());
+        assertNull(tracker.getBestWeight("squat"));
+        assertEquals(0, logbook.getSessionCount());
+    }
+
+    @Test
+    void testUndoBulkAddAtOnce() {
+        squat.setWeightLifted(120);
+        List<Exercise> imported = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            imported.add(new Exercise("Curl " + i, Muscles.BICEPS, 20, 3, 10));
+        }
+        session.addExercises(imported);
+        assertEquals(152, session.getExercises().size());
+        assertEquals("add 150 exercises on 2025/10/06", logbook.undo());
+        assertEquals(List.of(squat, lunge), session.getExercises());
+        assertTrue(logbook.isIndexConsistent());
+
+        assertEquals("edit Squat", logbook.undo());
+        assertEquals(100, squat.getWeightLifted());
+    }
+
+    @Test
+    void testUndoManySessionsAndLimit() {
+        for (int i = 0; i < 150; i++) {
+            logbook.addSession(WorkoutSession.restore("2024/01/" + (i % 28 + 1), List.of()));
+        }
+        assertEquals(100, logbook.getUndoCount());
+        logbook.checkpoint();
+
+        while (logbook.undo() != null) {
+            assertTrue(logbook.isIndexConsistent());
+        }
+        assertEquals(51, logbook.getSessionCount());
+        assertEquals(51, logbook.snapshot().getSessionCount());
+        assertTrue(logbook.isDirty());
+
+        logbook.redo();
+        squat.setNumSets(4);
+        assertNull(logbook.getRedoDescription());
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExerciseDistributionsTest {
+    private static final LocalDate JANUARY = LocalDate.of(2025, 1, 15);
+    private static final LocalDate MARCH = LocalDate.of(2025, 3, 31);
+
+    private Logbook logbook;
+    private ExerciseDistributions distributions;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        distributions = new ExerciseDistributions(logbook);
+    }
+
+    @Test
+    void testPercentilesByMonth() {
+        logbook.addSession(WorkoutSession.restore("2025/01/05",
+                List.of(Exercise.restore("Squat", Muscles.LEGS, 100, 5, 5))));
+        logbook.addSession(WorkoutSession.restore("2025/02/05",
+                List.of(Exercise.restore("Squat", Muscles.LEGS, 110, 5, 5))));
+        Exercise logged = new Exercise("squat", Muscles.LEGS);
+        logged.setSets(SetLog.parse("120x5, 130x3, 140x1"));
+        logbook.getSessionByDate("2025/02/05").addExercise(logged);
+
+        assertEquals(5 + 5 + 3, distributions.getWeights("SQUAT", JANUARY, MARCH).getCount());
+        assertEquals(110, distributions.getWeightPercentile("Squat", JANUARY, MARCH, 0.5));
+        assertEquals(100, distributions.getWeightPercentile("Squat", JANUARY, MARCH, 0));
+        assertEquals(140, distributions.getWeightPercentile("Squat", JANUARY, MARCH, 1));
+        assertEquals(1, distributions.getRepsPercentile("Squat", JANUARY, MARCH, 0));
+        assertEquals(100, distributions.getWeightPercentile("Squat", JANUARY, JANUARY, 1));
+        assertTrue(Double.isNaN(distributions.getWeightPercentile("Squat", MARCH, MARCH, 0.5)));
+        assertTrue(Double.isNaN(distributions.getWeightPercentile("Deadlift", JANUARY, MARCH, 0.5)));
+    }
+
+    @Test
+    void testFollowsChanges() {
+        Exercise squat = Exercise.restore("Squat", Muscles.LEGS, 100, 5, 5);
+        logbook.addSession(WorkoutSession.restore("2025/01/05", List.of(squat)));
+        logbook.addSession(WorkoutSession.restore("2025/01/06",
+                List.of(Exercise.restore("Squat", Muscles.LEGS, 90, 5, 5))));
+
+        squat.setWeightLifted(150);
+        assertEquals(150, distributions.getWeightPercentile("Squat", JANUARY, JANUARY, 1));
+        assertEquals(10, distributions.getWeights("Squat", JANUARY, JANUARY).getCount());
+        squat.setSets(SetLog.parse("150x5, 150x5, 150x5, 150x5, 150x5"));
+        assertEquals(10, distributions.getWeights("Squat", JANUARY, JANUARY).getCount());
+        assertEquals(150, distributions.getWeightPercentile("Squat", JANUARY, JANUARY, 0.6));
+
+        squat.setExerciseName("Front squat");
+        assertEquals(90, distributions.getWeightPercentile("Squat", JANUARY, JANUARY, 1));
+        assertEquals(150, distributions.getWeightPercentile("Front squat", JANUARY, JANUARY, 1));
+
+        logbook.getSessionByDate("2025/01/06").setDate("2025/03/06");
+        assertEquals(0, distributions.getWeights("Squat", JANUARY, JANUARY).getCount());
+        assertEquals(90, distributions.getWeightPercentile("Squat", MARCH, MARCH, 0.5));
+
+        logbook.removeSession(logbook.getSessionByDate("2025/03/06"));
+        assertTrue(distributions.toJson("Squat").isEmpty());
+        assertEquals(1, distributions.toJson("front squat").length());
+
+        logbook.clearLogbook();
+        assertTrue(distributions.toJson("Front squat").isEmpty());
+    }
+}
@@ -2,6 +2,8 @@ package model;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.EnumSet;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -52,4 +54,53 @@ public class ExerciseTest {
         assertEquals(40, exercise.getWeightLifted());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetVolume() {
+        assertEquals(0, exercise.getVolume());
+        exercise = new Exercise("Squat", Muscles.LEGS, 100000, 100, 1000);
+        assertEquals(10000000000L, exercise.getVolume());
+    }
+
+    @Test
+    void testMuscles() {
+        assertEquals(EnumSet.of(Muscles.LEGS), exercise.getMuscles());
+        assertEquals(Muscles.LEGS.bit(), exercise.getMuscleMask());
+        assertFalse(exercise.toJson().has("muscles"));
+
+        exercise.setMuscles(EnumSet.of(Muscles.BACK, Muscles.LEGS));
+        assertEquals(Muscles.LEGS, exercise.getMuscleType());
+        assertEquals(Muscles.LEGS.bit() | Muscles.BACK.bit(), exercise.toJson().getInt("muscles"));
+
+        exercise.setMuscleType(Muscles.CHEST);
+        assertEquals(EnumSet.of(Muscles.CHEST, Muscles.BACK), exercise.getMuscles());
+
+        exercise.setMuscles(EnumSet.of(Muscles.SHOULDERS, Muscles.BACK));
+        assertEquals(Muscles.SHOULDERS, exercise.getMuscleType());
+        assertEquals(EnumSet.of(Muscles.SHOULDERS, Muscles.BACK), Muscles.fromMask(exercise.getMuscleMask()));
+    }
+
+    @Test
+    void testSetLog() {
+        exercise.addSet(50, 12, 0, 90);
+        exercise.addSet(60, 10, 0, 90);
+        exercise.addSet(60, 8, 90, 0);
+        assertEquals(60, exercise.getWeightLifted());
+        assertEquals(3, exercise.getNumSets());
+        assertEquals(10, exercise.getNumReps());
+        assertEquals(600 + 600 + 480, exercise.getVolume());
+        assertEquals(3, exercise.toJson().getJSONArray("set log").length());
+
+        exercise.setNumSets(3);
+        assertEquals(3, exercise.getSets().size());
+        assertThrows(IllegalArgumentException.class, () -> exercise.setNumReps(9));
+        assertThrows(IllegalArgumentException.class, () -> exercise.setWeightLifted(65));
+        assertEquals(10, exercise.getNumReps());
+        assertEquals(3, exercise.getSets().size());
+
+        exercise.setSets(SetLog.EMPTY);
+        exercise.setWeightLifted(65);
+        assertTrue(exercise.getSets().isEmpty());
+        assertEquals(65 * 3 * 10, exercise.getVolume());
+        assertFalse(exercise.toJson().has("set log"));
+    }
+}
@@ -3,6 +3,11 @@ package model;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+import java.util.EnumSet;
 import java.util.List;
 
 public class LogBookTest {
@@ -88,4 +93,226 @@ public class LogBookTest {
         logbook.clearLogbook();
         assertTrue(logbook.getAllSessions().isEmpty());
     }
+
+    @Test
+    void testChangesAreTracked() {
+        assertTrue(logbook.isDirty());
+        logbook.checkpoint();
+        assertFalse(logbook.isDirty());
+        assertTrue(logbook.getChangeSet().isEmpty());
+
+        long version = logbook.getVersion();
+        legEx.setWeightLifted(260);
+        assertTrue(logbook.getVersion() > version);
+        assertTrue(logbook.isDirty());
+        assertEquals(List.of(session2), logbook.getChangeSet().getModifiedSessions());
+
+        session1.setDate("2025/10/02");
+        ChangeSet changes = logbook.getChangeSet();
+        assertEquals(List.of(session2, session1), changes.getModifiedSessions());
+        assertTrue(changes.getStaleDates().contains("2025/10/01"));
+    }
+
+    @Test
+    void testRemovedExerciseIsNoLongerTracked() {
+        session1.removeExercise("Bench press");
+        logbook.checkpoint();
+
+        chestEx.setNumReps(12);
+        assertFalse(logbook.isDirty());
+    }
+
+    @Test
+    void testClearMarksDatesStale() {
+        logbook.checkpoint();
+        logbook.clearLogbook();
+        assertTrue(logbook.getChangeSet().getStaleDates().containsAll(List.of("2025/10/01", "2025/10/03")));
+
+        session1.addExercise(new Exercise("Dip", Muscles.TRICEPS, 20, 3, 10));
+        assertTrue(logbook.getChangeSet().getModifiedSessions().isEmpty());
+    }
+
+    @Test
+    void testDateIndexFollowsSetDate() {
+        session1.setDate("2025/10/05");
+        assertNull(logbook.getSessionByDate("2025/10/01"));
+        assertEquals(session1, logbook.getSessionByDate("2025/10/05"));
+
+        WorkoutSession sameDay = new WorkoutSession("2025/10/03");
+        logbook.addSession(sameDay);
+        assertEquals(session2, logbook.getSessionByDate("2025/10/03"));
+        assertEquals(List.of(session2, sameDay), logbook.filterSessionsByDate("2025/10/03"));
+    }
+
+    @Test
+    void testAddSessions() {
+        WorkoutSession restored = WorkoutSession.restore("2025/10/07", List.of(Exercise.restore("dip",
+                Muscles.TRICEPS, 20, 3, 10)));
+        logbook.checkpoint();
+        logbook.addSessions(List.of(restored));
+
+        assertEquals(3, logbook.getAllSessions().size());
+        assertEquals(restored, logbook.getSessionByDate("2025/10/07"));
+        assertEquals(List.of(restored), logbook.getChangeSet().getModifiedSessions());
+        assertEquals("Dip", restored.getExercises().get(0).getExerciseName());
+    }
+
+    @Test
+    void testCountsAndCompact() {
+        session2.setDate("2025/10/01");
+        assertEquals(2, logbook.getSessionCount());
+        assertEquals(3, logbook.getExerciseCount());
+        assertEquals(1, logbook.getIndexedDateCount());
+        assertTrue(logbook.isIndexConsistent());
+
+        logbook.compact();
+        assertEquals(1, logbook.getIndexedDateCount());
+        assertTrue(logbook.isIndexConsistent());
+        assertEquals(0, logbook.getCachedJsonCount());
+        assertEquals(session1, logbook.getSessionByDate("2025/10/01"));
+    }
+
+    @Test
+    void testQueryCacheServesRepeatedFilters() {
+        Counter hits = MetricsRegistry.getInstance().counter("logbook.queryCache.hits");
+        long hitsBefore = hits.getCount();
+        List<WorkoutSession> first = logbook.filterSessionsByMuscle(Muscles.CHEST);
+        first.clear();
+        assertEquals(List.of(session1), logbook.filterSessionsByMuscle(Muscles.CHEST));
+        assertEquals(hitsBefore + 1, hits.getCount());
+
+        assertEquals(List.of(legEx), logbook.getAllExercisesByMuscle(Muscles.LEGS));
+        assertEquals(List.of(session2), logbook.filterSessionsByDate("2025/10/03"));
+        assertEquals(3, logbook.getCachedQueryCount());
+    }
+
+    @Test
+    void testQueryCacheInvalidatedByMuscle() {
+        assertEquals(List.of(session1), logbook.filterSessionsByMuscle(Muscles.CHEST));
+        assertEquals(List.of(legEx), logbook.getAllExercisesByMuscle(Muscles.LEGS));
+
+        Exercise fly = new Exercise("Fly", Muscles.CHEST, 30, 3, 12);
+        session2.addExercise(fly);
+        assertEquals(List.of(session1, session2), logbook.filterSessionsByMuscle(Muscles.CHEST));
+
+        legEx.setMuscleType(Muscles.CHEST);
+        assertEquals(List.of(), logbook.getAllExercisesByMuscle(Muscles.LEGS));
+        assertEquals(List.of(chestEx, legEx, fly), logbook.getAllExercisesByMuscle(Muscles.CHEST));
+
+        session1.removeExercise("Bench Press");
+        assertEquals(List.of(session2), logbook.filterSessionsByMuscle(Muscles.CHEST));
+
+        WorkoutSession session3 = new WorkoutSession("2025/10/05");
+        session3.addExercise(new Exercise("Lunge", Muscles.LEGS, 40, 3, 10));
+        logbook.addSession(session3);
+        assertEquals(List.of(session3), logbook.filterSessionsByMuscle(Muscles.LEGS));
+    }
+
+    @Test
+    void testQueryCacheInvalidatedByDate() {
+        assertEquals(List.of(), logbook.filterSessionsByDate("2025/10/04"));
+        session2.setDate("2025/10/04");
+        assertEquals(List.of(session2), logbook.filterSessionsByDate("2025/10/04"));
+        assertEquals(List.of(), logbook.filterSessionsByDate("2025/10/03"));
+
+        logbook.clearLogbook();
+        assertEquals(0, logbook.getCachedQueryCount());
+        assertEquals(List.of(), logbook.filterSessionsByDate("2025/10/04"));
+        assertEquals(List.of(), logbook.filterSessionsByMuscle(Muscles.BACK));
+    }
+
+    @Test
+    void testEventLogTrim() {
+        EventLog log = EventLog.getInstance();
+        log.logEvent(new Event("first"));
+        log.logEvent(new Event("last"));
+
+        assertTrue(log.size() >= 2);
+        assertEquals(log.size() - 1, log.trim(1));
+        assertEquals(1, log.size());
+        assertEquals("last", log.iterator().next().getDescription());
+        assertEquals(0, log.trim(5));
+    }
+
+    @Test
+    void testEventLogLimit() {
+        EventLog log = EventLog.getInstance();
+        try {
+            log.limitTo(2);
+            log.logEvent(new Event("first"));
+            log.logEvent(new Event("second"));
+            log.logEvent(new Event("third"));
+            assertEquals(2, log.size());
+            assertEquals("second", log.iterator().next().getDescription());
+        } finally {
+            log.limitTo(Integer.MAX_VALUE);
+        }
+        log.logEvent(new Event("fourth"));
+        assertEquals(3, log.size());
+    }
+
+    @Test
+    void testRenameAndRecategorizeInOnePass() {
+        session2.addExercise(new Exercise("bench press", Muscles.CHEST, 160, 3, 3));
+        long version = logbook.getVersion();
+        int undoCount = logbook.getUndoCount();
+        String name = chestEx.getExerciseName();
+        assertEquals(2, logbook.renameExercise("Bench Press", "Bench"));
+        assertEquals(version + 1, logbook.getVersion());
+        assertEquals("Bench", chestEx.getExerciseName());
+        assertEquals(undoCount + 1, logbook.getUndoCount());
+
+        assertEquals(2, logbook.recategorizeExercise("bench", Muscles.SHOULDERS));
+        assertEquals(0, logbook.recategorizeExercise("bench", Muscles.SHOULDERS));
+        assertTrue(logbook.getAllExercisesByMuscle(Muscles.CHEST).isEmpty());
+        assertEquals(2, logbook.getAllExercisesByMuscle(Muscles.SHOULDERS).size());
+
+        logbook.undo();
+        logbook.undo();
+        assertEquals(name, chestEx.getExerciseName());
+        assertEquals(2, logbook.getAllExercisesByMuscle(Muscles.CHEST).size());
+    }
+
+    @Test
+    void testRemoveExercisesIfKeepsSessions() {
+        assertEquals(2, logbook.removeExercisesIf((date, exercise) -> exercise.getWeightLifted() > 100));
+        assertEquals(List.of(backEx), session1.getExercises());
+        assertTrue(session2.getExercises().isEmpty());
+        assertEquals(2, logbook.getSessionCount());
+        assertEquals("remove exercises", logbook.undo());
+        assertEquals(List.of(chestEx, backEx), session1.getExercises());
+        assertEquals(List.of(legEx), session2.getExercises());
+    }
+
+    @Test
+    void testShiftDates() {
+        logbook.addSession(new WorkoutSession("someday"));
+        assertEquals(2, logbook.shiftDates("2025/09/30", "2025/10/03", 30));
+        assertEquals("2025/10/31", session1.getDate());
+        assertEquals("2025/11/02", session2.getDate());
+        assertEquals(session2, logbook.getSessionByDate("2025/11/02"));
+        assertNull(logbook.getSessionByDate("2025/10/01"));
+        assertEquals(0, logbook.shiftDates("2026/01/01", "2026/12/31", 1));
+
+        logbook.undo();
+        assertEquals(session1, logbook.getSessionByDate("2025/10/01"));
+        assertEquals("2025/10/03", session2.getDate());
+    }
+
+    @Test
+    void testFilterByMuscleMasks() {
+        legEx.setMuscles(EnumSet.of(Muscles.LEGS, Muscles.BACK));
+        assertEquals(List.of(session1, session2), logbook.filterSessionsByMuscle(Muscles.BACK));
+        assertEquals(List.of(legEx), logbook.getAllExercisesByMuscles(EnumSet.of(Muscles.LEGS, Muscles.BACK), true));
+
+        assertEquals(List.of(session1, session2),
+                logbook.filterSessionsByMuscles(EnumSet.of(Muscles.CHEST, Muscles.LEGS), false));
+        assertEquals(List.of(session1),
+                logbook.filterSessionsByMuscles(EnumSet.of(Muscles.CHEST, Muscles.BACK), true));
+        assertEquals(List.of(chestEx, legEx),
+                logbook.getAllExercisesByMuscles(EnumSet.of(Muscles.CHEST, Muscles.LEGS), false));
+
+        legEx.setMuscles(EnumSet.of(Muscles.LEGS));
+        assertEquals(List.of(session1), logbook.filterSessionsByMuscle(Muscles.BACK));
+    }
 }
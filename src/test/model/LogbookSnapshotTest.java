@@ -0,0 +1,106 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LogbookSnapshotTest {
+    private Logbook logbook;
+    private WorkoutSession monday;
+    private WorkoutSession tuesday;
+    private Exercise squat;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        monday = new WorkoutSession("2025/10/06");
+        squat = new Exercise("Squat", Muscles.LEGS, 100, 5, 5);
+        monday.addExercise(squat);
+        tuesday = new WorkoutSession("2025/10/07");
+        tuesday.addExercise(new Exercise("Bench press", Muscles.CHEST, 80, 3, 8));
+        logbook.addSession(monday);
+        logbook.addSession(tuesday);
+    }
+
+    @Test
+    void testSnapshotIsFrozen() {
+        LogbookSnapshot before = logbook.snapshot();
+        squat.setWeightLifted(120);
+        monday.setDate("2025/10/13");
+        logbook.addSession(new WorkoutSession("2025/10/08"));
+
+        assertEquals(2, before.getSessionCount());
+        assertEquals("2025/10/06", before.getSessions().get(0).getDate());
+        assertEquals(100, before.getSessions().get(0).getExercises().get(0).getWeightLifted());
+
+        LogbookSnapshot after = logbook.snapshot();
+        assertEquals(logbook.getVersion(), after.getVersion());
+        assertEquals(3, after.getSessionCount());
+        assertEquals("2025/10/13", after.getSessions().get(0).getDate());
+        assertEquals(120, after.getSessions().get(0).getExercises().get(0).getWeightLifted());
+        assertEquals(2, after.getExerciseCount());
+        assertEquals(logbook.getAllSessions().get(1).toJson().toString(), after.toJson().get(1).toString());
+    }
+
+    @Test
+    void testUnchangedSessionsAreShared() {
+        LogbookSnapshot before = logbook.snapshot();
+        squat.setNumReps(3);
+        LogbookSnapshot after = logbook.snapshot();
+
+        assertNotSame(before.getSessions().get(0), after.getSessions().get(0));
+        assertSame(before.getSessions().get(1), after.getSessions().get(1));
+        assertSame(squat.snapshot(), after.getSessions().get(0).getExercises().get(0));
+        assertThrows(UnsupportedOperationException.class, () -> after.getSessions().remove(0));
+    }
+
+    @Test
+    void testPersistentVectorKeepsOldVersions() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        PersistentVector<Integer> half = null;
+        for (int i = 0; i < 40000; i++) {
+            vector = vector.plus(i);
+            if (i == 19999) {
+                half = vector;
+            }
+        }
+        PersistentVector<Integer> changed = vector.with(5, -5).with(39999, -1).with(33000, -3);
+
+        assertEquals(20000, half.size());
+        assertEquals(40000, vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            assertEquals(i, vector.get(i));
+        }
+        assertEquals(List.of(-5, 6), changed.subList(5, 7));
+        assertEquals(-3, changed.get(33000));
+        assertEquals(-1, changed.get(39999));
+        assertEquals(19999, half.get(19999));
+        PersistentVector<Integer> popped = vector;
+        while (popped.size() > 1000) {
+            popped = popped.withoutLast();
+        }
+        assertEquals(999, popped.get(999));
+        assertEquals(1000, popped.plus(1000).get(1000));
+        assertEquals(39999, vector.get(39999));
+
+        PersistentVector<Integer> full = vector;
+        assertThrows(IndexOutOfBoundsException.class, () -> full.with(40000, 0));
+    }
+
+    @Test
+    void testFailedSaveKeepsChanges() {
+        Logbook unsaved = new Logbook("./data/no/such/directory/log.json");
+        WorkoutSession session = new WorkoutSession("2025/10/09");
+        unsaved.addSession(session);
+        unsaved.checkpoint();
+        session.addExercise(new Exercise("Row", Muscles.BACK, 60, 3, 10));
+
+        assertThrows(IOException.class, unsaved::saveLogBook);
+        assertTrue(unsaved.isDirty());
+        assertTrue(unsaved.getChangeSet().contains(session));
+    }
+}
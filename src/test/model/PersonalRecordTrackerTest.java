@@ -0,0 +1,119 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PersonalRecordTrackerTest {
+    private Logbook logbook;
+    private WorkoutSession monday;
+    private WorkoutSession friday;
+    private Exercise heavy;
+    private Exercise light;
+    private PersonalRecordTracker tracker;
+    private List<PersonalRecord> announced;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        monday = new WorkoutSession("2025/10/06");
+        heavy = new Exercise("Bench press", Muscles.CHEST, 100, 3, 5);
+        monday.addExercise(heavy);
+        logbook.addSession(monday);
+
+        tracker = new PersonalRecordTracker(logbook);
+        announced = new ArrayList<>();
+        tracker.addRecordListener(announced::addAll);
+
+        friday = new WorkoutSession("2025/10/10");
+        logbook.addSession(friday);
+        light = new Exercise("Bench press", Muscles.CHEST, 80, 5, 10);
+        friday.addExercise(light);
+    }
+
+    @Test
+    void testRecordsOfLoggedExercises() {
+        assertEquals(2, tracker.getTrackedCount());
+        PersonalRecord weight = tracker.getBestWeight("BENCH PRESS");
+        assertEquals(100, weight.getWeight());
+        assertEquals("2025/10/06", weight.getDate());
+        assertEquals(4000, tracker.getBestVolume("bench press").getVolume());
+        assertEquals("2025/10/10", tracker.getBestVolume("bench press").getDate());
+        assertEquals(5, tracker.getBestReps("bench press", 100).getReps());
+        assertNull(tracker.getBestReps("bench press", 90));
+        assertNull(tracker.getBestWeight("squat"));
+
+        assertEquals(1, announced.size());
+        assertEquals(PersonalRecord.Kind.VOLUME, announced.get(0).getKind());
+    }
+
+    @Test
+    void testRemovingRecordFallsBackToNextBest() {
+        monday.removeExercise("Bench press");
+        assertEquals(80, tracker.getBestWeight("Bench press").getWeight());
+        assertNull(tracker.getBestReps("Bench press", 100));
+
+        friday.removeExercise("Bench press");
+        assertNull(tracker.getBestWeight("Bench press"));
+        assertEquals(0, tracker.getTrackedCount());
+    }
+
+    @Test
+    void testEditsMoveRecords() {
+        heavy.setWeightLifted(70);
+        assertEquals(80, tracker.getBestWeight("Bench press").getWeight());
+        assertEquals("2025/10/10", tracker.getBestWeight("Bench press").getDate());
+
+        announced.clear();
+        heavy.setWeightLifted(110);
+        assertEquals(110, tracker.getBestWeight("Bench press").getWeight());
+        assertEquals(1, announced.size());
+        assertEquals("Bench press: heaviest weight 110 kg on 2025/10/06", announced.get(0).getDescription());
+
+        heavy.setExerciseName("Incline press");
+        assertEquals(110, tracker.getBestWeight("incline press").getWeight());
+        assertEquals(80, tracker.getBestWeight("bench press").getWeight());
+    }
+
+    @Test
+    void testEqualRecordKeepsEarliestDate() {
+        Exercise repeat = new Exercise("Bench press", Muscles.CHEST, 100, 3, 5);
+        friday.addExercise(repeat);
+        assertEquals("2025/10/06", tracker.getBestWeight("Bench press").getDate());
+
+        monday.setDate("2025/10/20");
+        assertEquals("2025/10/10", tracker.getBestWeight("Bench press").getDate());
+    }
+
+    @Test
+    void testEditingRecordHolderAnnouncesOnlyNewBests() {
+        announced.clear();
+        heavy.setWeightLifted(90);
+        heavy.setNumReps(4);
+        assertTrue(announced.isEmpty());
+        assertEquals(90, tracker.getBestWeight("Bench press").getWeight());
+
+        heavy.setWeightLifted(95);
+        assertEquals(1, announced.size());
+        assertEquals(PersonalRecord.Kind.WEIGHT, announced.get(0).getKind());
+    }
+
+    @Test
+    void testEqualRecordKeepsEarliestDayWhateverThePadding() {
+        WorkoutSession september = new WorkoutSession("2025/9/15");
+        september.addExercise(new Exercise("Bench press", Muscles.CHEST, 100, 3, 5));
+        logbook.addSession(september);
+        assertEquals("2025/09/15", tracker.getBestWeight("Bench press").getDate());
+    }
+
+    @Test
+    void testClearForgetsRecords() {
+        logbook.clearLogbook();
+        assertNull(tracker.getBestWeight("Bench press"));
+        assertEquals(0, tracker.getTrackedCount());
+    }
+}
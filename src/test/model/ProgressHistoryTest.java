@@ -0,0 +1,131 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import model.ProgressHistory.Resolution;
+
+public class ProgressHistoryTest {
+    private Logbook logbook;
+    private WorkoutSession monday;
+    private WorkoutSession wednesday;
+    private Exercise squat;
+    private ProgressHistory history;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        monday = new WorkoutSession("2025/10/06");
+        squat = new Exercise("Squat", Muscles.LEGS, 100, 5, 5);
+        monday.addExercise(squat);
+        monday.addExercise(new Exercise("Lunge", Muscles.LEGS, 40, 3, 10));
+        wednesday = new WorkoutSession("2025/10/08");
+        wednesday.addExercise(new Exercise("Squat", Muscles.LEGS, 110, 3, 3));
+        logbook.addSession(monday);
+        logbook.addSession(wednesday);
+        history = new ProgressHistory(logbook);
+    }
+
+    @Test
+    void testRollups() {
+        List<ProgressPoint> days = history.getExerciseRollup("squat", Resolution.DAY);
+        assertEquals(2, days.size());
+        assertEquals(LocalDate.of(2025, 10, 6), days.get(0).getDate());
+        assertEquals(2500, days.get(0).getVolume());
+
+        List<ProgressPoint> weeks = history.getExerciseRollup("Squat", Resolution.WEEK);
+        assertEquals(1, weeks.size());
+        assertEquals(LocalDate.of(2025, 10, 6), weeks.get(0).getDate());
+        assertEquals(110, weeks.get(0).getMaxWeight());
+        assertEquals(2500 + 990, weeks.get(0).getVolume());
+
+        List<ProgressPoint> legs = history.getMuscleRollup(Muscles.LEGS, Resolution.YEAR);
+        assertEquals(LocalDate.of(2025, 1, 1), legs.get(0).getDate());
+        assertEquals(2500 + 1200 + 990, legs.get(0).getVolume());
+        assertEquals(List.of("Lunge", "Squat"), history.getExerciseNames());
+    }
+
+    @Test
+    void testChangesRecomputeOnlyWhatMoved() {
+        history.getExerciseRollup("squat", Resolution.DAY);
+        squat.setWeightLifted(120);
+        wednesday.setDate("2025/11/03");
+        monday.removeExercise("Lunge");
+
+        assertEquals(120, history.getExerciseRollup("squat", Resolution.WEEK).get(0).getMaxWeight());
+        assertEquals(2, history.getExerciseRollup("squat", Resolution.MONTH).size());
+        assertEquals(1, history.getExerciseRollup("squat", Resolution.YEAR).size());
+        assertTrue(history.getExerciseRollup("lunge", Resolution.DAY).isEmpty());
+        assertEquals(List.of("Squat"), history.getExerciseNames());
+
+        logbook.clearLogbook();
+        assertTrue(history.getMuscleRollup(Muscles.LEGS, Resolution.DAY).isEmpty());
+    }
+
+    @Test
+    void testProgressDownsamplesToWidth() {
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            WorkoutSession session = WorkoutSession.restore(date.plusDays(i).toString().replace('-', '/'),
+                    List.of(Exercise.restore("Deadlift", Muscles.BACK, i, 1, 1)));
+            logbook.addSession(session);
+        }
+
+        List<ProgressPoint> points = history.getExerciseProgress("deadlift", 100);
+        assertTrue(points.size() <= 100);
+        assertEquals(LocalDate.of(2019, 12, 30), points.get(0).getDate());
+        assertEquals(999, points.get(points.size() - 1).getMaxWeight());
+        assertEquals(1000, history.getExerciseProgress("deadlift", 1000).size());
+        assertTrue(history.getExerciseProgress("bench", 10).isEmpty());
+    }
+
+    @Test
+    void testDatesWrittenDifferentlyShareTheirDay() {
+        WorkoutSession typed = WorkoutSession.restore("2025/1/5",
+                List.of(Exercise.restore("Bench press", Muscles.CHEST, 100, 1, 1)));
+        WorkoutSession imported = WorkoutSession.restore("2025/01/05",
+                List.of(Exercise.restore("Bench press", Muscles.CHEST, 50, 1, 1)));
+        logbook.addSession(typed);
+        logbook.addSession(imported);
+        assertDayPoint(100, 150);
+
+        history.getExerciseRollup("bench press", Resolution.DAY);
+        imported.getExercises().get(0).setWeightLifted(60);
+        assertDayPoint(100, 160);
+        logbook.removeSession(typed);
+        assertDayPoint(60, 60);
+    }
+
+    @Test
+    void testExerciseCountsTowardEveryMuscleItWorks() {
+        assertTrue(history.getMuscleRollup(Muscles.BACK, Resolution.DAY).isEmpty());
+        squat.setMuscles(EnumSet.of(Muscles.LEGS, Muscles.BACK));
+
+        List<ProgressPoint> back = history.getMuscleRollup(Muscles.BACK, Resolution.DAY);
+        assertEquals(1, back.size());
+        assertEquals(2500, back.get(0).getVolume());
+        assertEquals(2500 + 1200, history.getMuscleRollup(Muscles.LEGS, Resolution.DAY).get(0).getVolume());
+    }
+
+    @Test
+    void testUnparseableDatesAreNotCharted() {
+        assertEquals(SessionDates.epochDay("2025/10/06"), LocalDate.of(2025, 10, 6).toEpochDay());
+        logbook.addSession(WorkoutSession.restore("someday",
+                List.of(Exercise.restore("Squat", Muscles.LEGS, 200, 1, 1))));
+        assertEquals(110, history.getExerciseRollup("squat", Resolution.YEAR).get(0).getMaxWeight());
+    }
+
+    // EFFECTS: checks the only daily point of bench press has maxWeight and volume
+    private void assertDayPoint(int maxWeight, long volume) {
+        List<ProgressPoint> days = history.getExerciseRollup("bench press", Resolution.DAY);
+        assertEquals(1, days.size());
+        assertEquals(maxWeight, days.get(0).getMaxWeight());
+        assertEquals(volume, days.get(0).getVolume());
+    }
+}
@@ -0,0 +1,108 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class QuantileSketchTest {
+
+    @Test
+    void testExactWhileSmall() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+        for (int value : new int[] {50, 10, 40, 20, 30}) {
+            sketch.add(value);
+        }
+        assertEquals(5, sketch.getCount());
+        assertEquals(10, sketch.getQuantile(0));
+        assertEquals(10, sketch.getQuantile(0.2));
+        assertEquals(30, sketch.getQuantile(0.5));
+        assertEquals(50, sketch.getQuantile(1));
+    }
+
+    @Test
+    void testBoundedMemoryAndRankError() {
+        Random random = new Random(50);
+        QuantileSketch sketch = new QuantileSketch();
+        double[] values = new double[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.round(random.nextGaussian() * 20 + 100);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertTrue(sketch.getRetained() < 3 * QuantileSketch.DEFAULT_K + 64);
+        assertEquals(values[0], sketch.getQuantile(0));
+        assertEquals(values[values.length - 1], sketch.getQuantile(1));
+        for (double fraction : new double[] {0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            assertEquals(fraction, rank(values, sketch.getQuantile(fraction)), 0.02);
+        }
+    }
+
+    @Test
+    void testAddManyTimes() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(100, 5);
+        sketch.add(60, 0);
+        sketch.add(80);
+        assertEquals(6, sketch.getCount());
+        assertEquals(80, sketch.getQuantile(0));
+        assertEquals(100, sketch.getQuantile(0.5));
+        assertEquals(3, sketch.getRetained());
+
+        sketch = new QuantileSketch();
+        Random random = new Random(3);
+        double[] values = new double[50000];
+        for (int i = 0; i < values.length; ) {
+            int value = random.nextInt(300);
+            int times = Math.min(1 + random.nextInt(12), values.length - i);
+            Arrays.fill(values, i, i + times, value);
+            sketch.add(value, times);
+            i += times;
+        }
+        assertTrue(sketch.getRetained() < 3 * QuantileSketch.DEFAULT_K + 64);
+        for (double fraction : new double[] {0.1, 0.5, 0.9}) {
+            assertEquals(fraction, rank(values, sketch.getQuantile(fraction)), 0.02);
+        }
+    }
+
+    @Test
+    void testMergeAndJson() {
+        Random random = new Random(7);
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch merged = new QuantileSketch();
+        double[] values = new double[20000];
+        for (int part = 0; part < 4; part++) {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = 0; i < values.length / 4; i++) {
+                double value = random.nextInt(300) + part * 50;
+                values[part * values.length / 4 + i] = value;
+                sketch.add(value);
+                whole.add(value);
+            }
+            merged.merge(QuantileSketch.fromJson(sketch.toJson()));
+        }
+        Arrays.sort(values);
+
+        assertEquals(whole.getCount(), merged.getCount());
+        assertTrue(merged.getRetained() < 3 * QuantileSketch.DEFAULT_K + 64);
+        assertEquals(values[0], merged.getQuantile(0));
+        for (double fraction : new double[] {0.1, 0.5, 0.9}) {
+            assertEquals(fraction, rank(values, merged.getQuantile(fraction)), 0.02);
+        }
+    }
+
+    // EFFECTS: returns the fraction of the sorted values below value, counting half of those equal to it
+    private static double rank(double[] sorted, double value) {
+        int below = 0;
+        int equal = 0;
+        for (double v : sorted) {
+            below += v < value ? 1 : 0;
+            equal += v == value ? 1 : 0;
+        }
+        return (below + equal / 2.0) / sorted.length;
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+public class SetLogTest {
+    @Test
+    void testPackedSets() {
+        SetLog log = SetLog.EMPTY.plus(100, 8).plus(110, 5, 85, 120)
+                .plus(SetLog.MAX_WEIGHT, SetLog.MAX_REPS, SetLog.MAX_RPE_TENTHS, SetLog.MAX_REST_SECONDS);
+        assertEquals(3, log.size());
+        assertEquals(110, log.getWeight(1));
+        assertEquals(5, log.getReps(1));
+        assertEquals(85, log.getRpeTenths(1));
+        assertEquals(120, log.getRestSeconds(1));
+        assertEquals(0, log.getRpeTenths(0));
+        assertEquals(SetLog.MAX_REST_SECONDS, log.getRestSeconds(2));
+        assertEquals(800 + 550 + (long) SetLog.MAX_WEIGHT * SetLog.MAX_REPS, log.getVolume());
+        assertEquals(2, log.getTopSet());
+        assertEquals(-1, SetLog.EMPTY.getTopSet());
+
+        assertEquals(log, SetLog.fromJson(new JSONArray(log.toJson().toString())));
+        assertThrows(IllegalArgumentException.class, () -> log.plus(-1, 5));
+        assertThrows(IllegalArgumentException.class, () -> log.plus(100, 5, 101, 0));
+        assertThrows(JSONException.class, () -> SetLog.fromJson(new JSONArray("[" + (100 | 8L << 24) + "]")));
+    }
+
+    @Test
+    void testJsonHoldsSmallNumbers() {
+        SetLog log = SetLog.EMPTY.plus(100, 8).plus(110, 5, 85, SetLog.MAX_REST_SECONDS);
+        assertEquals("[[100,8,0,0],[110,5,85,65535]]", log.toJson().toString());
+        assertEquals(log, SetLog.fromJson(new JSONArray("[[100, 8], [110, 5, 85, 65535]]")));
+        assertThrows(IllegalArgumentException.class, () -> SetLog.fromJson(new JSONArray("[[-1, 5]]")));
+        assertThrows(IllegalArgumentException.class, () -> SetLog.fromJson(new JSONArray("[[100, 5, 0, 70000]]")));
+    }
+
+    @Test
+    void testParse() {
+        SetLog log = SetLog.parse("100x8, 110 X 5 @8.5 /120s,90x10/60");
+        assertEquals(SetLog.EMPTY.plus(100, 8).plus(110, 5, 85, 120).plus(90, 10, 0, 60), log);
+        assertEquals("100x8, 110x5 @8.5 /120s, 90x10 /60s", log.toString());
+        assertEquals(log, SetLog.parse(log.toString()));
+        assertTrue(SetLog.parse("  ").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> SetLog.parse("100 for 8"));
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TrainingCalendarTest {
+    private Logbook logbook;
+    private TrainingCalendar calendar;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        calendar = new TrainingCalendar(logbook);
+    }
+
+    @Test
+    void testDaysAndStreaks() {
+        for (String date : List.of("2024/12/30", "2024/12/31", "2025/01/01", "2025/01/02", "2025/03/01")) {
+            logbook.addSession(WorkoutSession.restore(date,
+                    List.of(Exercise.restore("Squat", Muscles.LEGS, 100, 5, 5))));
+        }
+        Exercise row = Exercise.restore("Row", Muscles.BACK, 60, 3, 10);
+        logbook.getSessionByDate("2025/03/01").addExercise(row);
+
+        assertTrue(calendar.isTrainingDay(LocalDate.of(2024, 12, 31)));
+        assertFalse(calendar.isTrainingDay(LocalDate.of(2025, 1, 3)));
+        assertEquals(3, calendar.getDaysTrained(2025));
+        assertEquals(1, calendar.getDaysTrained(2025, Muscles.BACK));
+        assertEquals(0, calendar.getDaysTrained(2023));
+        assertEquals(4, calendar.getLongestStreak());
+        assertEquals(3, calendar.getStreakEndingOn(LocalDate.of(2025, 1, 1)));
+        assertEquals(0.5, calendar.getAdherence(LocalDate.of(2024, 12, 29), LocalDate.of(2025, 1, 5)));
+
+        logbook.getSessionByDate("2025/03/01").removeExercise("Row");
+        assertEquals(0, calendar.getDaysTrained(2025, Muscles.BACK));
+        assertEquals(3, calendar.getDaysTrained(2025));
+        logbook.getSessionByDate("2024/12/31").setDate("2025/06/01");
+        assertEquals(2, calendar.getLongestStreak());
+        assertEquals(0, calendar.getYear(2025, Muscles.CHEST)[0]);
+        assertNotEquals(0, calendar.getYear(2025, null)[0]);
+
+        logbook.clearLogbook();
+        assertEquals(0, calendar.getLongestStreak());
+    }
+
+    @Test
+    void testMatchesScanningTheSessions() {
+        Random random = new Random(49);
+        LocalDate start = LocalDate.of(2023, 10, 1);
+        for (int i = 0; i < 300; i++) {
+            String date = start.plusDays(random.nextInt(500)).toString().replace('-', '/');
+            WorkoutSession session = logbook.getOrAddSession(date);
+            Exercise exercise = Exercise.restore("Lift", Muscles.CHEST, 50, 3, 10);
+            exercise.setMuscles(EnumSet.of(Muscles.values()[random.nextInt(Muscles.values().length)]));
+            session.addExercise(exercise);
+            if (random.nextInt(3) == 0) {
+                logbook.undo();
+            }
+        }
+
+        Set<Long> days = new TreeSet<>();
+        for (WorkoutSession session : logbook.getAllSessions()) {
+            if (!session.getExercises().isEmpty()) {
+                days.add(SessionDates.epochDay(session.getDate()));
+            }
+        }
+        int longest = 0;
+        int run = 0;
+        long previous = Long.MIN_VALUE;
+        for (long day : days) {
+            run = day == previous + 1 ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day;
+        }
+        assertEquals(longest, calendar.getLongestStreak());
+        assertEquals(days.stream().filter(day -> LocalDate.ofEpochDay(day).getYear() == 2024).count(),
+                calendar.getDaysTrained(2024));
+    }
+
+    @Test
+    void testStreakAcrossWholeWords() {
+        LocalDate day = LocalDate.of(2026, 12, 1);
+        for (int i = 0; i < 400; i++) {
+            logbook.addSession(WorkoutSession.restore(day.plusDays(i).toString().replace('-', '/'),
+                    List.of(Exercise.restore("Run", Muscles.LEGS, 1, 1, 1))));
+        }
+        assertEquals(365, calendar.getDaysTrained(2027));
+        assertEquals(400, calendar.getLongestStreak());
+        assertEquals(400, calendar.getStreakEndingOn(day.plusDays(399)));
+        assertEquals(1.0, calendar.getAdherence(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 12, 31)));
+    }
+}
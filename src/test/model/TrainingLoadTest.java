@@ -0,0 +1,123 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TrainingLoadTest {
+    private Logbook logbook;
+    private TrainingLoad load;
+
+    @BeforeEach
+    void runBefore() {
+        logbook = new Logbook("./data/test_logbook.json");
+        load = new TrainingLoad(logbook);
+    }
+
+    @Test
+    void testWindows() {
+        assertNull(load.getLastDay());
+        logbook.addSession(session("2025/09/10", new Exercise("Squat", Muscles.LEGS, 100, 4, 10)));
+        logbook.addSession(session("2025/10/01", new Exercise("Bench", Muscles.CHEST, 50, 2, 10)));
+        WorkoutSession latest = session("2025/10/06", new Exercise("Squat", Muscles.LEGS, 100, 2, 10));
+        logbook.addSession(latest);
+        LocalDate day = LocalDate.of(2025, 10, 6);
+
+        assertEquals(day, load.getLastDay());
+        assertEquals(3000, load.getOverall(day).getAcute());
+        assertEquals(7000 / 4.0, load.getOverall(day).getChronic());
+        assertEquals(3000 * 4.0 / 7000, load.getOverall(day).getRatio());
+        assertEquals(2000, load.getMuscle(Muscles.LEGS, day).getAcute());
+        assertEquals(0, load.getMuscle(Muscles.BACK, day).getRatio());
+
+        latest.getExercises().get(0).setMuscles(EnumSet.of(Muscles.LEGS, Muscles.BACK));
+        assertEquals(2000, load.getMuscle(Muscles.BACK, day).getAcute());
+        assertEquals(3000, load.getOverall(day).getAcute());
+
+        logbook.undo();
+        logbook.undo();
+        assertEquals(LocalDate.of(2025, 10, 1), load.getLastDay());
+        assertEquals(1000, load.getOverall(day).getAcute());
+        assertEquals(5000 / 4.0, load.getOverall(day).getChronic());
+        logbook.clearLogbook();
+        assertNull(load.getLastDay());
+        assertEquals(0, load.getOverall(day).getChronic());
+    }
+
+    @Test
+    void testLoadFallsDuringABreak() {
+        logbook.addSession(session("2025/10/01", new Exercise("Squat", Muscles.LEGS, 100, 4, 10)));
+        logbook.addSession(session("2025/10/06", new Exercise("Squat", Muscles.LEGS, 100, 4, 10)));
+        assertEquals(8000 * 4.0 / 8000, load.getOverall(LocalDate.of(2025, 10, 6)).getRatio());
+
+        Workload afterBreak = load.getOverall(LocalDate.of(2025, 10, 20));
+        assertEquals(0, afterBreak.getAcute());
+        assertEquals(8000 / 4.0, afterBreak.getChronic());
+        assertEquals(0, afterBreak.getRatio());
+        assertEquals(0, load.getOverall(LocalDate.of(2025, 12, 1)).getChronic());
+        assertEquals(4000, load.getOverall(LocalDate.of(2025, 10, 1)).getAcute());
+        assertEquals(0, load.getOverall().getAcute());
+    }
+
+    @Test
+    void testMatchesSummingTheWindows() {
+        Random random = new Random(48);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 400; i++) {
+            String date = date(start.plusDays(random.nextInt(120)));
+            Muscles muscle = Muscles.values()[random.nextInt(Muscles.values().length)];
+            Exercise exercise = Exercise.restore("Lift", muscle, random.nextInt(200), 1 + random.nextInt(5),
+                    1 + random.nextInt(12));
+            int edit = random.nextInt(4);
+            if (edit == 0 || logbook.getSessionCount() == 0) {
+                logbook.getOrAddSession(date).addExercise(exercise);
+            } else {
+                List<WorkoutSession> sessions = logbook.getAllSessions();
+                WorkoutSession session = sessions.get(random.nextInt(sessions.size()));
+                if (edit == 1 && logbook.getSessionByDate(date) == null) {
+                    session.setDate(date);
+                } else if (edit == 2 && !session.getExercises().isEmpty()) {
+                    session.getExercises().get(0).setWeightLifted(random.nextInt(200));
+                } else {
+                    logbook.undo();
+                }
+            }
+            checkAgainstSums(start.plusDays(random.nextInt(160)).toEpochDay());
+        }
+    }
+
+    /*
+     * EFFECTS: checks the loads in the windows ending on epoch day asOf against the volume summed over the
+     *          sessions in each of them
+     */
+    private void checkAgainstSums(long asOf) {
+        long newest = Long.MIN_VALUE;
+        long acute = 0;
+        long chronic = 0;
+        for (WorkoutSession session : logbook.getAllSessions()) {
+            long day = SessionDates.epochDay(session.getDate());
+            for (Exercise exercise : session.getExercises()) {
+                newest = exercise.getVolume() > 0 ? Math.max(newest, day) : newest;
+                acute += day <= asOf && day > asOf - TrainingLoad.ACUTE_DAYS ? exercise.getVolume() : 0;
+                chronic += day <= asOf && day > asOf - TrainingLoad.CHRONIC_DAYS ? exercise.getVolume() : 0;
+            }
+        }
+        assertEquals(newest == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(newest), load.getLastDay());
+        assertEquals(acute, load.getOverall(LocalDate.ofEpochDay(asOf)).getAcute());
+        assertEquals(chronic / 4.0, load.getOverall(LocalDate.ofEpochDay(asOf)).getChronic());
+    }
+
+    private static WorkoutSession session(String date, Exercise exercise) {
+        return WorkoutSession.restore(date, List.of(exercise));
+    }
+
+    private static String date(LocalDate date) {
+        return date.toString().replace('-', '/');
+    }
+}
@@ -0,0 +1,149 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class AutosaveSchedulerTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    private String file;
+    private Logbook logbook;
+    private WorkoutSession session;
+    private ManualExecutor executor;
+    private long now;                   // the time in nanoseconds seen by schedulers using the manual executor
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = directory.resolve("autosave.json").toString();
+        logbook = new Logbook(file);
+        session = new WorkoutSession("2025/11/01");
+        logbook.addSession(session);
+        logbook.saveLogBook();
+        executor = new ManualExecutor();
+        now = 0;
+    }
+
+    @AfterEach
+    void runAfter() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBurstIsCoalescedIntoOneSave() throws Exception {
+        AutosaveScheduler autosave = new AutosaveScheduler(logbook, 100, 5000, executor, () -> now);
+        autosave.start();
+
+        for (int i = 1; i <= 10; i++) {
+            session.addExercise(new Exercise("Curl", Muscles.BICEPS, 10 + i, 3, 10));
+            now += TimeUnit.MILLISECONDS.toNanos(50);
+        }
+        assertEquals(List.of(100L), executor.pendingDelays());
+        assertEquals(0, autosave.getSaveCount());
+
+        executor.runPending();
+        assertEquals(1, autosave.getSaveCount());
+        assertFalse(logbook.isDirty());
+        assertEquals(10, new JsonReader(file).read().get(0).getExercises().size());
+        assertTrue(executor.pendingDelays().isEmpty());
+    }
+
+    @Test
+    void testSteadyEditsAreSavedByMaxDelay() throws Exception {
+        AutosaveScheduler autosave = new AutosaveScheduler(logbook, 200, 250, executor, () -> now);
+        autosave.start();
+
+        // edits every 50 ms never pause for the quiet period, so the max delay brings the save forward
+        for (int i = 0; i < 6; i++) {
+            session.addExercise(new Exercise("Curl", Muscles.BICEPS, 10 + i, 3, 10));
+            assertEquals(List.of(Math.min(200L, 250L - 50L * i)), executor.pendingDelays());
+            now += TimeUnit.MILLISECONDS.toNanos(50);
+        }
+        executor.runPending();
+        assertEquals(1, autosave.getSaveCount());
+
+        // the save ended the burst, so the next edit waits for the whole quiet period again
+        session.addExercise(new Exercise("Curl", Muscles.BICEPS, 30, 3, 10));
+        assertEquals(List.of(200L), executor.pendingDelays());
+    }
+
+    @Test
+    void testShutdownFlushesPendingChanges() throws IOException {
+        AutosaveScheduler autosave = new AutosaveScheduler(logbook, 60000, 60000);
+        autosave.start();
+
+        session.addExercise(new Exercise("Dip", Muscles.TRICEPS, 20, 3, 12));
+        autosave.shutdown();
+
+        assertNull(autosave.getLastError());
+        WorkoutSession saved = new JsonReader(file).read().get(0);
+        checkExercise(saved.getExercises().get(0), "Dip", Muscles.TRICEPS, 20, 3, 12);
+    }
+
+    // Represents an executor whose scheduled tasks only run when a test says so: each is scheduled for
+    // a day from now instead, and its delay is recorded
+    private static class ManualExecutor extends ScheduledThreadPoolExecutor {
+        private final List<ScheduledFuture<?>> futures = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+        private final List<Long> delays = new ArrayList<>();
+
+        ManualExecutor() {
+            super(1);
+        }
+
+        @Override
+        public synchronized ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+            ScheduledFuture<?> future = super.schedule(task, 1, TimeUnit.DAYS);
+            futures.add(future);
+            tasks.add(task);
+            delays.add(unit.toMillis(delay));
+            return future;
+        }
+
+        // EFFECTS: returns the delays in milliseconds of the tasks scheduled and not cancelled
+        synchronized List<Long> pendingDelays() {
+            List<Long> pending = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                if (!futures.get(i).isCancelled()) {
+                    pending.add(delays.get(i));
+                }
+            }
+            return pending;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: runs the tasks scheduled and not cancelled on the calling thread, and forgets all tasks
+        void runPending() {
+            List<Runnable> pending = new ArrayList<>();
+            synchronized (this) {
+                for (int i = 0; i < futures.size(); i++) {
+                    if (!futures.get(i).isCancelled()) {
+                        futures.get(i).cancel(false);
+                        pending.add(tasks.get(i));
+                    }
+                }
+                futures.clear();
+                tasks.clear();
+                delays.clear();
+            }
+            pending.forEach(Runnable::run);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class CsvReaderTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testImportGroupsRowsIntoSessions() throws IOException {
+        Path csv = directory.resolve("import.csv");
+        Files.writeString(csv, CsvReader.HEADER + "\n"
+                + "2025/10/01,Bench press,CHEST,100,3,8\n"
+                + "2025-10-03,Squat,legs,140,5,5\n"
+                + "2025/10/01,\"Row, barbell\",BACK,80,4,10\n");
+
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        CsvImportReport report = new CsvReader(csv.toString()).importInto(logbook);
+
+        assertEquals(3, report.getRowsImported());
+        assertEquals(0, report.getRowsRejected());
+        assertEquals(2, report.getSessionsCreated());
+
+        List<WorkoutSession> sessions = logbook.getAllSessions();
+        assertEquals(2, sessions.size());
+        assertEquals("2025/10/01", sessions.get(0).getDate());
+        checkExercise(sessions.get(0).getExercises().get(1), "Row, barbell", Muscles.BACK, 80, 4, 10);
+        checkExercise(sessions.get(1).getExercises().get(0), "Squat", Muscles.LEGS, 140, 5, 5);
+    }
+
+    @Test
+    void testImportAppendsToExistingSessionAndReportsMalformedRows() throws IOException {
+        Path csv = directory.resolve("import.csv");
+        Files.writeString(csv, "2025/10/01,Dip,TRICEPS,20,3,12\n"
+                + "2025/10/01,Curl,ARMS,10,3,12\n"
+                + "tomorrow,Curl,BICEPS,10,3,12\n"
+                + "2025/10/01,Curl,BICEPS,ten,3,12\n"
+                + "2025/10/01,Curl,BICEPS,10,3\n"
+                + "\n"
+                + "2025/10/02,Curl,BICEPS,10,3,12\n");
+
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession existing = new WorkoutSession("2025/10/01");
+        existing.addExercise(new Exercise("Bench press", Muscles.CHEST, 100, 3, 8));
+        logbook.addSession(existing);
+
+        CsvImportReport report = new CsvReader(csv.toString()).importInto(logbook);
+        assertEquals(2, report.getRowsImported());
+        assertEquals(4, report.getRowsRejected());
+        assertEquals(1, report.getSessionsCreated());
+        assertTrue(report.getProblems().get(0).startsWith("row 2:"));
+
+        assertEquals(2, logbook.getAllSessions().size());
+        assertEquals(2, existing.getExercises().size());
+    }
+
+    @Test
+    void testImportJoinsSessionOfSameDayWrittenWithoutPadding() throws IOException {
+        Path csv = directory.resolve("import.csv");
+        Files.writeString(csv, "2025-01-05,Dip,TRICEPS,20,3,12\n");
+
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession existing = new WorkoutSession("2025/1/5");
+        existing.addExercise(new Exercise("Bench press", Muscles.CHEST, 100, 3, 8));
+        logbook.addSession(existing);
+
+        CsvImportReport report = new CsvReader(csv.toString()).importInto(logbook);
+        assertEquals(0, report.getSessionsCreated());
+        assertEquals(1, logbook.getSessionCount());
+        assertEquals(2, existing.getExercises().size());
+        assertEquals(List.of(existing), logbook.filterSessionsByDate("2025/01/05"));
+    }
+
+    @Test
+    void testExportRoundTrip() throws IOException {
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession session = new WorkoutSession("2025/11/01");
+        session.addExercise(new Exercise("Row, cable", Muscles.BACK, 60, 3, 12));
+        Exercise squat = new Exercise("Squat", Muscles.LEGS, 120, 5, 5);
+        squat.setMuscles(EnumSet.of(Muscles.LEGS, Muscles.BACK));
+        session.addExercise(squat);
+        logbook.addSession(session);
+
+        String csv = directory.resolve("export.csv.gz").toString();
+        assertEquals(2, new CsvWriter(csv).write(logbook));
+
+        Logbook imported = new Logbook(directory.resolve("copy.json").toString());
+        CsvImportReport report = new CsvReader(csv).importInto(imported);
+        assertEquals(2, report.getRowsImported());
+        List<Exercise> exercises = imported.getSessionByDate("2025/11/01").getExercises();
+        checkExercise(exercises.get(0), "Row, cable", Muscles.BACK, 60, 3, 12);
+        checkExercise(exercises.get(1), "Squat", Muscles.LEGS, 120, 5, 5);
+        assertEquals(EnumSet.of(Muscles.LEGS, Muscles.BACK), exercises.get(1).getMuscles());
+    }
+
+    @Test
+    void testQuotedLineBreaksRoundTrip() throws IOException {
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession session = new WorkoutSession("2025/11/01");
+        session.addExercise(new Exercise("Row\ncable, \"slow\"", Muscles.BACK, 60, 3, 12));
+        session.addExercise(new Exercise("Squat", Muscles.LEGS, 120, 5, 5));
+        logbook.addSession(session);
+
+        String csv = directory.resolve("export.csv").toString();
+        new CsvWriter(csv).write(logbook);
+        Files.writeString(Path.of(csv), "2025/11/02,\"Curl\n", StandardOpenOption.APPEND);
+
+        Logbook imported = new Logbook(directory.resolve("copy.json").toString());
+        CsvImportReport report = new CsvReader(csv).importInto(imported);
+        assertEquals(2, report.getRowsImported());
+        assertEquals(1, report.getRowsRejected());
+        assertTrue(report.getProblems().get(0).startsWith("row 5:"));
+        List<Exercise> exercises = imported.getSessionByDate("2025/11/01").getExercises();
+        checkExercise(exercises.get(0), "Row\ncable, \"slow\"", Muscles.BACK, 60, 3, 12);
+        checkExercise(exercises.get(1), "Squat", Muscles.LEGS, 120, 5, 5);
+    }
+
+    @Test
+    void testSplitRowAndNormalizeDate() {
+        assertEquals(List.of("a", "b \"c\"", ""), CsvReader.splitRow("a,\"b \"\"c\"\"\","));
+        assertNull(CsvReader.splitRow("a,\"b"));
+        assertEquals("2025/01/05", CsvReader.normalizeDate("2025-1-5"));
+        assertNull(CsvReader.normalizeDate("2025/13/01"));
+        assertNull(CsvReader.normalizeDate("2025/02/31"));
+    }
+}
@@ -0,0 +1,32 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class FsyncPolicyTest {
+
+    @Test
+    void testEverySave() {
+        FsyncPolicy policy = FsyncPolicy.everySave();
+        assertTrue(policy.shouldSync());
+        assertTrue(policy.shouldSync());
+    }
+
+    @Test
+    void testBatched() {
+        FsyncPolicy policy = FsyncPolicy.batched(3);
+        assertFalse(policy.shouldSync());
+        assertFalse(policy.shouldSync());
+        assertTrue(policy.shouldSync());
+        assertFalse(policy.shouldSync());
+    }
+
+    @Test
+    void testNever() {
+        FsyncPolicy policy = FsyncPolicy.never();
+        for (int i = 0; i < 5; i++) {
+            assertFalse(policy.shouldSync());
+        }
+    }
+}
@@ -3,8 +3,12 @@ package persistence;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import model.Muscles;
 import model.WorkoutSession;
 
@@ -27,7 +31,7 @@ public class JsonReaderTest extends JsonTest {
 
     @Test
     public void testReaderEmptyfile() {
-        // testReaderEmptyLog.json file must contain: []
+        // testReaderEmptyLog.json file must contain an empty logbook
         JsonReader reader = new JsonReader("./data/testReaderEmptyLog.json");
         try {
             List<WorkoutSession> sessions = reader.read();
@@ -64,4 +68,130 @@ public class JsonReaderTest extends JsonTest {
             fail("Couldn't read from file: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testReaderLegacyLayout() {
+        // logFile.json uses the old layout: one "exercise" object per entry and "number of sets"
+        JsonReader reader = new JsonReader("./data/logFile.json");
+        try {
+            List<WorkoutSession> sessions = reader.read();
+            assertEquals(2, sessions.size());
+
+            // entries with the same date form one session
+            WorkoutSession session1 = sessions.get(0);
+            assertEquals("2024/10/10", session1.getDate());
+            assertEquals(3, session1.getExercises().size());
+            checkExercise(session1.getExercises().get(0), "Bench press", Muscles.CHEST, 100, 3, 12);
+            checkExercise(session1.getExercises().get(2), "Squat", Muscles.LEGS, 90, 3, 10);
+
+            WorkoutSession session2 = sessions.get(1);
+            assertEquals("2024/11/21", session2.getDate());
+            checkExercise(session2.getExercises().get(0), "Test", Muscles.LEGS, 100, 10, 3);
+        } catch (IOException e) {
+            fail("Couldn't read from file: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testReaderVersionedHeader(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log.json");
+        Files.writeString(file, "{\"format\": \"fitness-record\", \"version\": 2, \"sessions\": [{\"date\": "
+                + "\"2025/10/01\", \"exercises\": [{\"exercise name\": \"Bench press\", \"muscle Type\": "
+                + "\"CHEST\", \"weight\": 100, \"number of Sets\": 3, \"number of Repetitions\": 12}]}]}");
+
+        List<WorkoutSession> sessions = new JsonReader(file.toString()).read();
+        assertEquals(1, sessions.size());
+        checkExercise(sessions.get(0).getExercises().get(0), "Bench press", Muscles.CHEST, 100, 3, 12);
+    }
+
+    @Test
+    public void testReaderUnknownVersion(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log.json");
+        Files.writeString(file, "{\"format\": \"fitness-record\", \"version\": 99, \"sessions\": []}");
+
+        try {
+            new JsonReader(file.toString()).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testReaderParallelMatchesSequential(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log.json");
+        StringBuilder sessions = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            sessions.append(i == 0 ? "" : ",\n  ").append(session("2025/01/" + (i % 28 + 1),
+                    "Press \\\"[sessions]\\\" \u00e9 " + i, "CHEST", i));
+        }
+        Files.writeString(file, "{\"format\": \"fitness-record\", \"sessions\": [" + sessions
+                + "], \"version\": 2}");
+
+        List<WorkoutSession> expected = new JsonReader(file.toString()).read();
+        JsonReader reader = new JsonReader(file.toString());
+        reader.setParallelism(4);
+        reader.setChunkBytes(1);
+        List<WorkoutSession> actual = reader.read();
+
+        assertEquals(50, actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDate(), actual.get(i).getDate());
+            checkExercise(actual.get(i).getExercises().get(0), "Press \"[sessions]\" \u00e9 " + i,
+                    Muscles.CHEST, i, 3, 5);
+        }
+    }
+
+    @Test
+    public void testReaderParallelFallsBackToLegacyLayout() throws IOException {
+        JsonReader reader = new JsonReader("./data/logFile.json");
+        reader.setParallelism(4);
+        reader.setChunkBytes(1);
+        List<WorkoutSession> sessions = reader.read();
+        assertEquals(2, sessions.size());
+        assertEquals(3, sessions.get(0).getExercises().size());
+    }
+
+    @Test
+    public void testReaderSyntaxErrorOffset(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log.json");
+        String good = "[" + session("2025/10/01", "Curl \u00e9", "BICEPS", 10) + ", ";
+        Files.writeString(file, good + "{\"date\" \"2025/10/02\"}]");
+
+        MalformedLogbookException sequential = readMalformed(file, 1);
+        MalformedLogbookException parallel = readMalformed(file, 4);
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+        assertEquals(sequential.getByteOffset(), parallel.getByteOffset());
+        int errorAt = good.getBytes(StandardCharsets.UTF_8).length + "{\"date\" \"".length();
+        assertEquals(errorAt, sequential.getByteOffset());
+    }
+
+    @Test
+    public void testReaderMalformedSessionOffset(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("log.json");
+        String good = "[" + session("2025/10/01", "Curl", "BICEPS", 10) + ",\n ";
+        Files.writeString(file, good + session("2025/10/02", "Fly", "WINGS", 10) + "]");
+
+        MalformedLogbookException sequential = readMalformed(file, 1);
+        MalformedLogbookException parallel = readMalformed(file, 4);
+        assertEquals(sequential.getMessage(), parallel.getMessage());
+        assertTrue(sequential.getMessage().startsWith("Entry 1 "));
+        assertEquals(good.length(), sequential.getByteOffset());
+        assertEquals(good.length(), parallel.getByteOffset());
+    }
+
+    // EFFECTS: returns the JSON of a session on date with one exercise of 3 sets of 5 reps
+    private static String session(String date, String name, String muscle, int weight) {
+        return "{\"date\": \"" + date + "\", \"exercises\": [{\"exercise name\": \"" + name
+                + "\", \"muscle Type\": \"" + muscle + "\", \"weight\": " + weight
+                + ", \"number of Sets\": 3, \"number of Repetitions\": 5}]}";
+    }
+
+    // EFFECTS: reads file on parallelism threads in tiny chunks and returns the error it fails with
+    private static MalformedLogbookException readMalformed(Path file, int parallelism) throws IOException {
+        JsonReader reader = new JsonReader(file.toString());
+        reader.setParallelism(parallelism);
+        reader.setChunkBytes(1);
+        return assertThrows(MalformedLogbookException.class, reader::read);
+    }
 }
@@ -1,12 +1,25 @@
 package persistence;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import model.Exercise;
 import model.Logbook;
 import model.Muscles;
+import model.SetLog;
 import model.WorkoutSession;
 
 // Referenced from JsonSerialization Demo
@@ -25,13 +38,14 @@ public class JsonWriterTest extends JsonTest {
     }
 
     @Test
-    public void testWriterEmptyLog() {
+    public void testWriterEmptyLog(@TempDir Path directory) {
         try {
-            Logbook lb = new Logbook("./data/testReaderEmptyLog.json");
-            lb.saveLogBook(); // this saves an empty logbook: []
+            String file = directory.resolve("testWriterEmptyLog.json").toString();
+            Logbook lb = new Logbook(file);
+            lb.saveLogBook(); // this saves an empty logbook
 
             // now read it back to confirm
-            JsonReader reader = new JsonReader("./data/testReaderEmptyLog.json");
+            JsonReader reader = new JsonReader(file);
             List<WorkoutSession> sessions = reader.read();
             assertTrue(sessions.isEmpty());
         } catch (IOException e) {
@@ -40,9 +54,10 @@ public class JsonWriterTest extends JsonTest {
     }
     
     @Test
-    public void testWriterGenralLogbook() {
+    public void testWriterGenralLogbook(@TempDir Path directory) {
         try {
-            Logbook lb = new Logbook("./data/testWriterGeneralLog.json");
+            String file = directory.resolve("testWriterGeneralLog.json").toString();
+            Logbook lb = new Logbook(file);
 
             // create and add session 1
             WorkoutSession s1 = new WorkoutSession("2025/11/01");
@@ -59,7 +74,7 @@ public class JsonWriterTest extends JsonTest {
             lb.saveLogBook();
 
             // now read it back and verify
-            JsonReader reader = new JsonReader("./data/testWriterGeneralLog.json");
+            JsonReader reader = new JsonReader(file);
             List<WorkoutSession> sessions = reader.read();
             assertEquals(2, sessions.size());
 
@@ -80,4 +95,108 @@ public class JsonWriterTest extends JsonTest {
             fail("Exception should not have been thrown: " + e.getMessage());
         }
     }
+
+    @Test
+    public void testWriterSkipsSaveWithoutChanges(@TempDir Path directory) {
+        try {
+            Path file = directory.resolve("testWriterGeneralLog.json");
+            Files.copy(Path.of("./data/testWriterGeneralLog.json"), file);
+            Logbook lb = new Logbook(file.toString());
+            lb.loadLogBook();
+            assertFalse(lb.isDirty());
+
+            lb.saveLogBook();
+            assertFalse(lb.isDirty());
+
+            lb.getAllSessions().get(0).getExercises().get(0).setWeightLifted(140);
+            assertTrue(lb.isDirty());
+            assertEquals(1, lb.getChangeSet().getModifiedSessions().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void testWriterLeavesDestinationIntactUntilClose(@TempDir Path directory) throws IOException {
+        Path destination = directory.resolve("log.json");
+        Files.writeString(destination, "[]");
+
+        JsonWriter writer = new JsonWriter(destination.toString(), FsyncPolicy.never());
+        writer.open();
+        writer.write(new JSONArray().put(new WorkoutSession("2025/11/01").toJson()));
+        assertEquals("[]", Files.readString(destination));
+
+        writer.close();
+        assertEquals(1, new JsonReader(destination.toString()).read().size());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count()); // the temporary file was renamed, not left behind
+        }
+    }
+
+    @Test
+    public void testWriterKeepsDestinationPermissions(@TempDir Path directory) throws IOException {
+        assumeTrue(Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class));
+        Path destination = directory.resolve("log.json");
+        Files.writeString(destination, "[]");
+        Files.setPosixFilePermissions(destination, PosixFilePermissions.fromString("rw-r-----"));
+
+        JsonWriter writer = new JsonWriter(destination.toString(), FsyncPolicy.never());
+        writer.open();
+        writer.write(new JSONArray());
+        writer.close();
+        assertEquals("rw-r-----", PosixFilePermissions.toString(Files.getPosixFilePermissions(destination)));
+    }
+
+    @Test
+    public void testWriterCompressedLogbook(@TempDir Path directory) throws IOException {
+        for (Compression compression : new Compression[] {Compression.GZIP, Compression.DEFLATE}) {
+            String file = directory.resolve("log.json" + compression.getExtension()).toString();
+            Logbook lb = new Logbook(file);
+            WorkoutSession s1 = new WorkoutSession("2025/11/01");
+            s1.addExercise(new Exercise("Bench press", Muscles.CHEST, 135, 3, 5));
+            lb.addSession(s1);
+            lb.saveLogBook();
+
+            byte[] bytes = Files.readAllBytes(Path.of(file));
+            assertNotEquals('[', bytes[0]); // not plain JSON text
+
+            List<WorkoutSession> sessions = new JsonReader(file).read();
+            assertEquals(1, sessions.size());
+            checkExercise(sessions.get(0).getExercises().get(0), "Bench press", Muscles.CHEST, 135, 3, 5);
+        }
+    }
+
+    @Test
+    public void testWriterWritesVersionHeader(@TempDir Path directory) throws IOException {
+        String file = directory.resolve("log.json").toString();
+        Logbook lb = new Logbook(file);
+        lb.addSession(new WorkoutSession("2025/11/01"));
+        lb.saveLogBook();
+
+        JSONObject header = new JSONObject(Files.readString(Path.of(file)));
+        assertEquals("fitness-record", header.getString("format"));
+        assertEquals(LogbookFormat.CURRENT.getVersion(), header.getInt("version"));
+        assertEquals(1, header.getJSONArray("sessions").length());
+    }
+
+    @Test
+    public void testWriterKeepsMuscleMasksAndSetLogs(@TempDir Path directory) throws IOException {
+        Logbook lb = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession session = new WorkoutSession("2025/11/01");
+        Exercise deadlift = new Exercise("Deadlift", Muscles.BACK, 180, 3, 5);
+        deadlift.setMuscles(EnumSet.of(Muscles.BACK, Muscles.LEGS));
+        deadlift.setSets(SetLog.parse("140x5, 160x3 @8, 180x1 @9.5 /240s"));
+        session.addExercise(deadlift);
+        session.addExercise(new Exercise("Curl", Muscles.BICEPS, 15, 3, 12));
+        lb.addSession(session);
+        lb.saveLogBook();
+
+        List<Exercise> read = new JsonReader(directory.resolve("log.json").toString()).read().get(0).getExercises();
+        assertEquals(Muscles.BACK, read.get(0).getMuscleType());
+        assertEquals(EnumSet.of(Muscles.BACK, Muscles.LEGS), read.get(0).getMuscles());
+        assertEquals(deadlift.getSets(), read.get(0).getSets());
+        assertEquals(180, read.get(0).getWeightLifted());
+        assertTrue(read.get(1).getSets().isEmpty());
+        assertEquals(EnumSet.of(Muscles.BICEPS), read.get(1).getMuscles());
+    }
 }
@@ -0,0 +1,155 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class LogbookRegistryTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testOpensOnDemandAndEvictsLeastRecentlyUsed() throws IOException {
+        LogbookRegistry registry = new LogbookRegistry(directory.resolve("users").toString(), 2, Long.MAX_VALUE);
+        registry.withLogbook("alice", logbook -> {
+            WorkoutSession session = new WorkoutSession("2025/11/01");
+            session.addExercise(new Exercise("Squat", Muscles.LEGS, 100, 5, 5));
+            logbook.addSession(session);
+            return null;
+        });
+        registry.withLogbook("bob", logbook -> logbook.getSessionCount());
+        assertFalse(Files.exists(directory.resolve("users/alice.json")));   // nothing saved while resident
+
+        registry.withLogbook("carol", logbook -> logbook.getSessionCount());
+        assertEquals(List.of("bob", "carol"), registry.getResidentUsers());
+        assertTrue(Files.exists(directory.resolve("users/alice.json")));    // saved on eviction
+        assertFalse(Files.exists(directory.resolve("users/bob.json")));     // nothing to save
+
+        int sessions = registry.withLogbook("alice", logbook -> {
+            checkExercise(logbook.getAllSessions().get(0).getExercises().get(0), "Squat", Muscles.LEGS, 100, 5, 5);
+            return logbook.getSessionCount();
+        });
+        assertEquals(1, sessions);
+        assertEquals(List.of("carol", "alice"), registry.getResidentUsers());
+    }
+
+    @Test
+    void testMemoryBudget() throws IOException {
+        Logbook sample = new Logbook(directory.resolve("sample.json").toString());
+        addTwoSessions(sample);
+        long budget = LogbookRegistry.estimate(sample) * 3 / 2;
+        LogbookRegistry registry = new LogbookRegistry(directory.toString(), 100, budget);
+        for (String user : new String[] {"a", "b", "c"}) {
+            registry.withLogbook(user, logbook -> {
+                addTwoSessions(logbook);
+                return null;
+            });
+            assertTrue(registry.getEstimatedBytes() <= budget);
+        }
+        assertEquals(List.of("c"), registry.getResidentUsers());
+        assertTrue(Files.exists(directory.resolve("a.json")));
+        assertTrue(Files.exists(directory.resolve("b.json")));
+
+        registry.flushAll();
+        assertTrue(Files.exists(directory.resolve("c.json")));
+    }
+
+    @Test
+    void testEstimateCountsUndoAndCaches() {
+        Logbook logbook = new Logbook(directory.resolve("log.json").toString());
+        WorkoutSession session = new WorkoutSession("2025/11/01");
+        Exercise squat = new Exercise("Squat", Muscles.LEGS, 100, 5, 5);
+        session.addExercise(squat);
+        logbook.addSession(session);
+        long estimate = LogbookRegistry.estimate(logbook);
+
+        squat.setWeightLifted(110);
+        assertEquals(estimate + LogbookRegistry.JOURNAL_BYTES, LogbookRegistry.estimate(logbook));
+        estimate = LogbookRegistry.estimate(logbook);
+
+        logbook.filterSessionsByMuscle(Muscles.LEGS);
+        assertEquals(estimate + LogbookRegistry.QUERY_BYTES + LogbookRegistry.QUERY_ITEM_BYTES,
+                LogbookRegistry.estimate(logbook));
+
+        logbook.clearLogbook();
+        assertTrue(LogbookRegistry.estimate(logbook) >= 2 * LogbookRegistry.JOURNAL_BYTES);
+    }
+
+    @Test
+    void testLogbookInUseIsNotEvicted() throws Exception {
+        LogbookRegistry registry = new LogbookRegistry(directory.toString(), 1, Long.MAX_VALUE);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch leave = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Object> busy = executor.submit(() -> registry.withLogbook("busy", logbook -> {
+            entered.countDown();
+            try {
+                leave.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return null;
+        }));
+
+        entered.await();
+        registry.withLogbook("other", logbook -> null);
+        assertTrue(registry.isResident("busy"));
+        assertFalse(registry.isResident("other"));
+
+        leave.countDown();
+        busy.get();
+        executor.shutdown();
+    }
+
+    @Test
+    void testAccessIsSerializedPerUser() throws Exception {
+        LogbookRegistry registry = new LogbookRegistry(directory.toString(), 4, Long.MAX_VALUE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // read-then-write: without per-user serialization two callers could pick the same date
+            results.add(executor.submit(() -> registry.withLogbook("shared", logbook -> {
+                int day = logbook.getSessionCount();
+                Thread.yield();
+                logbook.addSession(new WorkoutSession("2025/01/" + day));
+                return null;
+            })));
+        }
+        for (Future<Object> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        int dates = registry.withLogbook("shared", logbook -> logbook.getIndexedDateCount());
+        assertEquals(200, dates);
+    }
+
+    @Test
+    void testInvalidUser() {
+        LogbookRegistry registry = new LogbookRegistry(directory.toString(), 1, Long.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> registry.withLogbook("../etc", logbook -> null));
+    }
+
+    // MODIFIES: logbook
+    // EFFECTS: adds two empty sessions to logbook
+    private static void addTwoSessions(Logbook logbook) {
+        logbook.addSession(new WorkoutSession("2025/11/01"));
+        logbook.addSession(new WorkoutSession("2025/11/02"));
+    }
+}
@@ -0,0 +1,133 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Exercise;
+import model.Logbook;
+import model.Muscles;
+import model.WorkoutSession;
+
+public class PartitionedStoreTest extends JsonTest {
+    @TempDir
+    Path directory;
+
+    private Logbook logbook;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        logbook = new Logbook(new PartitionedStore(directory.toString()));
+        logbook.addSession(session("2025/09/28", new Exercise("Deadlift", Muscles.BACK, 180, 3, 5)));
+        logbook.addSession(session("2025/10/01", new Exercise("Bench press", Muscles.CHEST, 100, 3, 8)));
+        logbook.addSession(session("2025/10/03", new Exercise("Squat", Muscles.LEGS, 140, 5, 5)));
+        logbook.saveLogBook();
+    }
+
+    @Test
+    void testPartitionOf() {
+        assertEquals("2025-10", PartitionedStore.partitionOf("2025/10/01"));
+        assertEquals("2025-01", PartitionedStore.partitionOf("2025/1/5"));
+        assertEquals("undated", PartitionedStore.partitionOf("YYYY/MM/DD"));
+        assertEquals("undated", PartitionedStore.partitionOf("yesterday"));
+    }
+
+    @Test
+    void testWriteCreatesSegmentPerMonth() throws IOException {
+        PartitionedStore store = new PartitionedStore(directory.toString());
+        assertEquals(List.of("2025-09", "2025-10"), store.getPartitions());
+        assertTrue(Files.exists(directory.resolve("2025-09.json")));
+        assertTrue(Files.exists(directory.resolve("2025-10.json")));
+    }
+
+    @Test
+    void testLoadOnlyRequestedMonths() throws IOException {
+        Logbook reopened = new Logbook(new PartitionedStore(directory.toString()));
+        reopened.loadLogBook("2025/10/01", "2025/10/31");
+
+        List<WorkoutSession> sessions = reopened.getAllSessions();
+        assertEquals(2, sessions.size());
+        assertEquals("2025/10/01", sessions.get(0).getDate());
+        checkExercise(sessions.get(1).getExercises().get(0), "Squat", Muscles.LEGS, 140, 5, 5);
+
+        reopened.loadLogBook();
+        assertEquals(3, reopened.getAllSessions().size());
+    }
+
+    @Test
+    void testSaveOnlyRewritesChangedMonths() throws IOException {
+        Path september = directory.resolve("2025-09.json");
+        String compact = new JSONObject(Files.readString(september)).toString();
+        Files.writeString(september, compact);
+
+        Logbook reopened = new Logbook(new PartitionedStore(directory.toString()));
+        reopened.loadLogBook();
+        reopened.getSessionByDate("2025/10/03").addExercise(new Exercise("Lunge", Muscles.LEGS, 40, 3, 12));
+        reopened.saveLogBook();
+
+        // september was not changed, so the file keeps the compact layout written behind the store's back
+        assertEquals(compact, Files.readString(september));
+        assertTrue(Files.readString(directory.resolve("2025-10.json")).contains("Lunge"));
+    }
+
+    @Test
+    void testSaveIntoUnloadedMonthKeepsItsHistory() throws IOException {
+        Logbook reopened = new Logbook(new PartitionedStore(directory.toString()));
+        reopened.loadLogBook("2025/10/01", "2025/10/31");
+        reopened.addSession(session("2025/09/30", new Exercise("Row", Muscles.BACK, 70, 4, 10)));
+        reopened.saveLogBook();
+
+        Logbook september = new Logbook(new PartitionedStore(directory.toString()));
+        september.loadLogBook("2025/09/01", "2025/09/30");
+        List<WorkoutSession> sessions = september.getAllSessions();
+        assertEquals(2, sessions.size());
+        assertNotNull(september.getSessionByDate("2025/09/28"));
+        assertNotNull(september.getSessionByDate("2025/09/30"));
+    }
+
+    @Test
+    void testSaveIntoUnloadedMonthLeavesLogbookAlone() throws IOException {
+        Logbook reopened = new Logbook(new PartitionedStore(directory.toString()));
+        reopened.loadLogBook("2025/10/01", "2025/10/31");
+        reopened.addSession(session("2025/09/28", new Exercise("Row", Muscles.BACK, 70, 4, 10)));
+        reopened.saveLogBook();
+        assertEquals(3, reopened.getAllSessions().size());
+        assertEquals(1, reopened.getSessionByDate("2025/09/28").getExercises().size());
+
+        reopened.getSessionByDate("2025/09/28").addExercise(new Exercise("Curl", Muscles.BICEPS, 20, 3, 12));
+        reopened.saveLogBook();
+
+        Logbook september = new Logbook(new PartitionedStore(directory.toString()));
+        september.loadLogBook("2025/09/01", "2025/09/30");
+        assertEquals(1, september.getAllSessions().size());
+        List<Exercise> exercises = september.getSessionByDate("2025/09/28").getExercises();
+        assertEquals(3, exercises.size());
+        checkExercise(exercises.get(0), "Deadlift", Muscles.BACK, 180, 3, 5);
+        checkExercise(exercises.get(2), "Curl", Muscles.BICEPS, 20, 3, 12);
+    }
+
+    @Test
+    void testClearedMonthIsRemoved() throws IOException {
+        Logbook reopened = new Logbook(new PartitionedStore(directory.toString()));
+        reopened.loadLogBook("2025/09/01", "2025/09/30");
+        reopened.clearLogbook();
+        reopened.saveLogBook();
+
+        assertFalse(Files.exists(directory.resolve("2025-09.json")));
+        assertEquals(List.of("2025-10"), new PartitionedStore(directory.toString()).getPartitions());
+    }
+
+    private WorkoutSession session(String date, Exercise exercise) {
+        WorkoutSession session = new WorkoutSession(date);
+        session.addExercise(exercise);
+        return session;
+    }
+}
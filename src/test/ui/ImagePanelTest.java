@@ -0,0 +1,25 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.ImageIcon;
+
+import org.junit.jupiter.api.Test;
+
+public class ImagePanelTest {
+
+    @Test
+    void testImageIsDecodedOnceAndCached() throws InterruptedException, ExecutionException {
+        CompletableFuture<ImageIcon> first = ImagePanel.preload("./image/background.png");
+        assertSame(first, ImagePanel.preload("./image/background.png"));
+        assertTrue(first.get().getIconWidth() > 0);
+    }
+
+    @Test
+    void testMissingImageYieldsNoIcon() throws InterruptedException, ExecutionException {
+        assertNull(ImagePanel.preload("./image/missing.png").get());
+    }
+}
@@ -0,0 +1,190 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.Exercise;
+import model.Logbook;
+import model.QuantileSketch;
+import persistence.JsonReader;
+
+public class LogbookServiceTest {
+    @TempDir
+    Path directory;
+
+    private Logbook logbook;
+    private LogbookService service;
+    private HttpClient client;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        logbook = new Logbook(directory.resolve("log.json").toString());
+        service = new LogbookService(logbook, 0);
+        service.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        service.stop();
+    }
+
+    @Test
+    void testAddQueryUpdateRemove() throws Exception {
+        HttpResponse<String> added = send("POST", "/exercises", exercise("2025/11/01", "Squat", "LEGS"));
+        assertEquals(200, added.statusCode());
+        assertEquals("Squat", new JSONObject(added.body()).getString("exercise name"));
+
+        JSONArray byMuscle = new JSONArray(send("GET", "/sessions?muscle=legs", null).body());
+        assertEquals(1, byMuscle.length());
+        assertEquals("2025/11/01", byMuscle.getJSONObject(0).getString("date"));
+
+        HttpResponse<String> updated = send("PUT", "/exercises?date=2025/11/01&name=squat", "{\"weight\": 140}");
+        assertEquals(140, new JSONObject(updated.body()).getInt("weight"));
+        assertEquals(140, logbook.getSessionByDate("2025/11/01").getExercises().get(0).getWeightLifted());
+
+        assertEquals(200, send("DELETE", "/exercises?date=2025/11/01&name=Squat", null).statusCode());
+        assertTrue(logbook.getSessionByDate("2025/11/01").getExercises().isEmpty());
+        assertEquals(404, send("DELETE", "/exercises?date=2025/11/01&name=Squat", null).statusCode());
+    }
+
+    @Test
+    void testBadRequests() throws Exception {
+        assertEquals(400, send("POST", "/exercises", "{\"date\": \"2025/11/01\"}").statusCode());
+        assertEquals(400, send("GET", "/exercises?muscle=WINGS", null).statusCode());
+        assertEquals(400, send("GET", "/exercises", null).statusCode());
+        assertEquals(404, send("PUT", "/exercises?date=2030/01/01&name=Squat", "{}").statusCode());
+        assertEquals(405, send("GET", "/save", null).statusCode());
+    }
+
+    @Test
+    void testInvalidExercisesAreRejected() throws Exception {
+        JSONObject squat = new JSONObject(exercise("2025/11/01", "Squat", "LEGS"));
+        assertEquals(400, send("POST", "/exercises", squat.put("exercise name", " ").toString()).statusCode());
+        squat = new JSONObject(exercise("not a date", "Squat", "LEGS"));
+        assertEquals(400, send("POST", "/exercises", squat.toString()).statusCode());
+        squat = new JSONObject(exercise("2025/11/01", "Squat", "LEGS"));
+        assertEquals(400, send("POST", "/exercises", squat.put("weight", -1).toString()).statusCode());
+        assertEquals(0, logbook.getSessionCount());
+
+        send("POST", "/exercises", exercise("2025/11/01", "Squat", "LEGS"));
+        assertEquals(400, send("PUT", "/exercises?date=2025/11/01&name=Squat", "{\"exercise name\": \"\"}")
+                .statusCode());
+        assertEquals(400, send("PUT", "/exercises?date=2025/11/01&name=Squat", "{\"number of Sets\": -3}")
+                .statusCode());
+        assertEquals(3, logbook.getSessionByDate("2025/11/01").getExercises().get(0).getNumSets());
+    }
+
+    @Test
+    void testUpdateIsAtomicAndUndoneAsOne() throws Exception {
+        send("POST", "/exercises", exercise("2025/11/01", "Squat", "LEGS"));
+        Exercise squat = logbook.getSessionByDate("2025/11/01").getExercises().get(0);
+        int undoCount = logbook.getUndoCount();
+
+        assertEquals(400, send("PUT", "/exercises?date=2025/11/01&name=Squat",
+                "{\"weight\": 140, \"number of Sets\": -1}").statusCode());
+        assertEquals(100, squat.getWeightLifted());
+        assertEquals(undoCount, logbook.getUndoCount());
+
+        assertEquals(200, send("PUT", "/exercises?date=2025/11/01&name=Squat",
+                "{\"weight\": 140, \"number of Sets\": 4, \"number of Repetitions\": 6}").statusCode());
+        assertEquals(undoCount + 1, logbook.getUndoCount());
+        logbook.undo();
+        assertEquals(100, squat.getWeightLifted());
+        assertEquals(3, squat.getNumSets());
+        assertEquals(5, squat.getNumReps());
+    }
+
+    @Test
+    void testUpdateKeepsLoggedSets() throws Exception {
+        send("POST", "/exercises", exercise("2025/11/01", "Squat", "LEGS"));
+        Exercise squat = logbook.getSessionByDate("2025/11/01").getExercises().get(0);
+        String update = "/exercises?date=2025/11/01&name=Squat";
+        assertEquals(200, send("PUT", update, "{\"set log\": \"100x8, 110x5 @9\"}").statusCode());
+        assertEquals(110, squat.getWeightLifted());
+        int undoCount = logbook.getUndoCount();
+
+        assertEquals(400, send("PUT", update, "{\"number of Repetitions\": 9}").statusCode());
+        assertEquals(400, send("PUT", update, "{\"set log\": \"100x8\", \"weight\": 110}").statusCode());
+        assertEquals(2, squat.getSets().size());
+        assertEquals(5, squat.getNumReps());
+        assertEquals(undoCount, logbook.getUndoCount());
+
+        assertEquals(200, send("PUT", update, "{\"set log\": \"100x8, 120x3\", \"weight\": 120, "
+                + "\"number of Sets\": 2}").statusCode());
+        assertEquals(3, squat.getNumReps());
+        assertEquals(undoCount + 1, logbook.getUndoCount());
+    }
+
+    @Test
+    void testSave() throws Exception {
+        send("POST", "/exercises", exercise("2025/11/01", "Squat", "LEGS"));
+        assertEquals(200, send("POST", "/save", "").statusCode());
+        assertEquals(1, new JsonReader(directory.resolve("log.json").toString()).read().size());
+    }
+
+    @Test
+    void testDistributions() throws Exception {
+        send("POST", "/exercises", exercise("2025/11/01", "Squat", "LEGS"));
+        send("POST", "/exercises", exercise("2025/12/01", "Squat", "LEGS"));
+        send("PUT", "/exercises?date=2025/12/01&name=squat", "{\"weight\": 120}");
+
+        JSONObject months = new JSONObject(send("GET", "/distributions?name=SQUAT", null).body());
+        assertEquals(Set.of("2025/11", "2025/12"), months.keySet());
+        QuantileSketch weights = QuantileSketch.fromJson(months.getJSONObject("2025/11").getJSONObject("weight"));
+        weights.merge(QuantileSketch.fromJson(months.getJSONObject("2025/12").getJSONObject("weight")));
+        assertEquals(2 * 3, weights.getCount());
+        assertEquals(120, weights.getQuantile(1));
+        assertEquals(400, send("GET", "/distributions", null).statusCode());
+    }
+
+    @Test
+    void testConcurrentAddsToOneDateShareOneSession() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            responses.add(client.sendAsync(request("POST", "/exercises", exercise("2025/11/02", "Curl" + i, "BICEPS")),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+
+        assertEquals(1, logbook.getSessionCount());
+        assertEquals(200, logbook.getExerciseCount());
+        assertEquals(1, new JSONObject(send("GET", "/health", null).body()).getInt("sessions"));
+    }
+
+    // EFFECTS: returns the JSON body that adds exercise name for muscle on date
+    private static String exercise(String date, String name, String muscle) {
+        return new JSONObject().put("date", date).put("exercise name", name).put("muscle Type", muscle)
+                .put("weight", 100).put("number of Sets", 3).put("number of Repetitions", 5).toString();
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + service.getPort() + path))
+                .method(method, publisher).build();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+}